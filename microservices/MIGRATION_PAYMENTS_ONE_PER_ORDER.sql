@@ -0,0 +1,102 @@
+-- ============================================================
+-- MIGRATION SCRIPT: ONE PAYMENT ROW PER ORDER
+-- Run this before starting payment-service on a database created by an
+-- older version, which inserted a new FAILED row on every failed attempt.
+-- MySQL 8.
+--
+-- Stops without changing anything if an order has more than one SUCCESS or
+-- REFUNDED row: that is a possible double charge and must be reconciled with
+-- the processor by hand first. The first SELECT below lists such orders.
+--
+-- Otherwise each order keeps its SUCCESS/REFUNDED row, or else its newest row.
+-- The other rows are copied to payments_superseded before being deleted, and
+-- their transactions are re-pointed at the row that is kept.
+-- ============================================================
+
+USE payment_db;
+
+-- Report: orders with more than one settled row (must be empty to proceed)
+SELECT order_id, COUNT(*) AS settled_rows, GROUP_CONCAT(id ORDER BY id) AS payment_ids
+FROM payments
+WHERE payment_status IN ('SUCCESS', 'REFUNDED')
+GROUP BY order_id
+HAVING COUNT(*) > 1;
+
+DROP PROCEDURE IF EXISTS migrate_payments_one_per_order;
+
+DELIMITER //
+
+CREATE PROCEDURE migrate_payments_one_per_order()
+BEGIN
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        RESIGNAL;
+    END;
+
+    IF EXISTS (
+        SELECT 1 FROM payments
+        WHERE payment_status IN ('SUCCESS', 'REFUNDED')
+        GROUP BY order_id
+        HAVING COUNT(*) > 1
+    ) THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'Orders with several SUCCESS/REFUNDED payments found; reconcile them before migrating';
+    END IF;
+
+    CREATE TABLE IF NOT EXISTS payments_superseded LIKE payments;
+
+    START TRANSACTION;
+
+    -- The row each order keeps
+    DROP TEMPORARY TABLE IF EXISTS payment_keep;
+    CREATE TEMPORARY TABLE payment_keep (
+        order_id BIGINT PRIMARY KEY,
+        keep_id BIGINT NOT NULL
+    );
+    INSERT INTO payment_keep (order_id, keep_id)
+    SELECT order_id,
+           COALESCE(MAX(CASE WHEN payment_status IN ('SUCCESS', 'REFUNDED') THEN id END), MAX(id))
+    FROM payments
+    GROUP BY order_id
+    HAVING COUNT(*) > 1;
+
+    INSERT INTO payments_superseded
+    SELECT p.* FROM payments p
+    JOIN payment_keep k ON k.order_id = p.order_id AND p.id <> k.keep_id;
+
+    UPDATE transactions t
+    JOIN payments p ON p.id = t.payment_id
+    JOIN payment_keep k ON k.order_id = p.order_id AND p.id <> k.keep_id
+    SET t.payment_id = k.keep_id;
+
+    DELETE p FROM payments p
+    JOIN payment_keep k ON k.order_id = p.order_id AND p.id <> k.keep_id;
+
+    COMMIT;
+
+    DROP TEMPORARY TABLE payment_keep;
+
+    IF NOT EXISTS (
+        SELECT 1 FROM information_schema.COLUMNS
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'payments' AND COLUMN_NAME = 'version'
+    ) THEN
+        ALTER TABLE payments ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+    END IF;
+
+    IF NOT EXISTS (
+        SELECT 1 FROM information_schema.STATISTICS
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'payments' AND INDEX_NAME = 'uk_payments_order_id'
+    ) THEN
+        ALTER TABLE payments ADD CONSTRAINT uk_payments_order_id UNIQUE (order_id);
+    END IF;
+END //
+
+DELIMITER ;
+
+CALL migrate_payments_one_per_order();
+DROP PROCEDURE migrate_payments_one_per_order;
+
+-- Verify: both empty
+SELECT order_id, COUNT(*) FROM payments GROUP BY order_id HAVING COUNT(*) > 1;
+SELECT t.id, t.payment_id FROM transactions t LEFT JOIN payments p ON p.id = t.payment_id WHERE p.id IS NULL;
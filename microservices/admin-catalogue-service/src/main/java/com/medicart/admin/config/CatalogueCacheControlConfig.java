@@ -0,0 +1,45 @@
+package com.medicart.admin.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marks the public catalogue reads as shareable for a short while, so the gateway's
+ * response cache (and browsers) may keep them. Setting Cache-Control here also stops
+ * Spring Security from writing its default no-cache/no-store headers on these
+ * responses. Polling endpoints whose answer depends on a cursor are left uncached.
+ */
+@Configuration
+public class CatalogueCacheControlConfig implements WebMvcConfigurer {
+
+    private final String cacheControl;
+
+    public CatalogueCacheControlConfig(@Value("${catalogue.http.cache-max-age-seconds:30}") long maxAgeSeconds) {
+        this.cacheControl = CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic().getHeaderValue();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                        if (HttpMethod.GET.matches(request.getMethod())) {
+                            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+                        }
+                        return true;
+                    }
+                })
+                .addPathPatterns("/medicines/**", "/batches/**")
+                .excludePathPatterns("/medicines/stock-alerts", "/batches/feed");
+    }
+}
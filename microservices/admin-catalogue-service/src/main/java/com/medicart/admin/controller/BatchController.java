@@ -1,13 +1,17 @@
 package com.medicart.admin.controller;
 
 import com.medicart.admin.service.BatchService;
+import com.medicart.admin.service.ExpiryIndexService;
 import com.medicart.common.dto.BatchDTO;
+import com.medicart.common.dto.ExpiryReportDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,9 +20,11 @@ public class BatchController {
 
     private static final Logger log = LoggerFactory.getLogger(BatchController.class);
     private final BatchService service;
+    private final ExpiryIndexService expiryIndexService;
 
-    public BatchController(BatchService service) {
+    public BatchController(BatchService service, ExpiryIndexService expiryIndexService) {
         this.service = service;
+        this.expiryIndexService = expiryIndexService;
     }
 
     private void logSecurityContext(String methodName) {
@@ -48,6 +54,24 @@ public class BatchController {
         return batches;
     }
 
+    @GetMapping("/feed")
+    public List<BatchDTO> getBatchFeed(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.debug("🔷 [GET /batches/feed] since={}, afterId={}, limit={}", since, afterId, limit);
+        LocalDateTime from = since != null ? since : LocalDateTime.of(1970, 1, 1, 0, 0);
+        return service.getBatchFeed(from, afterId, Math.min(Math.max(limit, 1), 1000));
+    }
+
+    @GetMapping("/expiry")
+    public ExpiryReportDTO getExpiryReport(
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.debug("🔷 [GET /batches/expiry] days={}, limit={}", days, limit);
+        return expiryIndexService.getReport(Math.min(Math.max(days, 0), 3650), Math.min(Math.max(limit, 0), 1000));
+    }
+
     @PostMapping
     public BatchDTO createBatch(@RequestBody BatchDTO dto) {
         log.debug("🔶 [POST /batches] REQUEST RECEIVED");
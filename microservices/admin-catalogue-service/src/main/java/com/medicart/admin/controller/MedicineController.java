@@ -1,6 +1,8 @@
 package com.medicart.admin.controller;
 
+import com.medicart.admin.service.LowStockDetector;
 import com.medicart.admin.service.MedicineService;
+import com.medicart.admin.stock.StockLevelChangedEvent;
 import com.medicart.common.dto.MedicineDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,9 +18,11 @@ public class MedicineController {
 
     private static final Logger log = LoggerFactory.getLogger(MedicineController.class);
     private final MedicineService medicineService;
+    private final LowStockDetector lowStockDetector;
 
-    public MedicineController(MedicineService medicineService) {
+    public MedicineController(MedicineService medicineService, LowStockDetector lowStockDetector) {
         this.medicineService = medicineService;
+        this.lowStockDetector = lowStockDetector;
     }
 
     private void logSecurityContext(String methodName) {
@@ -51,6 +55,23 @@ public class MedicineController {
         return ResponseEntity.ok(medicines);
     }
 
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<LowStockDetector.StockState>> getLowStockMedicines() {
+        log.debug("🔷 [GET /medicines/low-stock] REQUEST RECEIVED");
+        return ResponseEntity.ok(lowStockDetector.getBelowThreshold());
+    }
+
+    /**
+     * Poll for stock level changes: pass the last sequence number seen as {@code after}.
+     */
+    @GetMapping("/stock-alerts")
+    public ResponseEntity<List<StockLevelChangedEvent>> getStockAlerts(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.debug("🔷 [GET /medicines/stock-alerts] after={}, limit={}", after, limit);
+        return ResponseEntity.ok(lowStockDetector.getEventsAfter(after, Math.min(Math.max(limit, 1), 1000)));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MedicineDTO> getMedicineById(@PathVariable Long id) {
         log.debug("🔷 [GET /medicines/{}] REQUEST RECEIVED", id);
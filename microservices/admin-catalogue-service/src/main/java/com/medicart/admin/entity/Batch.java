@@ -11,6 +11,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "batches", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"medicine_id", "batch_number"})
+}, indexes = {
+    @Index(name = "idx_batches_updated_at", columnList = "updated_at, id")
 })
 @Data
 @NoArgsConstructor
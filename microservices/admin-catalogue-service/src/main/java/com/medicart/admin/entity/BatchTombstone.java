@@ -0,0 +1,32 @@
+package com.medicart.admin.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Marker left by a deleted batch so the change feed can report the delete; the
+ * batch row itself is gone. Kept for {@code catalogue.feed.tombstone-retention-days}.
+ */
+@Entity
+@Table(name = "batch_tombstones", indexes = {
+    @Index(name = "idx_batch_tombstones_deleted_at", columnList = "deleted_at, batch_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchTombstone {
+    @Id
+    @Column(name = "batch_id")
+    private Long batchId;
+
+    @Column(name = "medicine_id", nullable = false)
+    private Long medicineId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
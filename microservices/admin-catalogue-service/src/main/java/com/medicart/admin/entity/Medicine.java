@@ -45,6 +45,10 @@ public class Medicine {
     @Builder.Default
     private Boolean inStock = true;
 
+    /** Usable (unexpired) quantity at or below which the medicine is LOW; null uses the default */
+    @Column(name = "reorder_threshold")
+    private Integer reorderThreshold;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
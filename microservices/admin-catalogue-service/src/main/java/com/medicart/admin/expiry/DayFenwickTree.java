@@ -0,0 +1,62 @@
+package com.medicart.admin.expiry;
+
+import java.util.Arrays;
+
+/**
+ * Fenwick (binary indexed) tree over day slots, giving O(log D) point updates and
+ * prefix sums. Grows by doubling when a day beyond the current capacity is added.
+ */
+final class DayFenwickTree {
+
+    private long[] values;
+    private long[] tree;
+
+    DayFenwickTree(int capacity) {
+        values = new long[capacity];
+        tree = new long[capacity + 1];
+    }
+
+    void add(int slot, long delta) {
+        if (slot >= values.length) {
+            grow(slot + 1);
+        }
+        values[slot] += delta;
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /** Sum of slots [0, slot] */
+    long prefixSum(int slot) {
+        if (slot < 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = Math.min(slot + 1, tree.length - 1); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /** Sum of slots (fromExclusive, toInclusive] */
+    long rangeSum(int fromExclusive, int toInclusive) {
+        return prefixSum(toInclusive) - prefixSum(fromExclusive);
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = values.length;
+        while (capacity < minCapacity) {
+            capacity *= 2;
+        }
+        values = Arrays.copyOf(values, capacity);
+        tree = new long[capacity + 1];
+        // O(n) bottom-up construction
+        for (int i = 1; i <= capacity; i++) {
+            tree[i] += values[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= capacity) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
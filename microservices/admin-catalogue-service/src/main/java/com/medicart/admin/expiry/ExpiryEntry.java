@@ -0,0 +1,14 @@
+package com.medicart.admin.expiry;
+
+import java.time.LocalDate;
+
+/**
+ * Snapshot of the batch fields the expiry index needs.
+ */
+public record ExpiryEntry(long batchId,
+                          long medicineId,
+                          String medicineName,
+                          String batchNo,
+                          LocalDate expiryDate,
+                          int qtyAvailable) {
+}
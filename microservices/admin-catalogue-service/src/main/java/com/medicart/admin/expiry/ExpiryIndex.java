@@ -0,0 +1,242 @@
+package com.medicart.admin.expiry;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of batches ordered by expiry date.
+ *
+ * Stocked batches live in a skip list keyed by (expiryDate, batchId) for ordered
+ * range listing, and two Fenwick trees over expiry day hold batch counts and
+ * quantities, so "expired" and "expiring within N days" totals are O(log D) prefix
+ * sums. Per medicine, a sorted multiset of expiry dates answers "does this medicine
+ * have an unexpired batch" from its last key.
+ *
+ * A rebuild fills fresh structures and swaps them in under the write lock, so the
+ * live ones are never cleared. Listing reads go straight to the current skip list
+ * without taking the lock. Upserts and removals made while a rebuild is reading the
+ * database are recorded and replayed onto its result.
+ *
+ * The index is keyed by absolute dates, so moving to a new day needs no data change;
+ * the daily rollover only re-syncs it with the database.
+ */
+@Component
+public class ExpiryIndex {
+
+    /** Day slot 0; earlier expiry dates are clamped to it */
+    private static final LocalDate BASE_DATE = LocalDate.of(2000, 1, 1);
+    private static final int INITIAL_DAYS = 64 * 365;
+    /** Expiry dates more than ~200 years out share the last slot */
+    private static final int MAX_SLOT = 200 * 366;
+
+    private static final Comparator<ExpiryKey> KEY_ORDER =
+            Comparator.comparing(ExpiryKey::expiryDate).thenComparingLong(ExpiryKey::batchId);
+
+    private record ExpiryKey(LocalDate expiryDate, long batchId) {
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Contents contents = new Contents();
+    // batchId -> latest entry (null once removed) changed since beginRebuild(); guarded by lock
+    private Map<Long, ExpiryEntry> changedDuringRebuild;
+    private volatile boolean loaded;
+
+    /**
+     * Start recording changes for {@link #rebuild}. Call before reading the entries to
+     * rebuild from, so changes committed after that read are not lost. One rebuild at
+     * a time.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replace the whole index, e.g. at startup or on the daily rollover */
+    public void rebuild(Collection<ExpiryEntry> entries) {
+        Contents fresh = new Contents();
+        for (ExpiryEntry entry : entries) {
+            fresh.upsert(entry);
+        }
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.forEach((batchId, entry) -> {
+                    if (entry != null) {
+                        fresh.upsert(entry);
+                    } else {
+                        fresh.remove(batchId);
+                    }
+                });
+                changedDuringRebuild = null;
+            }
+            contents = fresh;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(ExpiryEntry entry) {
+        lock.writeLock().lock();
+        try {
+            contents.upsert(entry);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(entry.batchId(), entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long batchId) {
+        lock.writeLock().lock();
+        try {
+            contents.remove(batchId);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(batchId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Totals for batches already expired on {@code today} and those expiring in the
+     * following {@code days} days.
+     */
+    public ExpirySummary summary(LocalDate today, int days) {
+        lock.readLock().lock();
+        try {
+            DayFenwickTree batchCounts = contents.batchCounts;
+            DayFenwickTree quantities = contents.quantities;
+            int todaySlot = slot(today);
+            int horizonSlot = slot(today.plusDays(days));
+            int lastSlot = MAX_SLOT;
+            return new ExpirySummary(
+                    batchCounts.prefixSum(todaySlot),
+                    quantities.prefixSum(todaySlot),
+                    batchCounts.rangeSum(todaySlot, horizonSlot),
+                    quantities.rangeSum(todaySlot, horizonSlot),
+                    batchCounts.prefixSum(lastSlot),
+                    quantities.prefixSum(lastSlot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Stocked batches expiring after {@code today} and within {@code days} days, soonest first */
+    public List<ExpiryEntry> expiringWithin(LocalDate today, int days, int limit) {
+        ExpiryKey from = new ExpiryKey(today, Long.MAX_VALUE);
+        ExpiryKey to = new ExpiryKey(today.plusDays(days), Long.MAX_VALUE);
+        return take(contents.stockedByExpiry.subMap(from, false, to, true).values(), limit);
+    }
+
+    /** Stocked batches that have expired on or before {@code today}, oldest first */
+    public List<ExpiryEntry> expired(LocalDate today, int limit) {
+        return take(contents.stockedByExpiry.headMap(new ExpiryKey(today, Long.MAX_VALUE), true).values(), limit);
+    }
+
+    /** Stocked batches whose expiry date is exactly {@code day}, i.e. that expire on that day */
+    public List<ExpiryEntry> expiringOn(LocalDate day) {
+        ExpiryKey from = new ExpiryKey(day, Long.MIN_VALUE);
+        ExpiryKey to = new ExpiryKey(day, Long.MAX_VALUE);
+        return take(contents.stockedByExpiry.subMap(from, true, to, true).values(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * OUT_OF_STOCK when the medicine has no batches, EXPIRED when all of them have
+     * expired, otherwise IN_STOCK. Empty until the index has been loaded.
+     */
+    public Optional<String> stockStatus(long medicineId, LocalDate today) {
+        if (!loaded) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            TreeMap<LocalDate, Integer> expiries = contents.expiriesByMedicine.get(medicineId);
+            if (expiries == null || expiries.isEmpty()) {
+                return Optional.of("OUT_OF_STOCK");
+            }
+            return Optional.of(expiries.lastKey().isAfter(today) ? "IN_STOCK" : "EXPIRED");
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** One generation of the index; mutated only under the write lock once published */
+    private static final class Contents {
+        private final Map<Long, ExpiryEntry> byBatchId = new HashMap<>();
+        private final NavigableMap<ExpiryKey, ExpiryEntry> stockedByExpiry = new ConcurrentSkipListMap<>(KEY_ORDER);
+        private final Map<Long, TreeMap<LocalDate, Integer>> expiriesByMedicine = new HashMap<>();
+        private final DayFenwickTree batchCounts = new DayFenwickTree(INITIAL_DAYS);
+        private final DayFenwickTree quantities = new DayFenwickTree(INITIAL_DAYS);
+
+        void upsert(ExpiryEntry entry) {
+            remove(entry.batchId());
+            byBatchId.put(entry.batchId(), entry);
+            expiriesByMedicine.computeIfAbsent(entry.medicineId(), id -> new TreeMap<>())
+                    .merge(entry.expiryDate(), 1, Integer::sum);
+            if (entry.qtyAvailable() > 0) {
+                stockedByExpiry.put(new ExpiryKey(entry.expiryDate(), entry.batchId()), entry);
+                int slot = slot(entry.expiryDate());
+                batchCounts.add(slot, 1);
+                quantities.add(slot, entry.qtyAvailable());
+            }
+        }
+
+        void remove(long batchId) {
+            ExpiryEntry entry = byBatchId.remove(batchId);
+            if (entry == null) {
+                return;
+            }
+            TreeMap<LocalDate, Integer> expiries = expiriesByMedicine.get(entry.medicineId());
+            if (expiries != null) {
+                expiries.computeIfPresent(entry.expiryDate(), (date, count) -> count > 1 ? count - 1 : null);
+                if (expiries.isEmpty()) {
+                    expiriesByMedicine.remove(entry.medicineId());
+                }
+            }
+            if (stockedByExpiry.remove(new ExpiryKey(entry.expiryDate(), entry.batchId())) != null) {
+                int slot = slot(entry.expiryDate());
+                batchCounts.add(slot, -1);
+                quantities.add(slot, -entry.qtyAvailable());
+            }
+        }
+    }
+
+    private static int slot(LocalDate date) {
+        long days = date.toEpochDay() - BASE_DATE.toEpochDay();
+        return (int) Math.max(0, Math.min(days, MAX_SLOT));
+    }
+
+    private static List<ExpiryEntry> take(Collection<ExpiryEntry> entries, int limit) {
+        List<ExpiryEntry> result = new ArrayList<>(Math.min(limit, 256));
+        for (ExpiryEntry entry : entries) {
+            if (result.size() >= limit) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,13 @@
+package com.medicart.admin.expiry;
+
+/**
+ * Aggregate counts over stocked batches (quantity > 0) relative to a given day.
+ * A batch is expired once its expiry date is today or earlier.
+ */
+public record ExpirySummary(long expiredBatches,
+                            long expiredQuantity,
+                            long expiringBatches,
+                            long expiringQuantity,
+                            long stockedBatches,
+                            long totalQuantity) {
+}
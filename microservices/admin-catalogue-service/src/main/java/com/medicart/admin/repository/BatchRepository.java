@@ -1,9 +1,13 @@
 package com.medicart.admin.repository;
 
 import com.medicart.admin.entity.Batch;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -12,4 +16,27 @@ public interface BatchRepository extends JpaRepository<Batch, Long> {
     
     @Query("SELECT b FROM Batch b WHERE b.medicine.id = :medicineId ORDER BY b.expiryDate ASC")
     List<Batch> findByMedicineIdOrderByExpiryDate(Long medicineId);
+
+    @Query("SELECT b FROM Batch b JOIN FETCH b.medicine")
+    List<Batch> findAllWithMedicine();
+
+    @Query("SELECT COALESCE(SUM(b.qtyAvailable), 0) FROM Batch b "
+            + "WHERE b.medicine.id = :medicineId AND b.expiryDate > :today")
+    long sumUsableQuantity(@Param("medicineId") Long medicineId, @Param("today") LocalDate today);
+
+    /**
+     * [medicineId, usable quantity] for every medicine with at least one unexpired batch.
+     */
+    @Query("SELECT b.medicine.id, SUM(b.qtyAvailable) FROM Batch b "
+            + "WHERE b.expiryDate > :today GROUP BY b.medicine.id")
+    List<Object[]> sumUsableQuantityByMedicine(@Param("today") LocalDate today);
+
+    /**
+     * Keyset page of batches changed after the (updatedAt, id) watermark, oldest first.
+     */
+    @Query("SELECT b FROM Batch b JOIN FETCH b.medicine WHERE b.updatedAt > :since "
+            + "OR (b.updatedAt = :since AND b.id > :afterId) ORDER BY b.updatedAt ASC, b.id ASC")
+    List<Batch> findChangedSince(@Param("since") LocalDateTime since,
+                                 @Param("afterId") Long afterId,
+                                 Pageable pageable);
 }
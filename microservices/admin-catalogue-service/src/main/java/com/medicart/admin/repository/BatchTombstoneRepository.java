@@ -0,0 +1,28 @@
+package com.medicart.admin.repository;
+
+import com.medicart.admin.entity.BatchTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BatchTombstoneRepository extends JpaRepository<BatchTombstone, Long> {
+
+    /**
+     * Keyset page of deletes after the (deletedAt, batchId) watermark, oldest first.
+     */
+    @Query("SELECT t FROM BatchTombstone t WHERE t.deletedAt > :since "
+            + "OR (t.deletedAt = :since AND t.batchId > :afterId) ORDER BY t.deletedAt ASC, t.batchId ASC")
+    List<BatchTombstone> findDeletedSince(@Param("since") LocalDateTime since,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM BatchTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
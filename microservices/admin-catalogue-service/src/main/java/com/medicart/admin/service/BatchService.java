@@ -1,26 +1,57 @@
 package com.medicart.admin.service;
 
 import com.medicart.admin.entity.Batch;
+import com.medicart.admin.entity.BatchTombstone;
 import com.medicart.admin.entity.Medicine;
+import com.medicart.admin.expiry.ExpiryEntry;
+import com.medicart.admin.expiry.ExpiryIndex;
 import com.medicart.admin.repository.BatchRepository;
+import com.medicart.admin.repository.BatchTombstoneRepository;
 import com.medicart.admin.repository.MedicineRepository;
 import com.medicart.common.dto.BatchDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @Service
 @Transactional
 public class BatchService {
 
+    private static final Logger log = LoggerFactory.getLogger(BatchService.class);
+
+    private static final Comparator<BatchDTO> FEED_ORDER =
+            Comparator.comparing(BatchDTO::getUpdatedAt).thenComparing(BatchDTO::getId);
+
     private final BatchRepository batchRepository;
+    private final BatchTombstoneRepository tombstoneRepository;
     private final MedicineRepository medicineRepository;
+    private final ExpiryIndex expiryIndex;
+    private final LowStockDetector lowStockDetector;
+    private final int tombstoneRetentionDays;
 
     public BatchService(BatchRepository batchRepository,
-                        MedicineRepository medicineRepository) {
+                        BatchTombstoneRepository tombstoneRepository,
+                        MedicineRepository medicineRepository,
+                        ExpiryIndex expiryIndex,
+                        LowStockDetector lowStockDetector,
+                        @Value("${catalogue.feed.tombstone-retention-days:30}") int tombstoneRetentionDays) {
         this.batchRepository = batchRepository;
+        this.tombstoneRepository = tombstoneRepository;
         this.medicineRepository = medicineRepository;
+        this.expiryIndex = expiryIndex;
+        this.lowStockDetector = lowStockDetector;
+        this.tombstoneRetentionDays = tombstoneRetentionDays;
     }
 
     // ✅ READ
@@ -31,6 +62,18 @@ public class BatchService {
                 .toList();
     }
 
+    // 📡 CHANGE FEED (analytics ingestion)
+    // Changed batches and deletes merged on (updatedAt, id); ids are never reused, so one watermark covers both
+    public List<BatchDTO> getBatchFeed(LocalDateTime since, Long afterId, int limit) {
+        List<BatchDTO> feed = new ArrayList<>(limit * 2);
+        batchRepository.findChangedSince(since, afterId, PageRequest.of(0, limit))
+                .forEach(batch -> feed.add(toDTO(batch)));
+        tombstoneRepository.findDeletedSince(since, afterId, PageRequest.of(0, limit))
+                .forEach(tombstone -> feed.add(toDTO(tombstone)));
+        feed.sort(FEED_ORDER);
+        return feed.size() > limit ? feed.subList(0, limit) : feed;
+    }
+
     // ✅ CREATE
     public BatchDTO createBatch(BatchDTO dto) {
         Medicine medicine = medicineRepository.findById(dto.getMedicineId())
@@ -44,7 +87,10 @@ public class BatchService {
                 .qtyTotal(dto.getQtyAvailable())
                 .build();
 
-        return toDTO(batchRepository.save(batch));
+        Batch saved = batchRepository.save(batch);
+        indexAfterCommit(ExpiryIndexService.toEntry(saved));
+        afterCommit(() -> lowStockDetector.evaluate(medicine.getId()));
+        return toDTO(saved);
     }
 
     // ✅ UPDATE
@@ -54,6 +100,7 @@ public class BatchService {
 
         Medicine medicine = medicineRepository.findById(dto.getMedicineId())
                 .orElseThrow(() -> new RuntimeException("Medicine not found"));
+        Long previousMedicineId = batch.getMedicine().getId();
 
         batch.setMedicine(medicine);
         batch.setBatchNo(dto.getBatchNo());
@@ -61,15 +108,59 @@ public class BatchService {
         batch.setQtyAvailable(dto.getQtyAvailable());
         batch.setQtyTotal(dto.getQtyAvailable());
 
-        return toDTO(batchRepository.save(batch));
+        Batch saved = batchRepository.save(batch);
+        indexAfterCommit(ExpiryIndexService.toEntry(saved));
+        afterCommit(() -> {
+            lowStockDetector.evaluate(medicine.getId());
+            if (!previousMedicineId.equals(medicine.getId())) {
+                lowStockDetector.evaluate(previousMedicineId);
+            }
+        });
+        return toDTO(saved);
     }
 
     // ✅ DELETE
     public void deleteBatch(Long id) {
-        if (!batchRepository.existsById(id)) {
-            throw new RuntimeException("Batch not found");
+        Batch batch = batchRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Batch not found"));
+        Long medicineId = batch.getMedicine().getId();
+        batchRepository.delete(batch);
+        tombstoneRepository.save(BatchTombstone.builder()
+                .batchId(id)
+                .medicineId(medicineId)
+                .deletedAt(LocalDateTime.now())
+                .build());
+        afterCommit(() -> {
+            expiryIndex.remove(id);
+            lowStockDetector.evaluate(medicineId);
+        });
+    }
+
+    // 🪦 Feed consumers poll far more often than this; older deletes have been seen
+    @Scheduled(cron = "${catalogue.feed.tombstone-purge-cron:0 20 3 * * *}")
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        if (purged > 0) {
+            log.info("🪦 Purged {} batch tombstones older than {} days", purged, tombstoneRetentionDays);
         }
-        batchRepository.deleteById(id);
+    }
+
+    // 📅 Keep the expiry index in step with committed data only
+    private void indexAfterCommit(ExpiryEntry entry) {
+        afterCommit(() -> expiryIndex.upsert(entry));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     // 🔁 Mapper
@@ -81,6 +172,16 @@ public class BatchService {
                 .qtyAvailable(batch.getQtyAvailable())
                 .medicineId(batch.getMedicine().getId())
                 .medicineName(batch.getMedicine().getName())
+                .updatedAt(batch.getUpdatedAt())
+                .build();
+    }
+
+    private BatchDTO toDTO(BatchTombstone tombstone) {
+        return BatchDTO.builder()
+                .id(tombstone.getBatchId())
+                .medicineId(tombstone.getMedicineId())
+                .updatedAt(tombstone.getDeletedAt())
+                .deleted(true)
                 .build();
     }
 }
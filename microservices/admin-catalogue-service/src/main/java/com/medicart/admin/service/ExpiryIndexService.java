@@ -0,0 +1,112 @@
+package com.medicart.admin.service;
+
+import com.medicart.admin.entity.Batch;
+import com.medicart.admin.expiry.ExpiryEntry;
+import com.medicart.admin.expiry.ExpiryIndex;
+import com.medicart.admin.expiry.ExpirySummary;
+import com.medicart.admin.repository.BatchRepository;
+import com.medicart.common.dto.BatchDTO;
+import com.medicart.common.dto.ExpiryReportDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Loads the {@link ExpiryIndex} from the database and serves expiry reports from it.
+ * {@link BatchService} keeps it current on every batch mutation.
+ */
+@Service
+public class ExpiryIndexService {
+    private static final Logger log = LoggerFactory.getLogger(ExpiryIndexService.class);
+
+    private final BatchRepository batchRepository;
+    private final ExpiryIndex expiryIndex;
+    private final LowStockDetector lowStockDetector;
+
+    public ExpiryIndexService(BatchRepository batchRepository, ExpiryIndex expiryIndex,
+                              LowStockDetector lowStockDetector) {
+        this.batchRepository = batchRepository;
+        this.expiryIndex = expiryIndex;
+        this.lowStockDetector = lowStockDetector;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void load() {
+        expiryIndex.beginRebuild();
+        List<ExpiryEntry> entries = batchRepository.findAllWithMedicine().stream()
+                .map(ExpiryIndexService::toEntry)
+                .toList();
+        expiryIndex.rebuild(entries);
+        log.info("📅 Expiry index loaded with {} batches", entries.size());
+    }
+
+    /**
+     * Daily rollover: re-sync with the database (catching any writes that bypassed
+     * this instance), re-check stock levels of medicines with batches expiring today
+     * and log what expired overnight.
+     */
+    @Scheduled(cron = "${catalogue.expiry.rollover-cron:0 5 0 * * *}")
+    @Transactional(readOnly = true)
+    public void rollover() {
+        LocalDate today = LocalDate.now();
+        long expiredBefore = expiryIndex.summary(today.minusDays(1), 0).expiredBatches();
+        load();
+
+        // Stock that expired today is no longer usable; only those medicines need re-checking
+        expiryIndex.expiringOn(today).stream()
+                .map(ExpiryEntry::medicineId)
+                .distinct()
+                .forEach(lowStockDetector::evaluate);
+
+        ExpirySummary summary = expiryIndex.summary(today, 30);
+        log.info("📅 Expiry rollover for {}: {} newly expired, {} expired in total, {} expiring within 30 days",
+                today, Math.max(0, summary.expiredBatches() - expiredBefore),
+                summary.expiredBatches(), summary.expiringBatches());
+    }
+
+    public ExpiryReportDTO getReport(int days, int limit) {
+        LocalDate today = LocalDate.now();
+        ExpirySummary summary = expiryIndex.summary(today, days);
+        return ExpiryReportDTO.builder()
+                .asOf(today)
+                .windowDays(days)
+                .expiredBatches(summary.expiredBatches())
+                .expiredQuantity(summary.expiredQuantity())
+                .expiringBatches(summary.expiringBatches())
+                .quantityAtRisk(summary.expiringQuantity())
+                .stockedBatches(summary.stockedBatches())
+                .totalQuantity(summary.totalQuantity())
+                .expiring(expiryIndex.expiringWithin(today, days, limit).stream().map(ExpiryIndexService::toDTO).toList())
+                .expired(expiryIndex.expired(today, limit).stream().map(ExpiryIndexService::toDTO).toList())
+                .build();
+    }
+
+    static ExpiryEntry toEntry(Batch batch) {
+        return new ExpiryEntry(
+                batch.getId(),
+                batch.getMedicine().getId(),
+                batch.getMedicine().getName(),
+                batch.getBatchNo(),
+                batch.getExpiryDate(),
+                batch.getQtyAvailable() != null ? batch.getQtyAvailable() : 0);
+    }
+
+    private static BatchDTO toDTO(ExpiryEntry entry) {
+        return BatchDTO.builder()
+                .id(entry.batchId())
+                .batchNo(entry.batchNo())
+                .expiryDate(entry.expiryDate())
+                .qtyAvailable(entry.qtyAvailable())
+                .medicineId(entry.medicineId())
+                .medicineName(entry.medicineName())
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.medicart.admin.service;
+
+import com.medicart.admin.entity.Medicine;
+import com.medicart.admin.repository.BatchRepository;
+import com.medicart.admin.repository.MedicineRepository;
+import com.medicart.admin.stock.StockAlertLog;
+import com.medicart.admin.stock.StockLevel;
+import com.medicart.admin.stock.StockLevelChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks each medicine's stock level against its reorder threshold and emits a
+ * {@link StockLevelChangedEvent} whenever the level changes.
+ *
+ * Levels are computed once for the whole catalogue at startup; after that only the
+ * medicine touched by a batch change, threshold change or expiry rollover is
+ * re-evaluated, with one aggregate query over that medicine's batches.
+ */
+@Service
+public class LowStockDetector {
+    private static final Logger log = LoggerFactory.getLogger(LowStockDetector.class);
+
+    public record StockState(long medicineId, String medicineName, String sku,
+                             StockLevel level, long usableQuantity, int reorderThreshold) {
+    }
+
+    private final BatchRepository batchRepository;
+    private final MedicineRepository medicineRepository;
+    private final StockAlertLog alertLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultThreshold;
+    private final Map<Long, StockState> states = new ConcurrentHashMap<>();
+
+    public LowStockDetector(BatchRepository batchRepository,
+                            MedicineRepository medicineRepository,
+                            StockAlertLog alertLog,
+                            ApplicationEventPublisher eventPublisher,
+                            @Value("${catalogue.stock.default-reorder-threshold:10}") int defaultThreshold) {
+        this.batchRepository = batchRepository;
+        this.medicineRepository = medicineRepository;
+        this.alertLog = alertLog;
+        this.eventPublisher = eventPublisher;
+        this.defaultThreshold = defaultThreshold;
+    }
+
+    /** Initial levels; no events are emitted for them */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        Map<Long, Long> usable = new HashMap<>();
+        for (Object[] row : batchRepository.sumUsableQuantityByMedicine(LocalDate.now())) {
+            usable.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        for (Medicine medicine : medicineRepository.findAll()) {
+            long quantity = usable.getOrDefault(medicine.getId(), 0L);
+            int threshold = thresholdOf(medicine);
+            states.put(medicine.getId(), new StockState(medicine.getId(), medicine.getName(), medicine.getSku(),
+                    StockLevel.of(quantity, threshold), quantity, threshold));
+        }
+        log.info("📦 Stock levels loaded for {} medicines, {} below threshold", states.size(), getBelowThreshold().size());
+    }
+
+    /**
+     * Re-evaluate one medicine. Call after the change that may have moved its
+     * stock has been committed.
+     */
+    public void evaluate(Long medicineId) {
+        Optional<Medicine> medicine = medicineRepository.findById(medicineId);
+        if (medicine.isEmpty()) {
+            states.remove(medicineId);
+            return;
+        }
+        long quantity = batchRepository.sumUsableQuantity(medicineId, LocalDate.now());
+        int threshold = thresholdOf(medicine.get());
+        StockState current = new StockState(medicineId, medicine.get().getName(), medicine.get().getSku(),
+                StockLevel.of(quantity, threshold), quantity, threshold);
+        StockState previous = states.put(medicineId, current);
+
+        if (previous != null && previous.level() != current.level()) {
+            StockLevelChangedEvent event = new StockLevelChangedEvent(
+                    alertLog.nextSequence(), medicineId, current.medicineName(), current.sku(),
+                    previous.level(), current.level(), quantity, threshold, LocalDateTime.now());
+            alertLog.append(event);
+            eventPublisher.publishEvent(event);
+            log.info("🚨 Stock level of {} (id {}) changed {} -> {} (qty {}, threshold {})",
+                    current.medicineName(), medicineId, previous.level(), current.level(), quantity, threshold);
+        }
+    }
+
+    public void forget(Long medicineId) {
+        states.remove(medicineId);
+    }
+
+    /** Medicines currently LOW or OUT, lowest quantity first */
+    public List<StockState> getBelowThreshold() {
+        return states.values().stream()
+                .filter(state -> state.level() != StockLevel.OK)
+                .sorted(Comparator.comparingLong(StockState::usableQuantity))
+                .toList();
+    }
+
+    public List<StockLevelChangedEvent> getEventsAfter(long afterSequence, int limit) {
+        return alertLog.after(afterSequence, limit);
+    }
+
+    private int thresholdOf(Medicine medicine) {
+        return medicine.getReorderThreshold() != null ? medicine.getReorderThreshold() : defaultThreshold;
+    }
+}
@@ -2,6 +2,7 @@ package com.medicart.admin.service;
 
 import com.medicart.admin.entity.Medicine;
 import com.medicart.admin.entity.Batch;
+import com.medicart.admin.expiry.ExpiryIndex;
 import com.medicart.admin.repository.MedicineRepository;
 import com.medicart.admin.repository.BatchRepository;
 import com.medicart.common.dto.MedicineDTO;
@@ -11,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,6 +25,12 @@ public class MedicineService {
     @Autowired
     private BatchRepository batchRepository;
 
+    @Autowired
+    private ExpiryIndex expiryIndex;
+
+    @Autowired
+    private LowStockDetector lowStockDetector;
+
     public MedicineDTO createMedicine(MedicineDTO medicineDTO) {
         Medicine medicine = Medicine.builder()
                 .name(medicineDTO.getName())
@@ -33,9 +41,11 @@ public class MedicineService {
                 .description(medicineDTO.getDescription())
                 .totalQuantity(medicineDTO.getTotalQuantity() != null ? medicineDTO.getTotalQuantity() : 0)
                 .inStock(medicineDTO.getInStock() != null ? medicineDTO.getInStock() : true)
+                .reorderThreshold(medicineDTO.getReorderThreshold())
                 .build();
         log.info("🚀 Creating medicine: {}", medicineDTO.getName());
         medicine = medicineRepository.save(medicine);
+        lowStockDetector.evaluate(medicine.getId());
         return convertToDTO(medicine);
     }
 
@@ -70,13 +80,18 @@ public class MedicineService {
         if (medicineDTO.getInStock() != null) {
             medicine.setInStock(medicineDTO.getInStock());
         }
+        if (medicineDTO.getReorderThreshold() != null) {
+            medicine.setReorderThreshold(medicineDTO.getReorderThreshold());
+        }
 
         medicine = medicineRepository.save(medicine);
+        lowStockDetector.evaluate(id);
         return convertToDTO(medicine);
     }
 
     public void deleteMedicine(Long id) {
         medicineRepository.deleteById(id);
+        lowStockDetector.forget(id);
     }
 
     private MedicineDTO convertToDTO(Medicine medicine) {
@@ -94,7 +109,8 @@ public class MedicineService {
                 medicine.getDescription(),
                 medicine.getInStock(),
                 stockStatus,
-                medicine.getTotalQuantity()
+                medicine.getTotalQuantity(),
+                medicine.getReorderThreshold()
         );
         
         log.debug("📦 DTO Created - Medicine: {}, StockStatus: {}, InStock: {}, TotalQty: {}", 
@@ -106,7 +122,14 @@ public class MedicineService {
     private String calculateStockStatus(Long medicineId) {
         try {
             log.debug("📊 Calculating stock status for medicineId: {}", medicineId);
-            
+
+            // Answered from the expiry index once it is loaded; the batch walk below is the startup fallback
+            Optional<String> indexed = expiryIndex.stockStatus(medicineId, LocalDate.now());
+            if (indexed.isPresent()) {
+                log.debug("  Expiry index status: {}", indexed.get());
+                return indexed.get();
+            }
+
             // Get all batches for this medicine
             List<Batch> batches = batchRepository.findByMedicineId(medicineId);
 
@@ -0,0 +1,44 @@
+package com.medicart.admin.stock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded ring of recent {@link StockLevelChangedEvent}s so remote subscribers can
+ * poll for everything after the last sequence number they saw. A subscriber that
+ * falls more than {@code capacity} events behind will see a gap in sequences.
+ */
+@Component
+public class StockAlertLog {
+
+    private final StockLevelChangedEvent[] ring;
+    private long nextSequence = 1;
+
+    public StockAlertLog(@Value("${catalogue.stock.alert-log-capacity:1000}") int capacity) {
+        this.ring = new StockLevelChangedEvent[capacity];
+    }
+
+    public synchronized long nextSequence() {
+        return nextSequence++;
+    }
+
+    public synchronized void append(StockLevelChangedEvent event) {
+        ring[(int) (event.sequence() % ring.length)] = event;
+    }
+
+    /** Events with a sequence greater than {@code afterSequence}, oldest first */
+    public synchronized List<StockLevelChangedEvent> after(long afterSequence, int limit) {
+        long oldest = Math.max(afterSequence + 1, nextSequence - ring.length);
+        List<StockLevelChangedEvent> events = new ArrayList<>();
+        for (long seq = oldest; seq < nextSequence && events.size() < limit; seq++) {
+            StockLevelChangedEvent event = ring[(int) (seq % ring.length)];
+            if (event != null && event.sequence() == seq) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,18 @@
+package com.medicart.admin.stock;
+
+/**
+ * Stock level of a medicine relative to its reorder threshold, counting only
+ * unexpired batches.
+ */
+public enum StockLevel {
+    OK,
+    LOW,
+    OUT;
+
+    public static StockLevel of(long usableQuantity, int threshold) {
+        if (usableQuantity <= 0) {
+            return OUT;
+        }
+        return usableQuantity <= threshold ? LOW : OK;
+    }
+}
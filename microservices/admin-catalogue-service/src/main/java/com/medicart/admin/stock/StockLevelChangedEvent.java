@@ -0,0 +1,18 @@
+package com.medicart.admin.stock;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a medicine's stock level crosses its reorder threshold in either
+ * direction. In-process subscribers can listen with {@code @EventListener}.
+ */
+public record StockLevelChangedEvent(long sequence,
+                                     long medicineId,
+                                     String medicineName,
+                                     String sku,
+                                     StockLevel previousLevel,
+                                     StockLevel level,
+                                     long usableQuantity,
+                                     int reorderThreshold,
+                                     LocalDateTime occurredAt) {
+}
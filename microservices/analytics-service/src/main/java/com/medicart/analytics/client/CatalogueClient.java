@@ -0,0 +1,30 @@
+package com.medicart.analytics.client;
+
+import com.medicart.common.dto.BatchDTO;
+import com.medicart.common.dto.ExpiryReportDTO;
+import com.medicart.common.dto.MedicineDTO;
+import com.medicart.common.dto.StockStateDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import java.util.List;
+
+@FeignClient(name = "admin-catalogue-service", contextId = "catalogueClient")
+public interface CatalogueClient {
+
+    @GetMapping("/medicines")
+    List<MedicineDTO> getAllMedicines();
+
+    /** Medicines the catalogue's low-stock detector has at LOW or OUT */
+    @GetMapping("/medicines/low-stock")
+    List<StockStateDTO> getBelowThreshold();
+
+    @GetMapping("/batches/feed")
+    List<BatchDTO> getBatchFeed(@RequestParam("since") String since,
+                                @RequestParam("afterId") Long afterId,
+                                @RequestParam("limit") int limit);
+
+    @GetMapping("/batches/expiry")
+    ExpiryReportDTO getExpiryReport(@RequestParam("days") int days,
+                                    @RequestParam("limit") int limit);
+}
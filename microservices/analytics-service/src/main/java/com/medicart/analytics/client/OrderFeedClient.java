@@ -0,0 +1,18 @@
+package com.medicart.analytics.client;
+
+import com.medicart.common.dto.OrderDTO;
+import com.medicart.common.security.ServiceTokenFeignConfig;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import java.util.List;
+
+@FeignClient(name = "cart-orders-service", contextId = "orderFeedClient",
+        configuration = ServiceTokenFeignConfig.class)
+public interface OrderFeedClient {
+
+    @GetMapping("/internal/orders/feed")
+    List<OrderDTO> getOrderFeed(@RequestParam("since") String since,
+                                @RequestParam("afterId") Long afterId,
+                                @RequestParam("limit") int limit);
+}
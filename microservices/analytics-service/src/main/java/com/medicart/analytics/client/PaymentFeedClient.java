@@ -0,0 +1,21 @@
+package com.medicart.analytics.client;
+
+import com.medicart.common.dto.PaymentDTO;
+import com.medicart.common.security.ServiceTokenFeignConfig;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import java.util.List;
+
+@FeignClient(name = "payment-service", contextId = "paymentFeedClient",
+        configuration = ServiceTokenFeignConfig.class)
+public interface PaymentFeedClient {
+
+    @GetMapping("/internal/payment/feed")
+    List<PaymentDTO> getPaymentFeed(@RequestParam("since") String since,
+                                    @RequestParam("afterId") Long afterId,
+                                    @RequestParam("limit") int limit);
+
+    @GetMapping("/internal/payment/feed/day")
+    List<PaymentDTO> getPaymentsForDay(@RequestParam("day") String day);
+}
@@ -0,0 +1,48 @@
+package com.medicart.analytics.columnar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for category names. Rows store a dense int code, so a
+ * group-by category is an array index instead of a string hash.
+ * Code 0 is reserved for medicines whose category is not (yet) known.
+ */
+final class CategoryDictionary {
+
+    static final int UNKNOWN = 0;
+    static final String UNKNOWN_NAME = "Uncategorised";
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    CategoryDictionary() {
+        names.add(UNKNOWN_NAME);
+    }
+
+    int encode(String category) {
+        if (category == null || category.isBlank()) {
+            return UNKNOWN;
+        }
+        return codes.computeIfAbsent(category, name -> {
+            names.add(name);
+            return names.size() - 1;
+        });
+    }
+
+    /** Returns the code for a category, or -1 if it has never been seen */
+    int lookup(String category) {
+        Integer code = codes.get(category);
+        return code != null ? code : -1;
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    String[] snapshot() {
+        return names.toArray(new String[0]);
+    }
+}
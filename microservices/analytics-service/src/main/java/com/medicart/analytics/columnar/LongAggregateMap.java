@@ -0,0 +1,108 @@
+package com.medicart.analytics.columnar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Open-addressing map from a long key to a (quantity, amount) pair, backed by
+ * parallel primitive arrays. Used for group-by medicine so partial results can be
+ * built and merged without boxing a Long and a value object per row.
+ */
+final class LongAggregateMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private long[] quantities;
+    private double[] amounts;
+    private int size;
+
+    LongAggregateMap() {
+        this(64);
+    }
+
+    LongAggregateMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    void add(long key, long quantity, double amount) {
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+            if (size * 2 > keys.length) {
+                quantities[slot] += quantity;
+                amounts[slot] += amount;
+                rehash();
+                return;
+            }
+        }
+        quantities[slot] += quantity;
+        amounts[slot] += amount;
+    }
+
+    void mergeFrom(LongAggregateMap other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY) {
+                add(other.keys[i], other.quantities[i], other.amounts[i]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    List<SalesAggregate.MedicineSales> top(int limit, boolean byAmount) {
+        List<SalesAggregate.MedicineSales> all = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                all.add(new SalesAggregate.MedicineSales(keys[i], quantities[i], amounts[i]));
+            }
+        }
+        Comparator<SalesAggregate.MedicineSales> order = byAmount
+                ? Comparator.comparingDouble(SalesAggregate.MedicineSales::amount)
+                : Comparator.comparingLong(SalesAggregate.MedicineSales::quantity);
+        all.sort(order.reversed());
+        return all.size() > limit ? all.subList(0, limit) : all;
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) (mix(key) & mask);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        long[] oldQuantities = quantities;
+        double[] oldAmounts = amounts;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                quantities[slot] = oldQuantities[i];
+                amounts[slot] = oldAmounts[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        quantities = new long[capacity];
+        amounts = new double[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
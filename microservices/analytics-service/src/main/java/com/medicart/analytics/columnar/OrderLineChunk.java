@@ -0,0 +1,67 @@
+package com.medicart.analytics.columnar;
+
+import java.util.BitSet;
+
+/**
+ * Fixed-capacity column segment. Each attribute lives in its own primitive array
+ * and the chunk tracks min/max order day so scans can skip it (or skip the per-row
+ * date check) without touching the rows. Removed rows are tombstoned, never moved.
+ */
+final class OrderLineChunk {
+
+    final int[] epochDay;
+    final long[] orderId;
+    final long[] medicineId;
+    final int[] categoryCode;
+    final int[] quantity;
+    final double[] amount;
+    final BitSet deleted = new BitSet();
+
+    int size;
+    int deletedRows;
+    int minDay = Integer.MAX_VALUE;
+    int maxDay = Integer.MIN_VALUE;
+
+    OrderLineChunk(int capacity) {
+        epochDay = new int[capacity];
+        orderId = new long[capacity];
+        medicineId = new long[capacity];
+        categoryCode = new int[capacity];
+        quantity = new int[capacity];
+        amount = new double[capacity];
+    }
+
+    boolean isFull() {
+        return size == epochDay.length;
+    }
+
+    int append(int day, long order, long medicine, int category, int qty, double value) {
+        int row = size++;
+        epochDay[row] = day;
+        orderId[row] = order;
+        medicineId[row] = medicine;
+        categoryCode[row] = category;
+        quantity[row] = qty;
+        amount[row] = value;
+        minDay = Math.min(minDay, day);
+        maxDay = Math.max(maxDay, day);
+        return row;
+    }
+
+    void delete(int row) {
+        if (!deleted.get(row)) {
+            deleted.set(row);
+            deletedRows++;
+        }
+    }
+
+    /** Zone map check: can any row in this chunk fall inside [fromDay, toDay]? */
+    boolean overlaps(int fromDay, int toDay) {
+        return size > deletedRows && maxDay >= fromDay && minDay <= toDay;
+    }
+
+    /** Zone map check: does every row in this chunk fall inside [fromDay, toDay]? */
+    boolean within(int fromDay, int toDay) {
+        return minDay >= fromDay && maxDay <= toDay;
+    }
+}
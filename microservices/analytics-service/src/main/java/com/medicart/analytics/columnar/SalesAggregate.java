@@ -0,0 +1,90 @@
+package com.medicart.analytics.columnar;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a {@link SalesColumnStore} scan. Partial aggregates are built per
+ * fork-join leaf and merged pairwise, so every field must be mergeable.
+ */
+public final class SalesAggregate {
+
+    public record MedicineSales(long medicineId, long quantity, double amount) {
+    }
+
+    public record CategorySales(long quantity, double amount) {
+    }
+
+    private final String[] categoryNames;
+    private final long[] categoryQuantity;
+    private final double[] categoryAmount;
+    private final LongAggregateMap byMedicine = new LongAggregateMap();
+    private long lineCount;
+    private long quantity;
+    private double amount;
+
+    SalesAggregate(String[] categoryNames) {
+        this.categoryNames = categoryNames;
+        this.categoryQuantity = new long[categoryNames.length];
+        this.categoryAmount = new double[categoryNames.length];
+    }
+
+    void add(long medicineId, int category, int qty, double value) {
+        lineCount++;
+        quantity += qty;
+        amount += value;
+        categoryQuantity[category] += qty;
+        categoryAmount[category] += value;
+        byMedicine.add(medicineId, qty, value);
+    }
+
+    SalesAggregate merge(SalesAggregate other) {
+        lineCount += other.lineCount;
+        quantity += other.quantity;
+        amount += other.amount;
+        for (int i = 0; i < categoryQuantity.length; i++) {
+            categoryQuantity[i] += other.categoryQuantity[i];
+            categoryAmount[i] += other.categoryAmount[i];
+        }
+        byMedicine.mergeFrom(other.byMedicine);
+        return this;
+    }
+
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public int getDistinctMedicines() {
+        return byMedicine.size();
+    }
+
+    /** Best sellers by units sold */
+    public List<MedicineSales> topMedicines(int limit) {
+        return byMedicine.top(limit, false);
+    }
+
+    /** Best sellers by sales value */
+    public List<MedicineSales> topMedicinesByAmount(int limit) {
+        return byMedicine.top(limit, true);
+    }
+
+    /** Sales per category, omitting categories with no sales in the scanned range */
+    public Map<String, CategorySales> byCategory() {
+        Map<String, CategorySales> result = new LinkedHashMap<>();
+        for (int i = 0; i < categoryNames.length; i++) {
+            if (categoryQuantity[i] != 0 || categoryAmount[i] != 0.0) {
+                result.put(categoryNames[i], new CategorySales(categoryQuantity[i], categoryAmount[i]));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,196 @@
+package com.medicart.analytics.columnar;
+
+import com.medicart.analytics.entity.OrderLineFact;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process columnar copy of the order lines of every counted (non-cancelled) order.
+ *
+ * Rows are appended to fixed-size {@link OrderLineChunk}s holding one primitive array
+ * per column; categories are dictionary encoded. Scans prune whole chunks with their
+ * min/max day zone maps and run in parallel on a dedicated fork-join pool.
+ *
+ * Orders are replaced as a unit: their previous rows are tombstoned and the new lines
+ * appended, so re-applying the same order is harmless. Once tombstones outnumber live
+ * rows the store is rewritten without them.
+ */
+@Component
+public class SalesColumnStore {
+    private static final Logger log = LoggerFactory.getLogger(SalesColumnStore.class);
+
+    private final int chunkSize;
+    private final ForkJoinPool scanPool;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final CategoryDictionary categories = new CategoryDictionary();
+    private final Map<Long, Integer> medicineCategory = new HashMap<>();
+    /** orderId -> packed (chunk index << 32 | row) of its live rows */
+    private final Map<Long, long[]> orderRows = new HashMap<>();
+    private List<OrderLineChunk> chunks = new ArrayList<>();
+    private long liveRows;
+    private long deletedRows;
+
+    public SalesColumnStore(@Value("${analytics.columnar.chunk-size:8192}") int chunkSize,
+                            @Value("${analytics.columnar.parallelism:0}") int parallelism) {
+        this.chunkSize = chunkSize;
+        this.scanPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanPool.shutdown();
+    }
+
+    /**
+     * Replace all rows of an order. Pass an empty list to remove the order,
+     * e.g. when it is cancelled.
+     */
+    public void replaceOrder(long orderId, List<OrderLineFact> lines) {
+        lock.writeLock().lock();
+        try {
+            long[] existing = orderRows.get(orderId);
+            if (existing != null && sameRows(existing, lines)) {
+                return;
+            }
+            if (existing != null) {
+                for (long position : existing) {
+                    chunks.get((int) (position >>> 32)).delete((int) position);
+                }
+                liveRows -= existing.length;
+                deletedRows += existing.length;
+                orderRows.remove(orderId);
+            }
+            if (!lines.isEmpty()) {
+                long[] positions = new long[lines.size()];
+                for (int i = 0; i < lines.size(); i++) {
+                    OrderLineFact line = lines.get(i);
+                    positions[i] = append(orderId, (int) line.getOrderDay().toEpochDay(),
+                            line.getMedicineId(), line.getQuantity(), line.getAmount());
+                }
+                orderRows.put(orderId, positions);
+                liveRows += positions.length;
+            }
+            if (deletedRows > liveRows && deletedRows > chunkSize) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Refresh the medicine -> category mapping and re-encode existing rows whose
+     * category changed. Rows for medicines not in the catalogue are left uncategorised.
+     */
+    public void updateCategories(Map<Long, String> categoryByMedicine) {
+        lock.writeLock().lock();
+        try {
+            Map<Long, Integer> updated = new HashMap<>();
+            categoryByMedicine.forEach((medicineId, category) ->
+                    updated.put(medicineId, categories.encode(category)));
+            if (updated.equals(medicineCategory)) {
+                return;
+            }
+            medicineCategory.clear();
+            medicineCategory.putAll(updated);
+            for (OrderLineChunk chunk : chunks) {
+                for (int row = 0; row < chunk.size; row++) {
+                    chunk.categoryCode[row] = medicineCategory.getOrDefault(chunk.medicineId[row], CategoryDictionary.UNKNOWN);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aggregate order lines dated within [from, to], optionally for one category only.
+     */
+    public SalesAggregate scan(LocalDate from, LocalDate to, String category) {
+        lock.readLock().lock();
+        try {
+            String[] names = categories.snapshot();
+            int categoryCode = -1;
+            if (category != null) {
+                categoryCode = categories.lookup(category);
+                if (categoryCode < 0) {
+                    return new SalesAggregate(names);
+                }
+            }
+            SalesScanTask task = new SalesScanTask(chunks, 0, chunks.size(),
+                    (int) from.toEpochDay(), (int) to.toEpochDay(), categoryCode, names);
+            return scanPool.invoke(task);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getLiveRows() {
+        lock.readLock().lock();
+        try {
+            return liveRows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long append(long orderId, int day, long medicineId, int quantity, double amount) {
+        if (chunks.isEmpty() || chunks.get(chunks.size() - 1).isFull()) {
+            chunks.add(new OrderLineChunk(chunkSize));
+        }
+        int chunkIndex = chunks.size() - 1;
+        int category = medicineCategory.getOrDefault(medicineId, CategoryDictionary.UNKNOWN);
+        int row = chunks.get(chunkIndex).append(day, orderId, medicineId, category, quantity, amount);
+        return ((long) chunkIndex << 32) | row;
+    }
+
+    private boolean sameRows(long[] positions, List<OrderLineFact> lines) {
+        if (positions.length != lines.size()) {
+            return false;
+        }
+        for (int i = 0; i < positions.length; i++) {
+            OrderLineChunk chunk = chunks.get((int) (positions[i] >>> 32));
+            int row = (int) positions[i];
+            OrderLineFact line = lines.get(i);
+            if (chunk.epochDay[row] != line.getOrderDay().toEpochDay()
+                    || chunk.medicineId[row] != line.getMedicineId()
+                    || chunk.quantity[row] != line.getQuantity()
+                    || chunk.amount[row] != line.getAmount()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Rewrite all live rows into fresh chunks, dropping tombstones. Caller holds the write lock. */
+    private void compact() {
+        List<OrderLineChunk> old = chunks;
+        chunks = new ArrayList<>();
+        orderRows.clear();
+        Map<Long, List<Long>> rebuilt = new HashMap<>();
+        for (OrderLineChunk chunk : old) {
+            for (int row = chunk.deleted.nextClearBit(0); row < chunk.size; row = chunk.deleted.nextClearBit(row + 1)) {
+                long position = append(chunk.orderId[row], chunk.epochDay[row], chunk.medicineId[row],
+                        chunk.quantity[row], chunk.amount[row]);
+                rebuilt.computeIfAbsent(chunk.orderId[row], id -> new ArrayList<>()).add(position);
+            }
+        }
+        rebuilt.forEach((orderId, positions) ->
+                orderRows.put(orderId, positions.stream().mapToLong(Long::longValue).toArray()));
+        log.debug("Compacted sales column store: dropped {} tombstoned rows, {} live rows in {} chunks",
+                deletedRows, liveRows, chunks.size());
+        deletedRows = 0;
+    }
+}
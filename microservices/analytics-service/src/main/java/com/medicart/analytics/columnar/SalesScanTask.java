@@ -0,0 +1,71 @@
+package com.medicart.analytics.columnar;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork-join scan over a range of chunks. Splits until a leaf covers at most
+ * {@link #LEAF_CHUNKS} chunks, then filters and aggregates those rows sequentially.
+ */
+final class SalesScanTask extends RecursiveTask<SalesAggregate> {
+
+    private static final int LEAF_CHUNKS = 4;
+
+    private final List<OrderLineChunk> chunks;
+    private final int start;
+    private final int end;
+    private final int fromDay;
+    private final int toDay;
+    private final int category;
+    private final String[] categoryNames;
+
+    /**
+     * @param category category code to filter on, or -1 for all categories
+     */
+    SalesScanTask(List<OrderLineChunk> chunks, int start, int end,
+                  int fromDay, int toDay, int category, String[] categoryNames) {
+        this.chunks = chunks;
+        this.start = start;
+        this.end = end;
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+        this.category = category;
+        this.categoryNames = categoryNames;
+    }
+
+    @Override
+    protected SalesAggregate compute() {
+        if (end - start <= LEAF_CHUNKS) {
+            SalesAggregate aggregate = new SalesAggregate(categoryNames);
+            for (int c = start; c < end; c++) {
+                scanChunk(chunks.get(c), aggregate);
+            }
+            return aggregate;
+        }
+        int mid = (start + end) >>> 1;
+        SalesScanTask left = new SalesScanTask(chunks, start, mid, fromDay, toDay, category, categoryNames);
+        SalesScanTask right = new SalesScanTask(chunks, mid, end, fromDay, toDay, category, categoryNames);
+        left.fork();
+        SalesAggregate rightResult = right.compute();
+        return left.join().merge(rightResult);
+    }
+
+    private void scanChunk(OrderLineChunk chunk, SalesAggregate aggregate) {
+        if (!chunk.overlaps(fromDay, toDay)) {
+            return;
+        }
+        boolean checkDay = !chunk.within(fromDay, toDay);
+        int[] days = chunk.epochDay;
+        int[] categories = chunk.categoryCode;
+        int size = chunk.size;
+        for (int row = chunk.deleted.nextClearBit(0); row < size; row = chunk.deleted.nextClearBit(row + 1)) {
+            if (checkDay && (days[row] < fromDay || days[row] > toDay)) {
+                continue;
+            }
+            if (category >= 0 && categories[row] != category) {
+                continue;
+            }
+            aggregate.add(chunk.medicineId[row], categories[row], chunk.quantity[row], chunk.amount[row]);
+        }
+    }
+}
@@ -19,6 +19,7 @@ public class WebSecurityConfig {
                 .requestMatchers("/api/analytics/**").permitAll()
                 .requestMatchers("/api/reports/**").permitAll()
                 .requestMatchers("/health").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
 
                 // All other requests require authentication
                 .anyRequest().authenticated()
@@ -1,7 +1,14 @@
 package com.medicart.analytics.controller;
 
+import com.medicart.analytics.service.AnalyticsQueryService;
+import com.medicart.analytics.service.CustomerSketchService;
+import com.medicart.analytics.service.HeavyHitterService;
+import com.medicart.analytics.service.RevenueReconciliationJob;
+import com.medicart.analytics.sketch.SpaceSaving;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -9,38 +16,93 @@ import java.util.Map;
 @RequestMapping("/api/analytics")
 public class AnalyticsController {
 
+    private final AnalyticsQueryService queryService;
+    private final HeavyHitterService heavyHitterService;
+    private final CustomerSketchService customerSketchService;
+    private final RevenueReconciliationJob revenueReconciliationJob;
+
+    public AnalyticsController(AnalyticsQueryService queryService, HeavyHitterService heavyHitterService,
+                               CustomerSketchService customerSketchService,
+                               RevenueReconciliationJob revenueReconciliationJob) {
+        this.queryService = queryService;
+        this.heavyHitterService = heavyHitterService;
+        this.customerSketchService = customerSketchService;
+        this.revenueReconciliationJob = revenueReconciliationJob;
+    }
+
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getDashboard() {
-        Map<String, Object> dashboard = new HashMap<>();
-        dashboard.put("totalOrders", 150);
-        dashboard.put("totalRevenue", 15000.0);
-        dashboard.put("totalCustomers", 75);
-        dashboard.put("avgOrderValue", 100.0);
-        dashboard.put("medicinesInStock", 250);
-        dashboard.put("lowStockMedicines", 12);
-        return ResponseEntity.ok(dashboard);
+        return ResponseEntity.ok(queryService.getDashboard());
     }
 
     @GetMapping("/sales")
     public ResponseEntity<Map<String, Object>> getSalesReport(
-            @RequestParam(required = false) String period) {
-        Map<String, Object> report = new HashMap<>();
-        report.put("period", period != null ? period : "monthly");
-        report.put("totalSales", 15000.0);
-        report.put("totalOrders", 150);
-        report.put("avgOrderValue", 100.0);
-        report.put("topMedicines", new String[]{"Aspirin", "Ibuprofen", "Paracetamol"});
-        return ResponseEntity.ok(report);
+            @RequestParam(required = false) String period,
+            @RequestParam(required = false) String category) {
+        return ResponseEntity.ok(queryService.getSalesReport(period, category));
+    }
+
+    @GetMapping("/top-medicines")
+    public ResponseEntity<Map<String, Object>> getTopMedicines(
+            @RequestParam(defaultValue = "week") String window,
+            @RequestParam(defaultValue = "10") int n) {
+        HeavyHitterService.Window resolved = HeavyHitterService.Window.fromPeriod(window);
+        if (resolved == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "window must be today, week or month"));
+        }
+        return ResponseEntity.ok(queryService.getTopMedicines(resolved, Math.min(Math.max(n, 1), 100)));
+    }
+
+    /**
+     * Raw Space-Saving counters for one day, so another replica can merge them.
+     */
+    @GetMapping("/top-medicines/sketch")
+    public ResponseEntity<Map<String, Object>> getTopMedicinesSketch(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        SpaceSaving sketch = heavyHitterService.daySketch(day);
+        return ResponseEntity.ok(Map.of(
+                "day", day.toString(),
+                "capacity", sketch.getCapacity(),
+                "totalWeight", sketch.getTotalWeight(),
+                "counters", sketch.counters()));
+    }
+
+    @GetMapping("/revenue")
+    public ResponseEntity<Map<String, Object>> getRevenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(queryService.getRevenue(from, to));
+    }
+
+    @PostMapping("/revenue/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileRevenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        revenueReconciliationJob.requestReconcile(day);
+        return ResponseEntity.accepted().body(Map.of("day", day.toString(), "status", "QUEUED"));
+    }
+
+    @GetMapping("/customers")
+    public ResponseEntity<Map<String, Object>> getUniqueCustomers(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String category) {
+        if (to.isBefore(from) || from.plusYears(5).isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("from", from.toString());
+        result.put("to", to.toString());
+        result.put("category", category);
+        result.put("uniqueCustomers", customerSketchService.distinctCustomers(from, to, category));
+        return ResponseEntity.ok(result);
     }
 
     @GetMapping("/inventory")
     public ResponseEntity<Map<String, Object>> getInventoryReport() {
-        Map<String, Object> report = new HashMap<>();
-        report.put("totalMedicines", 250);
-        report.put("lowStockMedicines", 12);
-        report.put("outOfStockMedicines", 5);
-        report.put("expiringBatches", 8);
-        return ResponseEntity.ok(report);
+        return ResponseEntity.ok(queryService.getInventoryReport());
     }
 
     @GetMapping("/health")
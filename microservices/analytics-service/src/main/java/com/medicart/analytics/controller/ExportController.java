@@ -0,0 +1,79 @@
+package com.medicart.analytics.controller;
+
+import com.medicart.analytics.report.ExportLimitExceededException;
+import com.medicart.analytics.service.AnalyticsQueryService;
+import com.medicart.analytics.service.ExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Streaming CSV exports. Add {@code gzip=true} to receive a .csv.gz file.
+ */
+@RestController
+@RequestMapping("/api/analytics/export")
+public class ExportController {
+
+    private final ExportService exportService;
+    private final AnalyticsQueryService queryService;
+
+    public ExportController(ExportService exportService, AnalyticsQueryService queryService) {
+        this.exportService = exportService;
+        this.queryService = queryService;
+    }
+
+    @GetMapping("/order-lines")
+    public ResponseEntity<?> exportOrderLines(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String period,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : queryService.periodStart(period, end);
+        return csvResponse("order-lines-" + start + "_" + end, gzip,
+                () -> exportService.stream("order-lines", gzip, csv -> exportService.writeOrderLines(start, end, csv)));
+    }
+
+    @GetMapping("/medicine-sales")
+    public ResponseEntity<?> exportMedicineSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String period,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : queryService.periodStart(period, end);
+        return csvResponse("medicine-sales-" + start + "_" + end, gzip,
+                () -> exportService.stream("medicine-sales", gzip, csv -> exportService.writeMedicineSales(start, end, csv)));
+    }
+
+    @GetMapping("/inventory")
+    public ResponseEntity<?> exportInventory(@RequestParam(defaultValue = "false") boolean gzip) {
+        return csvResponse("inventory-" + LocalDate.now(), gzip,
+                () -> exportService.stream("inventory", gzip, exportService::writeInventory));
+    }
+
+    private ResponseEntity<?> csvResponse(String baseName,
+                                          boolean gzip,
+                                          Supplier<StreamingResponseBody> body) {
+        try {
+            StreamingResponseBody stream = body.get();
+            String fileName = baseName + (gzip ? ".csv.gz" : ".csv");
+            return ResponseEntity.ok()
+                    .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                            : MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                    .body(stream);
+        } catch (ExportLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
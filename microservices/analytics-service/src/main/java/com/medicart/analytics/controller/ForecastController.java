@@ -0,0 +1,37 @@
+package com.medicart.analytics.controller;
+
+import com.medicart.analytics.forecast.DemandForecast;
+import com.medicart.analytics.forecast.ReorderSuggestion;
+import com.medicart.analytics.service.ForecastService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class ForecastController {
+
+    private final ForecastService forecastService;
+
+    public ForecastController(ForecastService forecastService) {
+        this.forecastService = forecastService;
+    }
+
+    @GetMapping("/forecast/{medicineId}")
+    public ResponseEntity<DemandForecast> getForecast(
+            @PathVariable Long medicineId,
+            @RequestParam(defaultValue = "14") int days) {
+        return ResponseEntity.ok(forecastService.getForecast(medicineId, Math.min(Math.max(days, 1), 365)));
+    }
+
+    @GetMapping("/reorder-suggestions")
+    public ResponseEntity<List<ReorderSuggestion>> getReorderSuggestions(
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(forecastService.getReorderSuggestions(Math.min(Math.max(limit, 1), 1000)));
+    }
+
+    @GetMapping("/reorder-suggestions/{medicineId}")
+    public ResponseEntity<ReorderSuggestion> getReorderSuggestion(@PathVariable Long medicineId) {
+        return ResponseEntity.ok(forecastService.getReorderSuggestion(medicineId));
+    }
+}
@@ -1,55 +1,122 @@
 package com.medicart.analytics.controller;
 
+import com.medicart.analytics.entity.ReportJob;
+import com.medicart.analytics.report.ReportContentStore;
+import com.medicart.analytics.report.ReportQueueFullException;
+import com.medicart.analytics.report.ReportType;
+import com.medicart.analytics.service.ReportJobService;
 import com.medicart.common.dto.ReportDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/reports")
 public class ReportController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ReportJobService reportJobService;
+    private final ReportContentStore contentStore;
+
+    public ReportController(ReportJobService reportJobService, ReportContentStore contentStore) {
+        this.reportJobService = reportJobService;
+        this.contentStore = contentStore;
+    }
+
     @GetMapping
-    public ResponseEntity<List<ReportDTO>> getAllReports() {
-        List<ReportDTO> reports = new ArrayList<>();
-        reports.add(ReportDTO.builder()
-                .id(1L)
-                .type("SALES")
-                .data("Sales report data")
-                .generatedAt(LocalDateTime.now())
-                .generatedBy("Admin")
-                .build());
-        return ResponseEntity.ok(reports);
+    public ResponseEntity<List<ReportDTO>> getAllReports(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<ReportJob> jobs = reportJobService.getJobs(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        return ResponseEntity.ok()
+                .header("X-Total-Count", String.valueOf(jobs.getTotalElements()))
+                .header("X-Total-Pages", String.valueOf(jobs.getTotalPages()))
+                .body(jobs.map(this::toDTO).getContent());
     }
 
+    /**
+     * Streams the report output once the job has completed. While it is still
+     * queued or running the job status is returned with 202 Accepted.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<ReportDTO> getReportById(@PathVariable Long id) {
-        ReportDTO report = ReportDTO.builder()
-                .id(id)
-                .type("SALES")
-                .data("Sales report data")
-                .generatedAt(LocalDateTime.now())
-                .generatedBy("Admin")
-                .build();
-        return ResponseEntity.ok(report);
+    public ResponseEntity<?> getReportById(@PathVariable Long id) {
+        Optional<ReportJob> found = reportJobService.getJob(id);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ReportJob job = found.get();
+        return switch (job.getStatus()) {
+            case ReportJobService.STATUS_COMPLETED -> ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(job.getContentType()))
+                    .contentLength(job.getContentLength())
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "inline; filename=\"" + job.getContentLocation() + "\"")
+                    .body(contentStore.load(job.getContentLocation()));
+            case ReportJobService.STATUS_FAILED -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(toDTO(job));
+            default -> ResponseEntity.accepted()
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .body(toDTO(job));
+        };
+    }
+
+    @GetMapping("/{id}/status")
+    public ResponseEntity<ReportDTO> getReportStatus(@PathVariable Long id) {
+        return reportJobService.getJob(id)
+                .map(job -> ResponseEntity.ok(toDTO(job)))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping("/generate")
-    public ResponseEntity<ReportDTO> generateReport(@RequestParam String type) {
-        ReportDTO report = ReportDTO.builder()
-                .id(1L)
-                .type(type)
-                .data("Generated report data for " + type)
-                .generatedAt(LocalDateTime.now())
-                .generatedBy("Admin")
-                .build();
-        return ResponseEntity.ok(report);
+    public ResponseEntity<?> generateReport(
+            @RequestParam String type,
+            @RequestParam(required = false) String period,
+            @RequestHeader(value = "X-User-Id", required = false) String userId) {
+        Optional<ReportType> reportType = ReportType.parse(type);
+        if (reportType.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown report type: " + type));
+        }
+        try {
+            ReportJob job = reportJobService.submit(reportType.get(), period, userId);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/reports/" + job.getId()))
+                    .body(toDTO(job));
+        } catch (ReportQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
+        }
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteReport(@PathVariable Long id) {
-        return ResponseEntity.noContent().build();
+        return reportJobService.deleteJob(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private ReportDTO toDTO(ReportJob job) {
+        return ReportDTO.builder()
+                .id(job.getId())
+                .type(job.getType())
+                .period(job.getPeriod())
+                .status(job.getStatus())
+                .generatedBy(job.getRequestedBy())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .generatedAt(job.getCompletedAt())
+                .durationMs(job.getDurationMs())
+                .contentType(job.getContentType())
+                .contentLength(job.getContentLength())
+                .errorMessage(job.getErrorMessage())
+                .build();
     }
 }
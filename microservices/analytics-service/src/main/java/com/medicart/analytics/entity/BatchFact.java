@@ -0,0 +1,32 @@
+package com.medicart.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "batch_facts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchFact {
+    @Id
+    @Column(name = "batch_id")
+    private Long batchId;
+
+    @Column(name = "medicine_id", nullable = false)
+    private Long medicineId;
+
+    @Column(name = "medicine_name")
+    private String medicineName;
+
+    @Column(name = "expiry_date")
+    private LocalDate expiryDate;
+
+    @Column(name = "qty_available", nullable = false)
+    private Integer qtyAvailable;
+}
@@ -0,0 +1,40 @@
+package com.medicart.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Persisted HyperLogLog of the customers who bought on one day, overall
+ * (empty category) or within one medicine category.
+ */
+@Entity
+@Table(name = "customer_sketches", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"day", "category"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerSketch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "sketch_precision", nullable = false)
+    private Integer precision;
+
+    /** Deflate-compressed registers */
+    @Lob
+    @Column(nullable = false, columnDefinition = "BLOB")
+    private byte[] registers;
+}
@@ -0,0 +1,41 @@
+package com.medicart.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated sales for one calendar day, maintained incrementally as order and
+ * payment changes are ingested.
+ */
+@Entity
+@Table(name = "daily_sales_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySalesRollup {
+    @Id
+    private LocalDate day;
+
+    @Column(name = "order_count", nullable = false)
+    @Builder.Default
+    private Long orderCount = 0L;
+
+    /** Sum of non-cancelled order totals placed on this day */
+    @Column(name = "gross_sales", nullable = false)
+    @Builder.Default
+    private Double grossSales = 0.0;
+
+    @Column(name = "items_sold", nullable = false)
+    @Builder.Default
+    private Long itemsSold = 0L;
+
+    /** Sum of successful payments taken on this day */
+    @Column(nullable = false)
+    @Builder.Default
+    private Double revenue = 0.0;
+}
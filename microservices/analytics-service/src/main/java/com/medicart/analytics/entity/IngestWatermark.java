@@ -0,0 +1,30 @@
+package com.medicart.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * How far each upstream change feed has been consumed: the (updatedAt, id) of the
+ * last row applied. The next poll asks for rows strictly after this position.
+ */
+@Entity
+@Table(name = "ingest_watermarks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestWatermark {
+    @Id
+    @Column(length = 32)
+    private String source;
+
+    @Column(name = "last_updated_at", nullable = false)
+    private LocalDateTime lastUpdatedAt;
+
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+}
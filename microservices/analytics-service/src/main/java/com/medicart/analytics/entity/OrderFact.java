@@ -0,0 +1,46 @@
+package com.medicart.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Last seen state of an order. Kept so that when the order changes again its
+ * previous contribution can be subtracted from the rollups before the new one is added.
+ */
+@Entity
+@Table(name = "order_facts", indexes = {
+    @Index(name = "idx_order_facts_day", columnList = "order_day")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderFact {
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "order_day", nullable = false)
+    private LocalDate orderDay;
+
+    @Column(name = "total_amount", nullable = false)
+    private Double totalAmount;
+
+    @Column(nullable = false)
+    private String status;
+
+    /** Whether this order currently contributes to the sales rollups (i.e. is not cancelled) */
+    @Column(nullable = false)
+    private Boolean counted;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
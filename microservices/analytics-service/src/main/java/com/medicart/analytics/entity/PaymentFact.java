@@ -0,0 +1,53 @@
+package com.medicart.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Last seen state of a payment and how much revenue it currently contributes.
+ */
+@Entity
+@Table(name = "payment_facts", indexes = {
+    @Index(name = "idx_payment_facts_day", columnList = "payment_day"),
+    @Index(name = "idx_payment_facts_refund_day", columnList = "refund_day")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentFact {
+    @Id
+    @Column(name = "payment_id")
+    private Long paymentId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "payment_day", nullable = false)
+    private LocalDate paymentDay;
+
+    @Column(nullable = false)
+    private Double amount;
+
+    @Column(nullable = false)
+    private String status;
+
+    /** Net revenue: captured minus refunded */
+    @Column(name = "revenue_contribution", nullable = false)
+    private Double revenueContribution;
+
+    /** Amount taken on {@code paymentDay}; null on rows written before revenue rollups existed */
+    @Column(name = "captured_amount")
+    private Double capturedAmount;
+
+    @Column(name = "refunded_amount")
+    private Double refundedAmount;
+
+    /** Day the refund was seen, null unless refunded */
+    @Column(name = "refund_day")
+    private LocalDate refundDay;
+}
@@ -0,0 +1,64 @@
+package com.medicart.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * A report generation request and, once finished, where its output lives.
+ */
+@Entity
+@Table(name = "report_jobs", indexes = {
+    @Index(name = "idx_report_jobs_created", columnList = "created_at"),
+    @Index(name = "idx_report_jobs_status", columnList = "status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String type;
+
+    /** Report parameters, e.g. the sales period */
+    private String period;
+
+    /** QUEUED, RUNNING, COMPLETED or FAILED */
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "requested_by")
+    private String requestedBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "duration_ms")
+    private Long durationMs;
+
+    /** Path of the output relative to the report store root */
+    @Column(name = "content_location")
+    private String contentLocation;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "content_length")
+    private Long contentLength;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+}
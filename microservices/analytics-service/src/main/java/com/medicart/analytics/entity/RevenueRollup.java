@@ -0,0 +1,45 @@
+package com.medicart.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * Revenue for one day and medicine category. A payment's amount is split across
+ * categories in proportion to its order lines; captures count on the day the
+ * payment was taken and refunds on the day they happened.
+ */
+@Entity
+@Table(name = "revenue_rollups", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"day", "category"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "captured_amount", nullable = false)
+    @Builder.Default
+    private Double capturedAmount = 0.0;
+
+    @Column(name = "refunded_amount", nullable = false)
+    @Builder.Default
+    private Double refundedAmount = 0.0;
+
+    public double getNetRevenue() {
+        return capturedAmount - refundedAmount;
+    }
+}
@@ -0,0 +1,30 @@
+package com.medicart.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * All-time revenue for one category, kept in step with {@link RevenueRollup} so the
+ * dashboard reads one row per category instead of every day ever recorded.
+ */
+@Entity
+@Table(name = "revenue_totals")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueTotal {
+    @Id
+    private String category;
+
+    @Column(name = "captured_amount", nullable = false)
+    @Builder.Default
+    private Double capturedAmount = 0.0;
+
+    @Column(name = "refunded_amount", nullable = false)
+    @Builder.Default
+    private Double refundedAmount = 0.0;
+}
@@ -0,0 +1,18 @@
+package com.medicart.analytics.forecast;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Daily demand forecast for one medicine, starting the day after {@code asOf}.
+ */
+public record DemandForecast(long medicineId,
+                             String medicineName,
+                             LocalDate asOf,
+                             List<Double> daily,
+                             double total,
+                             double level,
+                             double trend,
+                             List<Double> weeklySeasonality,
+                             int observedDays) {
+}
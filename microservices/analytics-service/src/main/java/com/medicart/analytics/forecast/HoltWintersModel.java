@@ -0,0 +1,205 @@
+package com.medicart.analytics.forecast;
+
+import java.util.Arrays;
+
+/**
+ * Additive Holt-Winters models with weekly seasonality for many SKUs at once.
+ *
+ * State is held column-wise in primitive arrays indexed by a dense slot per SKU
+ * (level, trend, seven seasonal terms, a smoothed squared one-step error and an
+ * observation count), about 90 bytes per SKU. Every model advances together one
+ * closed day at a time; a day update is O(1) per SKU and never revisits history.
+ *
+ * Not thread-safe; callers synchronise.
+ */
+public final class HoltWintersModel {
+
+    public static final int SEASON = 7;
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final double errorSmoothing;
+
+    // SKU id -> slot, open addressing
+    private long[] keys;
+    private int[] slots;
+    private long[] skuBySlot;
+    private int size;
+
+    private double[] level;
+    private double[] trend;
+    private double[] season;
+    private double[] errorVariance;
+    private int[] observations;
+
+    /** Epoch day of the last day fed to every model, or Long.MIN_VALUE before the first */
+    private long lastClosedDay = Long.MIN_VALUE;
+
+    public HoltWintersModel(double alpha, double beta, double gamma, double errorSmoothing, int expectedSkus) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.errorSmoothing = errorSmoothing;
+        int capacity = Math.max(16, expectedSkus);
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        keys = new long[tableSize];
+        Arrays.fill(keys, EMPTY_KEY);
+        slots = new int[tableSize];
+        skuBySlot = new long[capacity];
+        level = new double[capacity];
+        trend = new double[capacity];
+        season = new double[capacity * SEASON];
+        errorVariance = new double[capacity];
+        observations = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getLastClosedDay() {
+        return lastClosedDay;
+    }
+
+    /** Slot of an SKU, or -1 if it has never been seen */
+    public int slotOf(long sku) {
+        int mask = keys.length - 1;
+        for (int i = (int) (mix(sku) & mask); keys[i] != EMPTY_KEY; i = (i + 1) & mask) {
+            if (keys[i] == sku) {
+                return slots[i];
+            }
+        }
+        return -1;
+    }
+
+    public int slotFor(long sku) {
+        int existing = slotOf(sku);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (size == level.length) {
+            growState(size * 2);
+        }
+        if ((size + 1) * 2 > keys.length) {
+            growTable(keys.length * 2);
+        }
+        int slot = size++;
+        skuBySlot[slot] = sku;
+        insertKey(sku, slot);
+        return slot;
+    }
+
+    public long skuAt(int slot) {
+        return skuBySlot[slot];
+    }
+
+    /**
+     * Feed one complete day. {@code demandBySlot} holds that day's demand per slot
+     * (0 for SKUs with no sales). SKUs that have never sold are left untouched until
+     * their first sale so they don't start out with a long run of zeros.
+     */
+    public void closeDay(long epochDay, double[] demandBySlot) {
+        int dow = dayOfWeek(epochDay);
+        for (int s = 0; s < size; s++) {
+            double y = s < demandBySlot.length ? demandBySlot[s] : 0.0;
+            if (observations[s] == 0) {
+                if (y == 0.0) {
+                    continue;
+                }
+                level[s] = y;
+                observations[s] = 1;
+                continue;
+            }
+            int seasonIndex = s * SEASON + dow;
+            double seasonal = season[seasonIndex];
+            double predicted = level[s] + trend[s] + seasonal;
+            double error = y - predicted;
+
+            double previousLevel = level[s];
+            double newLevel = alpha * (y - seasonal) + (1 - alpha) * (previousLevel + trend[s]);
+            trend[s] = beta * (newLevel - previousLevel) + (1 - beta) * trend[s];
+            season[seasonIndex] = gamma * (y - newLevel) + (1 - gamma) * seasonal;
+            level[s] = newLevel;
+            errorVariance[s] = errorSmoothing * error * error + (1 - errorSmoothing) * errorVariance[s];
+            observations[s]++;
+        }
+        lastClosedDay = epochDay;
+    }
+
+    /**
+     * Expected demand for each of the {@code horizon} days after the last closed day,
+     * clamped at zero.
+     */
+    public double[] forecast(int slot, int horizon) {
+        double[] result = new double[horizon];
+        if (slot < 0 || observations[slot] == 0) {
+            return result;
+        }
+        for (int h = 1; h <= horizon; h++) {
+            int dow = dayOfWeek(lastClosedDay + h);
+            double value = level[slot] + h * trend[slot] + season[slot * SEASON + dow];
+            result[h - 1] = Math.max(0.0, value);
+        }
+        return result;
+    }
+
+    public double level(int slot) {
+        return level[slot];
+    }
+
+    public double trend(int slot) {
+        return trend[slot];
+    }
+
+    public double[] seasonality(int slot) {
+        return Arrays.copyOfRange(season, slot * SEASON, slot * SEASON + SEASON);
+    }
+
+    /** Smoothed variance of the one-step-ahead forecast error */
+    public double errorVariance(int slot) {
+        return errorVariance[slot];
+    }
+
+    public int observations(int slot) {
+        return observations[slot];
+    }
+
+    private static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay, SEASON);
+    }
+
+    private void insertKey(long sku, int slot) {
+        int mask = keys.length - 1;
+        int i = (int) (mix(sku) & mask);
+        while (keys[i] != EMPTY_KEY) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = sku;
+        slots[i] = slot;
+    }
+
+    private void growTable(int tableSize) {
+        keys = new long[tableSize];
+        Arrays.fill(keys, EMPTY_KEY);
+        slots = new int[tableSize];
+        for (int s = 0; s < size; s++) {
+            insertKey(skuBySlot[s], s);
+        }
+    }
+
+    private void growState(int capacity) {
+        skuBySlot = Arrays.copyOf(skuBySlot, capacity);
+        level = Arrays.copyOf(level, capacity);
+        trend = Arrays.copyOf(trend, capacity);
+        season = Arrays.copyOf(season, capacity * SEASON);
+        errorVariance = Arrays.copyOf(errorVariance, capacity);
+        observations = Arrays.copyOf(observations, capacity);
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
@@ -0,0 +1,21 @@
+package com.medicart.analytics.forecast;
+
+/**
+ * Suggested replenishment for one medicine over lead time plus review period.
+ *
+ * @param onHand             unexpired quantity across all batches
+ * @param sellableStock      stock usable against the horizon: batches outliving it in full,
+ *                           short-dated batches only by what they are forecast to sell first
+ * @param expectedWaste      part of {@code onHand} forecast to expire unsold
+ * @param suggestedQuantity  forecast demand + safety stock - sellable stock, rounded up, never negative
+ */
+public record ReorderSuggestion(long medicineId,
+                                String medicineName,
+                                int horizonDays,
+                                double forecastDemand,
+                                double safetyStock,
+                                long onHand,
+                                double sellableStock,
+                                double expectedWaste,
+                                long suggestedQuantity) {
+}
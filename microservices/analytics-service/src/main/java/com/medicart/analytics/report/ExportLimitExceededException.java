@@ -0,0 +1,17 @@
+package com.medicart.analytics.report;
+
+/**
+ * Thrown when the maximum number of concurrent exports is already running.
+ */
+public class ExportLimitExceededException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ExportLimitExceededException(int maxConcurrent, long retryAfterSeconds) {
+        super("Too many exports in progress (max " + maxConcurrent + "), retry in " + retryAfterSeconds + " seconds");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
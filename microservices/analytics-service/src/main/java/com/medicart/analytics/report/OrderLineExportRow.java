@@ -0,0 +1,11 @@
+package com.medicart.analytics.report;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of an order line joined with its order status, read page by page for
+ * exports without loading managed entities.
+ */
+public record OrderLineExportRow(Long lineId, Long orderId, LocalDate orderDay, Long medicineId,
+                                 Integer quantity, Double amount, String status) {
+}
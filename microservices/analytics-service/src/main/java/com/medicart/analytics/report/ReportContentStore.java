@@ -0,0 +1,82 @@
+package com.medicart.analytics.report;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Filesystem storage for generated report output.
+ *
+ * Output is written to a temp file and only moved into place once complete, so a
+ * report is either fully present or absent - a reader never sees a partial file.
+ */
+@Component
+public class ReportContentStore {
+    private static final Logger log = LoggerFactory.getLogger(ReportContentStore.class);
+
+    private final Path root;
+    private final Path tmpDir;
+
+    public ReportContentStore(@Value("${analytics.reports.storage-root:./data/reports}") String root) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.tmpDir = this.root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+        log.info("Report store root: {}", this.root);
+    }
+
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Write a report and return its location relative to the store root.
+     */
+    public String write(String fileName, ContentWriter writer) throws IOException {
+        Path tmp = Files.createTempFile(tmpDir, "report-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                writer.writeTo(out);
+            }
+            Path target = root.resolve(fileName);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return fileName;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    public long size(String location) throws IOException {
+        return Files.size(resolve(location));
+    }
+
+    public Resource load(String location) {
+        return new FileSystemResource(resolve(location));
+    }
+
+    public void delete(String location) {
+        try {
+            Files.deleteIfExists(resolve(location));
+        } catch (IOException e) {
+            log.warn("⚠️ Could not delete report content {}: {}", location, e.getMessage());
+        }
+    }
+
+    private Path resolve(String location) {
+        Path path = root.resolve(location).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid report location: " + location);
+        }
+        return path;
+    }
+}
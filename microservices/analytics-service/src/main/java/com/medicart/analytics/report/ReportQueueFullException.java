@@ -0,0 +1,17 @@
+package com.medicart.analytics.report;
+
+/**
+ * Thrown when the report executor's queue is full. Callers should retry later.
+ */
+public class ReportQueueFullException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ReportQueueFullException(long retryAfterSeconds) {
+        super("Report queue is full, retry in " + retryAfterSeconds + " seconds");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
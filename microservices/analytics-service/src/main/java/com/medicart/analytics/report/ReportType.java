@@ -0,0 +1,42 @@
+package com.medicart.analytics.report;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Report types that can be generated as background jobs.
+ */
+public enum ReportType {
+    SALES("application/json", "json"),
+    INVENTORY("application/json", "json"),
+    DASHBOARD("application/json", "json"),
+    /** One row per day and medicine over the requested period */
+    MEDICINE_SALES("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ReportType(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static Optional<ReportType> parse(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_')));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.medicart.analytics.repository;
+
+import com.medicart.analytics.entity.BatchFact;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface BatchFactRepository extends JpaRepository<BatchFact, Long> {
+    List<BatchFact> findByBatchIdGreaterThanOrderByBatchIdAsc(Long afterId, Pageable pageable);
+    List<BatchFact> findByMedicineId(Long medicineId);
+
+    /** One (medicineId, medicineName) row per named medicine */
+    @Query("SELECT DISTINCT b.medicineId, b.medicineName FROM BatchFact b WHERE b.medicineName IS NOT NULL")
+    List<Object[]> findMedicineNames();
+
+    /** Stocked batches expiring after {@code today} and on or before {@code cutoff} */
+    @Query("SELECT COUNT(b) FROM BatchFact b WHERE b.qtyAvailable > 0 AND b.expiryDate > :today "
+            + "AND b.expiryDate <= :cutoff")
+    long countExpiringBetween(@Param("today") LocalDate today, @Param("cutoff") LocalDate cutoff);
+}
@@ -0,0 +1,14 @@
+package com.medicart.analytics.repository;
+
+import com.medicart.analytics.entity.CustomerSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CustomerSketchRepository extends JpaRepository<CustomerSketch, Long> {
+    Optional<CustomerSketch> findByDayAndCategory(LocalDate day, String category);
+    List<CustomerSketch> findByDayBetweenAndCategory(LocalDate from, LocalDate to, String category);
+}
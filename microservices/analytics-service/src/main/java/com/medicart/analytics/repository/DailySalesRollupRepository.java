@@ -0,0 +1,26 @@
+package com.medicart.analytics.repository;
+
+import com.medicart.analytics.entity.DailySalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, LocalDate> {
+
+    /**
+     * [orderCount, grossSales, itemsSold, revenue] summed over an inclusive day range.
+     */
+    @Query("SELECT COALESCE(SUM(r.orderCount), 0), COALESCE(SUM(r.grossSales), 0), "
+            + "COALESCE(SUM(r.itemsSold), 0), COALESCE(SUM(r.revenue), 0) "
+            + "FROM DailySalesRollup r WHERE r.day BETWEEN :from AND :to")
+    List<Object[]> sumBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("UPDATE DailySalesRollup r SET r.revenue = 0.0")
+    void resetRevenue();
+}
@@ -0,0 +1,41 @@
+package com.medicart.analytics.repository;
+
+import com.medicart.analytics.entity.MedicineDailySales;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MedicineDailySalesRepository extends JpaRepository<MedicineDailySales, Long> {
+
+    Optional<MedicineDailySales> findByDayAndMedicineId(LocalDate day, Long medicineId);
+
+    List<MedicineDailySales> findByDay(LocalDate day);
+
+    @Query("SELECT MIN(m.day) FROM MedicineDailySales m")
+    Optional<LocalDate> findFirstDay();
+
+    /**
+     * [medicineId, quantity] for the best-selling medicines in an inclusive day range.
+     */
+    @Query("SELECT m.medicineId, SUM(m.quantity) FROM MedicineDailySales m "
+            + "WHERE m.day BETWEEN :from AND :to GROUP BY m.medicineId ORDER BY SUM(m.quantity) DESC")
+    List<Object[]> topMedicines(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+
+    /**
+     * Keyset page of rows ordered by (day, medicineId), starting after the given key
+     * and ending at {@code to} inclusive.
+     */
+    @Query("SELECT m FROM MedicineDailySales m "
+            + "WHERE (m.day > :day OR (m.day = :day AND m.medicineId > :medicineId)) AND m.day <= :to "
+            + "ORDER BY m.day, m.medicineId")
+    List<MedicineDailySales> findPageAfter(@Param("day") LocalDate day,
+                                           @Param("medicineId") Long medicineId,
+                                           @Param("to") LocalDate to,
+                                           Pageable pageable);
+}
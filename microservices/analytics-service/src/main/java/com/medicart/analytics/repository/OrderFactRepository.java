@@ -0,0 +1,16 @@
+package com.medicart.analytics.repository;
+
+import com.medicart.analytics.entity.OrderFact;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface OrderFactRepository extends JpaRepository<OrderFact, Long> {
+
+    @Query("SELECT o.orderId FROM OrderFact o WHERE o.counted = true AND o.orderId > :afterId ORDER BY o.orderId")
+    List<Long> findCountedOrderIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
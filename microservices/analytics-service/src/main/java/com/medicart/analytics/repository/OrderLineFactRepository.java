@@ -0,0 +1,33 @@
+package com.medicart.analytics.repository;
+
+import com.medicart.analytics.entity.OrderLineFact;
+import com.medicart.analytics.report.OrderLineExportRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderLineFactRepository extends JpaRepository<OrderLineFact, Long> {
+    List<OrderLineFact> findByOrderId(Long orderId);
+    void deleteByOrderId(Long orderId);
+    List<OrderLineFact> findByOrderIdInOrderByOrderIdAscIdAsc(Collection<Long> orderIds);
+
+    /**
+     * Keyset page of order lines with their order status, ordered by (orderDay, id),
+     * starting after the given key and ending at {@code to} inclusive.
+     */
+    @Query("SELECT new com.medicart.analytics.report.OrderLineExportRow("
+            + "l.id, l.orderId, l.orderDay, l.medicineId, l.quantity, l.amount, o.status) "
+            + "FROM OrderLineFact l JOIN OrderFact o ON o.orderId = l.orderId "
+            + "WHERE (l.orderDay > :day OR (l.orderDay = :day AND l.id > :id)) AND l.orderDay <= :to "
+            + "ORDER BY l.orderDay, l.id")
+    List<OrderLineExportRow> findExportPageAfter(@Param("day") LocalDate day,
+                                                 @Param("id") Long id,
+                                                 @Param("to") LocalDate to,
+                                                 Pageable pageable);
+}
@@ -0,0 +1,20 @@
+package com.medicart.analytics.repository;
+
+import com.medicart.analytics.entity.PaymentFact;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PaymentFactRepository extends JpaRepository<PaymentFact, Long> {
+
+    List<PaymentFact> findByPaymentDay(LocalDate day);
+
+    List<PaymentFact> findByRefundDay(LocalDate day);
+
+    boolean existsByCapturedAmountIsNull();
+
+    List<PaymentFact> findByPaymentIdGreaterThanOrderByPaymentIdAsc(Long afterId, Pageable pageable);
+}
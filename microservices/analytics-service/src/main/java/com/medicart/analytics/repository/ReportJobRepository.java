@@ -0,0 +1,17 @@
+package com.medicart.analytics.repository;
+
+import com.medicart.analytics.entity.ReportJob;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+    Page<ReportJob> findAllByOrderByCreatedAtDesc(Pageable pageable);
+    List<ReportJob> findByStatusIn(Collection<String> statuses);
+    List<ReportJob> findByCreatedAtBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,30 @@
+package com.medicart.analytics.repository;
+
+import com.medicart.analytics.entity.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, Long> {
+
+    Optional<RevenueRollup> findByDayAndCategory(LocalDate day, String category);
+
+    List<RevenueRollup> findByDay(LocalDate day);
+
+    /**
+     * [category, captured, refunded] summed over an inclusive day range.
+     */
+    @Query("SELECT r.category, SUM(r.capturedAmount), SUM(r.refundedAmount) "
+            + "FROM RevenueRollup r WHERE r.day BETWEEN :from AND :to GROUP BY r.category ORDER BY r.category")
+    List<Object[]> sumByCategoryBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM RevenueRollup r")
+    void deleteAllRows();
+}
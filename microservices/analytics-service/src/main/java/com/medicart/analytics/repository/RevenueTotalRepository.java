@@ -0,0 +1,15 @@
+package com.medicart.analytics.repository;
+
+import com.medicart.analytics.entity.RevenueTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RevenueTotalRepository extends JpaRepository<RevenueTotal, String> {
+
+    @Modifying
+    @Query("DELETE FROM RevenueTotal t")
+    void deleteAllRows();
+}
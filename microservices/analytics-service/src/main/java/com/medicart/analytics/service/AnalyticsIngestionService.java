@@ -0,0 +1,279 @@
+package com.medicart.analytics.service;
+
+import com.medicart.analytics.client.CatalogueClient;
+import com.medicart.analytics.client.OrderFeedClient;
+import com.medicart.analytics.client.PaymentFeedClient;
+import com.medicart.analytics.columnar.SalesColumnStore;
+import com.medicart.analytics.entity.IngestWatermark;
+import com.medicart.analytics.entity.OrderLineFact;
+import com.medicart.analytics.repository.OrderFactRepository;
+import com.medicart.analytics.repository.OrderLineFactRepository;
+import com.medicart.common.dto.ExpiryReportDTO;
+import com.medicart.common.dto.BatchDTO;
+import com.medicart.common.dto.MedicineDTO;
+import com.medicart.common.dto.OrderDTO;
+import com.medicart.common.dto.PaymentDTO;
+import com.medicart.common.dto.StockStateDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Polls the order, payment and batch change feeds and hands each page to
+ * {@link AnalyticsRollupService}. Only rows changed since the stored watermark are
+ * fetched, so a cycle costs O(changes) rather than O(history).
+ *
+ * updatedAt is stamped before the upstream transaction commits, so a row can become
+ * visible after a later-stamped one has already been read. Each cycle therefore
+ * starts {@code overlap-ms} behind the watermark and skips rows it has already
+ * applied at the same updatedAt.
+ */
+@Service
+public class AnalyticsIngestionService {
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsIngestionService.class);
+
+    private final OrderFeedClient orderFeedClient;
+    private final PaymentFeedClient paymentFeedClient;
+    private final CatalogueClient catalogueClient;
+    private final AnalyticsRollupService rollupService;
+    private final AnalyticsQueryService queryService;
+    private final ForecastService forecastService;
+    private final HeavyHitterService heavyHitterService;
+    private final CustomerSketchService customerSketchService;
+    private final RevenueRollupService revenueRollupService;
+    private final CatalogueDimensions catalogueDimensions;
+    private final SalesColumnStore salesColumnStore;
+    private final OrderFactRepository orderFactRepository;
+    private final OrderLineFactRepository orderLineFactRepository;
+    private final int pageSize;
+    private final int expiringWithinDays;
+    private final Duration overlap;
+    // Per source: id -> updatedAt of rows applied within the overlap window
+    private final Map<String, Map<Long, LocalDateTime>> recentlyApplied = new ConcurrentHashMap<>();
+    private boolean columnStoreLoaded;
+    private boolean heavyHittersLoaded;
+    private boolean customerSketchesLoaded;
+    private boolean revenueRollupsChecked;
+
+
+    public AnalyticsIngestionService(OrderFeedClient orderFeedClient,
+                                     PaymentFeedClient paymentFeedClient,
+                                     CatalogueClient catalogueClient,
+                                     AnalyticsRollupService rollupService,
+                                     AnalyticsQueryService queryService,
+                                     ForecastService forecastService,
+                                     HeavyHitterService heavyHitterService,
+                                     CustomerSketchService customerSketchService,
+                                     RevenueRollupService revenueRollupService,
+                                     CatalogueDimensions catalogueDimensions,
+                                     SalesColumnStore salesColumnStore,
+                                     OrderFactRepository orderFactRepository,
+                                     OrderLineFactRepository orderLineFactRepository,
+                                     @Value("${analytics.ingest.page-size:500}") int pageSize,
+                                     @Value("${analytics.inventory.expiring-within-days:30}") int expiringWithinDays,
+                                     @Value("${analytics.ingest.overlap-ms:5000}") long overlapMs) {
+        this.orderFeedClient = orderFeedClient;
+        this.paymentFeedClient = paymentFeedClient;
+        this.catalogueClient = catalogueClient;
+        this.rollupService = rollupService;
+        this.queryService = queryService;
+        this.forecastService = forecastService;
+        this.heavyHitterService = heavyHitterService;
+        this.customerSketchService = customerSketchService;
+        this.revenueRollupService = revenueRollupService;
+        this.catalogueDimensions = catalogueDimensions;
+        this.salesColumnStore = salesColumnStore;
+        this.orderFactRepository = orderFactRepository;
+        this.orderLineFactRepository = orderLineFactRepository;
+        this.pageSize = pageSize;
+        this.expiringWithinDays = expiringWithinDays;
+        this.overlap = Duration.ofMillis(overlapMs);
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.ingest.interval-ms:30000}", initialDelay = 10000)
+    public void ingest() {
+        if (!columnStoreLoaded) {
+            loadColumnStore();
+        }
+        if (!heavyHittersLoaded) {
+            try {
+                heavyHitterService.load();
+                heavyHittersLoaded = true;
+            } catch (Exception e) {
+                log.warn("⚠️ Seeding heavy-hitter sketches failed, will retry: {}", e.getMessage());
+            }
+        }
+        // Per-category sketches need categories, so wait for the first catalogue refresh
+        if (!customerSketchesLoaded && !catalogueDimensions.getMedicines().isEmpty()) {
+            try {
+                customerSketchService.backfillIfEmpty(pageSize);
+                customerSketchesLoaded = true;
+            } catch (Exception e) {
+                log.warn("⚠️ Backfilling customer sketches failed, will retry: {}", e.getMessage());
+            }
+        }
+        if (!revenueRollupsChecked && !catalogueDimensions.getMedicines().isEmpty()) {
+            try {
+                revenueRollupService.rebuildIfLegacy(pageSize);
+                revenueRollupsChecked = true;
+            } catch (Exception e) {
+                log.warn("⚠️ Rebuilding revenue rollups failed, will retry: {}", e.getMessage());
+            }
+        }
+        int orders = drain(AnalyticsRollupService.SOURCE_ORDERS,
+                (since, afterId) -> orderFeedClient.getOrderFeed(since.toString(), afterId, pageSize),
+                OrderDTO::getId, OrderDTO::getUpdatedAt, rollupService::applyOrders);
+        int payments = drain(AnalyticsRollupService.SOURCE_PAYMENTS,
+                (since, afterId) -> paymentFeedClient.getPaymentFeed(since.toString(), afterId, pageSize),
+                PaymentDTO::getId, PaymentDTO::getUpdatedAt, rollupService::applyPayments);
+        int batches = drain(AnalyticsRollupService.SOURCE_BATCHES,
+                (since, afterId) -> catalogueClient.getBatchFeed(since.toString(), afterId, pageSize),
+                BatchDTO::getId, BatchDTO::getUpdatedAt, rollupService::applyBatches);
+
+        if (orders + payments + batches > 0) {
+            log.info("📊 Ingested {} orders, {} payments, {} batches", orders, payments, batches);
+        }
+        queryService.refreshSnapshot(catalogueDimensions.getMedicines(), fetchBelowThreshold(), fetchExpiryReport());
+        try {
+            forecastService.catchUp();
+        } catch (Exception e) {
+            log.warn("⚠️ Demand model update failed: {}", e.getMessage());
+        }
+    }
+
+    /** LOW and OUT medicines from the catalogue's low-stock detector; null if it is unreachable */
+    private List<StockStateDTO> fetchBelowThreshold() {
+        try {
+            return catalogueClient.getBelowThreshold();
+        } catch (Exception e) {
+            log.debug("Low-stock list unavailable, keeping the last stock counts: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /** Totals only from the catalogue's expiry index; null if it is unreachable */
+    private ExpiryReportDTO fetchExpiryReport() {
+        try {
+            return catalogueClient.getExpiryReport(expiringWithinDays, 0);
+        } catch (Exception e) {
+            log.debug("Expiry report unavailable, using local batch facts: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.ingest.catalogue-refresh-ms:300000}", initialDelay = 5000)
+    public void refreshCatalogue() {
+        try {
+            Map<Long, MedicineDTO> refreshed = new ConcurrentHashMap<>();
+            for (MedicineDTO medicine : catalogueClient.getAllMedicines()) {
+                refreshed.put(medicine.getId(), medicine);
+            }
+            catalogueDimensions.update(refreshed);
+
+            Map<Long, String> categoryByMedicine = new HashMap<>();
+            refreshed.forEach((id, medicine) -> categoryByMedicine.put(id, medicine.getCategory()));
+            salesColumnStore.updateCategories(categoryByMedicine);
+            log.debug("Refreshed catalogue dimensions: {} medicines", refreshed.size());
+        } catch (Exception e) {
+            log.warn("⚠️ Catalogue refresh failed: {}", e.getMessage());
+        }
+    }
+
+    public Map<Long, MedicineDTO> getMedicines() {
+        return catalogueDimensions.getMedicines();
+    }
+
+    /**
+     * Rebuild the in-memory column store from the persisted order line facts. Runs on the
+     * ingestion thread before the first feed is drained, so it never races with updates.
+     */
+    private void loadColumnStore() {
+        try {
+            long afterId = 0L;
+            int orders = 0;
+            while (true) {
+                List<Long> orderIds = orderFactRepository.findCountedOrderIdsAfter(afterId, PageRequest.of(0, pageSize));
+                if (orderIds.isEmpty()) {
+                    break;
+                }
+                Map<Long, List<OrderLineFact>> linesByOrder = new LinkedHashMap<>();
+                for (OrderLineFact line : orderLineFactRepository.findByOrderIdInOrderByOrderIdAscIdAsc(orderIds)) {
+                    linesByOrder.computeIfAbsent(line.getOrderId(), id -> new ArrayList<>()).add(line);
+                }
+                linesByOrder.forEach(salesColumnStore::replaceOrder);
+                orders += orderIds.size();
+                afterId = orderIds.get(orderIds.size() - 1);
+            }
+            columnStoreLoaded = true;
+            log.info("📊 Loaded {} orders ({} order lines) into the sales column store",
+                    orders, salesColumnStore.getLiveRows());
+        } catch (Exception e) {
+            log.warn("⚠️ Loading the sales column store failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Pull pages from one feed until it is exhausted, starting {@code overlap} behind the
+     * stored watermark. Returns the number of rows applied. A failing source is logged
+     * and retried on the next cycle from the same watermark.
+     */
+    private <T> int drain(String source,
+                          BiFunction<LocalDateTime, Long, List<T>> fetch,
+                          Function<T, Long> idOf,
+                          Function<T, LocalDateTime> updatedAtOf,
+                          Consumer<List<T>> apply) {
+        Map<Long, LocalDateTime> applied = recentlyApplied.computeIfAbsent(source, key -> new HashMap<>());
+        int total = 0;
+        try {
+            IngestWatermark watermark = rollupService.getWatermark(source);
+            LocalDateTime since = watermark.getLastUpdatedAt().minus(overlap);
+            Long afterId = 0L;
+            while (true) {
+                List<T> page = fetch.apply(since, afterId);
+                if (page == null || page.isEmpty()) {
+                    break;
+                }
+                List<T> fresh = page.stream()
+                        .filter(row -> updatedAtOf.apply(row) == null
+                                || !updatedAtOf.apply(row).equals(applied.get(idOf.apply(row))))
+                        .toList();
+                if (!fresh.isEmpty()) {
+                    apply.accept(fresh);
+                    for (T row : fresh) {
+                        if (updatedAtOf.apply(row) != null) {
+                            applied.put(idOf.apply(row), updatedAtOf.apply(row));
+                        }
+                    }
+                    total += fresh.size();
+                }
+
+                T last = page.get(page.size() - 1);
+                if (page.size() < pageSize || updatedAtOf.apply(last) == null) {
+                    break;
+                }
+                since = updatedAtOf.apply(last);
+                afterId = idOf.apply(last);
+            }
+            LocalDateTime horizon = rollupService.getWatermark(source).getLastUpdatedAt().minus(overlap);
+            applied.values().removeIf(updatedAt -> updatedAt.isBefore(horizon));
+        } catch (Exception e) {
+            log.warn("⚠️ Ingestion from {} failed after {} rows: {}", source, total, e.getMessage());
+        }
+        return total;
+    }
+}
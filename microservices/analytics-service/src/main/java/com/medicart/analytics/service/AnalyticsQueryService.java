@@ -0,0 +1,288 @@
+package com.medicart.analytics.service;
+
+import com.medicart.analytics.columnar.SalesAggregate;
+import com.medicart.analytics.columnar.SalesColumnStore;
+import com.medicart.analytics.repository.BatchFactRepository;
+import com.medicart.analytics.entity.RevenueTotal;
+import com.medicart.analytics.repository.DailySalesRollupRepository;
+import com.medicart.analytics.repository.RevenueRollupRepository;
+import com.medicart.analytics.repository.RevenueTotalRepository;
+import com.medicart.analytics.sketch.SpaceSaving;
+import com.medicart.common.dto.ExpiryReportDTO;
+import com.medicart.common.dto.MedicineDTO;
+import com.medicart.common.dto.StockStateDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read side of the analytics rollups.
+ *
+ * Dashboard and inventory figures are recomputed once per ingestion cycle into an
+ * immutable snapshot, so serving them is a field read. Period sales reports sum at
+ * most one rollup row per day in the window for order and revenue totals, and scan
+ * the in-memory {@link SalesColumnStore} for line-level breakdowns. All-time revenue
+ * comes from one running total per category.
+ */
+@Service
+public class AnalyticsQueryService {
+
+    private static final LocalDate ALL_TIME_START = LocalDate.of(1970, 1, 1);
+
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+    private final SalesColumnStore salesColumnStore;
+    private final HeavyHitterService heavyHitterService;
+    private final CustomerSketchService customerSketchService;
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final RevenueTotalRepository revenueTotalRepository;
+    private final BatchFactRepository batchFactRepository;
+    private final int expiringWithinDays;
+
+    private volatile Map<String, Object> dashboard = Map.of();
+    private volatile Map<String, Object> inventory = Map.of();
+    private volatile Map<Long, String> medicineNames = Map.of();
+    private volatile StockCounts stockCounts = new StockCounts(0, 0, 0);
+
+    public AnalyticsQueryService(DailySalesRollupRepository dailySalesRollupRepository,
+                                 SalesColumnStore salesColumnStore,
+                                 HeavyHitterService heavyHitterService,
+                                 CustomerSketchService customerSketchService,
+                                 RevenueRollupRepository revenueRollupRepository,
+                                 RevenueTotalRepository revenueTotalRepository,
+                                 BatchFactRepository batchFactRepository,
+                                 @Value("${analytics.inventory.expiring-within-days:30}") int expiringWithinDays) {
+        this.dailySalesRollupRepository = dailySalesRollupRepository;
+        this.salesColumnStore = salesColumnStore;
+        this.heavyHitterService = heavyHitterService;
+        this.customerSketchService = customerSketchService;
+        this.revenueRollupRepository = revenueRollupRepository;
+        this.revenueTotalRepository = revenueTotalRepository;
+        this.batchFactRepository = batchFactRepository;
+        this.expiringWithinDays = expiringWithinDays;
+    }
+
+    public Map<String, Object> getDashboard() {
+        return dashboard;
+    }
+
+    public Map<String, Object> getInventoryReport() {
+        return inventory;
+    }
+
+    public Map<String, Object> getSalesReport(String period, String category) {
+        String resolved = period != null ? period : "monthly";
+        LocalDate to = LocalDate.now();
+        LocalDate from = periodStart(resolved, to);
+
+        SalesTotals totals = sumBetween(from, to);
+        SalesAggregate lines = salesColumnStore.scan(from, to, category);
+        List<String> topMedicines = new ArrayList<>();
+        HeavyHitterService.Window window = HeavyHitterService.Window.fromPeriod(resolved);
+        if (window != null && category == null) {
+            for (SpaceSaving.Counter counter : heavyHitterService.top(window, 5)) {
+                topMedicines.add(medicineName(counter.item()));
+            }
+        } else {
+            for (SalesAggregate.MedicineSales sales : lines.topMedicines(5)) {
+                topMedicines.add(medicineName(sales.medicineId()));
+            }
+        }
+        Map<String, Object> salesByCategory = new LinkedHashMap<>();
+        lines.byCategory().forEach((name, sales) ->
+                salesByCategory.put(name, Map.of("quantity", sales.quantity(), "amount", sales.amount())));
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("period", resolved);
+        report.put("from", from.toString());
+        report.put("to", to.toString());
+        report.put("totalSales", totals.revenue());
+        report.put("grossOrderValue", totals.grossSales());
+        report.put("totalOrders", totals.orderCount());
+        report.put("avgOrderValue", totals.avgOrderValue());
+        report.put("itemsSold", lines.getQuantity());
+        report.put("uniqueCustomers", customerSketchService.distinctCustomers(from, to, category));
+        report.put("topMedicines", topMedicines);
+        report.put("salesByCategory", salesByCategory);
+        report.put("revenueByCategory", revenueByCategory(from, to));
+        if (category != null) {
+            report.put("category", category);
+            report.put("categorySales", lines.getAmount());
+        }
+        return report;
+    }
+
+    /**
+     * Captured, refunded and net revenue per category over an inclusive day range.
+     */
+    public Map<String, Object> getRevenue(LocalDate from, LocalDate to) {
+        Map<String, Object> byCategory = new LinkedHashMap<>();
+        double captured = 0.0;
+        double refunded = 0.0;
+        for (Object[] row : revenueRollupRepository.sumByCategoryBetween(from, to)) {
+            byCategory.put((String) row[0], revenueEntry(row));
+            captured += ((Number) row[1]).doubleValue();
+            refunded += ((Number) row[2]).doubleValue();
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("from", from.toString());
+        result.put("to", to.toString());
+        result.put("capturedRevenue", captured);
+        result.put("refundedRevenue", refunded);
+        result.put("netRevenue", captured - refunded);
+        result.put("byCategory", byCategory);
+        return result;
+    }
+
+    private Map<String, Object> revenueByCategory(LocalDate from, LocalDate to) {
+        Map<String, Object> byCategory = new LinkedHashMap<>();
+        for (Object[] row : revenueRollupRepository.sumByCategoryBetween(from, to)) {
+            byCategory.put((String) row[0], revenueEntry(row));
+        }
+        return byCategory;
+    }
+
+    private static Map<String, Object> revenueEntry(Object[] row) {
+        double captured = ((Number) row[1]).doubleValue();
+        double refunded = ((Number) row[2]).doubleValue();
+        return Map.of("captured", captured, "refunded", refunded, "net", captured - refunded);
+    }
+
+    /**
+     * Approximate best sellers by units for a window. Each unit count is an upper
+     * bound; {@code guaranteedUnits} is a lower bound, and no count is off by more
+     * than {@code maxError}.
+     */
+    public Map<String, Object> getTopMedicines(HeavyHitterService.Window window, int n) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (SpaceSaving.Counter counter : heavyHitterService.top(window, n)) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("medicineId", counter.item());
+            item.put("medicineName", medicineName(counter.item()));
+            item.put("units", counter.count());
+            item.put("guaranteedUnits", counter.guaranteed());
+            items.add(item);
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("window", window.name().toLowerCase());
+        result.put("totalUnits", heavyHitterService.totalUnits(window));
+        result.put("maxError", heavyHitterService.maxError(window));
+        result.put("topMedicines", items);
+        return result;
+    }
+
+    /**
+     * First day of a reporting period (daily, weekly, monthly or yearly) ending on {@code to}.
+     */
+    public LocalDate periodStart(String period, LocalDate to) {
+        return to.minusDays(periodDays(period != null ? period : "monthly") - 1L);
+    }
+
+    public String medicineName(Long medicineId) {
+        return medicineNames.getOrDefault(medicineId, "Medicine #" + medicineId);
+    }
+
+    /**
+     * Rebuild the dashboard and inventory snapshots from the rollup tables. Low and
+     * out-of-stock counts come from the catalogue's low-stock detector; if it was
+     * unreachable ({@code belowThreshold} is null) the last counts are kept. Expiry
+     * figures come from the catalogue's expiry index when available, otherwise from
+     * the local batch facts.
+     */
+    public void refreshSnapshot(Map<Long, MedicineDTO> medicines, List<StockStateDTO> belowThreshold,
+                                ExpiryReportDTO expiry) {
+        LocalDate today = LocalDate.now();
+
+        Map<Long, String> names = new HashMap<>();
+        for (Object[] row : batchFactRepository.findMedicineNames()) {
+            names.put((Long) row[0], (String) row[1]);
+        }
+        medicines.forEach((id, medicine) -> names.put(id, medicine.getName()));
+        medicineNames = Map.copyOf(names);
+
+        if (belowThreshold != null) {
+            int lowStock = 0;
+            int outOfStock = 0;
+            for (StockStateDTO state : belowThreshold) {
+                if (StockStateDTO.OUT.equals(state.getLevel())) {
+                    outOfStock++;
+                } else if (StockStateDTO.LOW.equals(state.getLevel())) {
+                    lowStock++;
+                }
+            }
+            stockCounts = new StockCounts(medicines.size(), lowStock, outOfStock);
+        }
+        StockCounts stock = stockCounts;
+
+        SalesTotals totals = sumBetween(ALL_TIME_START, today.plusDays(1));
+        long customers = customerSketchService.distinctCustomersAllTime();
+        double totalRevenue = 0.0;
+        for (RevenueTotal total : revenueTotalRepository.findAll()) {
+            totalRevenue += total.getCapturedAmount() - total.getRefundedAmount();
+        }
+        String asOf = LocalDateTime.now().toString();
+
+        Map<String, Object> newDashboard = new HashMap<>();
+        newDashboard.put("totalOrders", totals.orderCount());
+        newDashboard.put("totalRevenue", totalRevenue);
+        newDashboard.put("totalCustomers", customers);
+        newDashboard.put("avgOrderValue", totals.avgOrderValue());
+        newDashboard.put("medicinesInStock", stock.inStock());
+        newDashboard.put("lowStockMedicines", stock.lowStock());
+        newDashboard.put("asOf", asOf);
+        dashboard = Map.copyOf(newDashboard);
+
+        Map<String, Object> newInventory = new HashMap<>();
+        newInventory.put("totalMedicines", stock.totalMedicines());
+        newInventory.put("lowStockMedicines", stock.lowStock());
+        newInventory.put("outOfStockMedicines", stock.outOfStock());
+        if (expiry != null) {
+            newInventory.put("expiringBatches", expiry.getExpiringBatches());
+            newInventory.put("quantityAtRisk", expiry.getQuantityAtRisk());
+            newInventory.put("expiredBatches", expiry.getExpiredBatches());
+            newInventory.put("expiredQuantity", expiry.getExpiredQuantity());
+        } else {
+            newInventory.put("expiringBatches",
+                    batchFactRepository.countExpiringBetween(today, today.plusDays(expiringWithinDays)));
+        }
+        newInventory.put("asOf", asOf);
+        inventory = Map.copyOf(newInventory);
+    }
+
+    private SalesTotals sumBetween(LocalDate from, LocalDate to) {
+        List<Object[]> rows = dailySalesRollupRepository.sumBetween(from, to);
+        Object[] row = rows.isEmpty() ? new Object[]{0L, 0.0, 0L, 0.0} : rows.get(0);
+        return new SalesTotals(
+                ((Number) row[0]).longValue(),
+                ((Number) row[1]).doubleValue(),
+                ((Number) row[2]).longValue(),
+                ((Number) row[3]).doubleValue());
+    }
+
+    private static int periodDays(String period) {
+        return switch (period.toLowerCase()) {
+            case "daily" -> 1;
+            case "weekly" -> 7;
+            case "yearly" -> 365;
+            default -> 30;
+        };
+    }
+
+    private record StockCounts(int totalMedicines, int lowStock, int outOfStock) {
+        int inStock() {
+            return Math.max(totalMedicines - outOfStock, 0);
+        }
+    }
+
+    private record SalesTotals(long orderCount, double grossSales, long itemsSold, double revenue) {
+        double avgOrderValue() {
+            return orderCount > 0 ? grossSales / orderCount : 0.0;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.medicart.analytics.service;
+
+import com.medicart.analytics.columnar.SalesColumnStore;
+import com.medicart.analytics.entity.BatchFact;
+import com.medicart.analytics.entity.DailySalesRollup;
+import com.medicart.analytics.entity.IngestWatermark;
+import com.medicart.analytics.entity.MedicineDailySales;
+import com.medicart.analytics.entity.OrderFact;
+import com.medicart.analytics.entity.OrderLineFact;
+import com.medicart.analytics.entity.PaymentFact;
+import com.medicart.analytics.repository.BatchFactRepository;
+import com.medicart.analytics.repository.DailySalesRollupRepository;
+import com.medicart.analytics.repository.IngestWatermarkRepository;
+import com.medicart.analytics.repository.MedicineDailySalesRepository;
+import com.medicart.analytics.repository.OrderFactRepository;
+import com.medicart.analytics.repository.OrderLineFactRepository;
+import com.medicart.analytics.repository.PaymentFactRepository;
+import com.medicart.common.dto.BatchDTO;
+import com.medicart.common.dto.OrderDTO;
+import com.medicart.common.dto.OrderItemDTO;
+import com.medicart.common.dto.PaymentDTO;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Applies upstream changes to the analytics facts and rollups.
+ *
+ * Every order and payment keeps a fact row with what it last contributed. When a
+ * changed row arrives its old contribution is subtracted and the new one added, so
+ * rollups stay exact without ever re-reading history. Each page is applied in one
+ * transaction together with its watermark, so a crash mid-page is simply replayed.
+ */
+@Service
+@Transactional
+public class AnalyticsRollupService {
+
+    public static final String SOURCE_ORDERS = "orders";
+    public static final String SOURCE_PAYMENTS = "payments";
+    public static final String SOURCE_BATCHES = "batches";
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final IngestWatermarkRepository watermarkRepository;
+    private final OrderFactRepository orderFactRepository;
+    private final OrderLineFactRepository orderLineFactRepository;
+    private final PaymentFactRepository paymentFactRepository;
+    private final BatchFactRepository batchFactRepository;
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+    private final MedicineDailySalesRepository medicineDailySalesRepository;
+    private final SalesColumnStore salesColumnStore;
+    private final HeavyHitterService heavyHitterService;
+    private final CustomerSketchService customerSketchService;
+    private final RevenueRollupService revenueRollupService;
+
+    public AnalyticsRollupService(IngestWatermarkRepository watermarkRepository,
+                                  OrderFactRepository orderFactRepository,
+                                  OrderLineFactRepository orderLineFactRepository,
+                                  PaymentFactRepository paymentFactRepository,
+                                  BatchFactRepository batchFactRepository,
+                                  DailySalesRollupRepository dailySalesRollupRepository,
+                                  MedicineDailySalesRepository medicineDailySalesRepository,
+                                  SalesColumnStore salesColumnStore,
+                                  HeavyHitterService heavyHitterService,
+                                  CustomerSketchService customerSketchService,
+                                  RevenueRollupService revenueRollupService) {
+        this.watermarkRepository = watermarkRepository;
+        this.orderFactRepository = orderFactRepository;
+        this.orderLineFactRepository = orderLineFactRepository;
+        this.paymentFactRepository = paymentFactRepository;
+        this.batchFactRepository = batchFactRepository;
+        this.dailySalesRollupRepository = dailySalesRollupRepository;
+        this.medicineDailySalesRepository = medicineDailySalesRepository;
+        this.salesColumnStore = salesColumnStore;
+        this.heavyHitterService = heavyHitterService;
+        this.customerSketchService = customerSketchService;
+        this.revenueRollupService = revenueRollupService;
+    }
+
+    @Transactional(readOnly = true)
+    public IngestWatermark getWatermark(String source) {
+        return watermarkRepository.findById(source)
+                .orElseGet(() -> IngestWatermark.builder()
+                        .source(source)
+                        .lastUpdatedAt(EPOCH)
+                        .lastId(0L)
+                        .build());
+    }
+
+    // 🧾 ORDERS
+    public void applyOrders(List<OrderDTO> orders) {
+        for (OrderDTO order : orders) {
+            applyOrder(order);
+        }
+        customerSketchService.flush();
+        onRollback(customerSketchService::discard);
+        OrderDTO last = orders.get(orders.size() - 1);
+        advanceWatermark(SOURCE_ORDERS, last.getUpdatedAt(), last.getId());
+    }
+
+    private void applyOrder(OrderDTO order) {
+        Optional<OrderFact> previous = orderFactRepository.findById(order.getId());
+        boolean wasCounted = previous.isPresent() && previous.get().getCounted();
+        if (wasCounted) {
+            OrderFact old = previous.get();
+            List<OrderLineFact> oldLines = orderLineFactRepository.findByOrderId(old.getOrderId());
+            addOrderContribution(old.getOrderDay(), old.getTotalAmount(), oldLines, -1);
+        }
+        orderLineFactRepository.deleteByOrderId(order.getId());
+
+        LocalDate day = order.getOrderDate() != null ? order.getOrderDate().toLocalDate() : LocalDate.now();
+        boolean counted = !"CANCELLED".equalsIgnoreCase(order.getStatus());
+        double total = order.getTotalAmount() != null ? order.getTotalAmount() : 0.0;
+
+        List<OrderLineFact> lines = order.getItems() == null ? List.of() : order.getItems().stream()
+                .map(item -> toLineFact(order.getId(), day, item))
+                .toList();
+        orderLineFactRepository.saveAll(lines);
+        // Replacing is idempotent, so a page replayed after a rollback converges
+        salesColumnStore.replaceOrder(order.getId(), counted ? lines : List.of());
+
+        orderFactRepository.save(OrderFact.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .orderDay(day)
+                .totalAmount(total)
+                .status(order.getStatus())
+                .counted(counted)
+                .updatedAt(order.getUpdatedAt())
+                .build());
+
+        if (counted) {
+            addOrderContribution(day, total, lines, 1);
+            customerSketchService.record(day, order.getUserId(),
+                    lines.stream().map(OrderLineFact::getMedicineId).toList());
+        }
+        if (counted && !wasCounted) {
+            afterCommit(() -> lines.forEach(line ->
+                    heavyHitterService.offer(day, line.getMedicineId(), line.getQuantity())));
+        }
+    }
+
+    private OrderLineFact toLineFact(Long orderId, LocalDate day, OrderItemDTO item) {
+        int quantity = item.getQuantity() != null ? item.getQuantity() : 0;
+        double price = item.getPriceAtPurchase() != null ? item.getPriceAtPurchase() : 0.0;
+        return OrderLineFact.builder()
+                .orderId(orderId)
+                .orderDay(day)
+                .medicineId(item.getMedicineId())
+                .quantity(quantity)
+                .amount(price * quantity)
+                .build();
+    }
+
+    private void addOrderContribution(LocalDate day, double total, List<OrderLineFact> lines, int sign) {
+        DailySalesRollup rollup = dailyRollup(day);
+        long items = 0;
+        for (OrderLineFact line : lines) {
+            items += line.getQuantity();
+            MedicineDailySales sales = medicineDailySalesRepository
+                    .findByDayAndMedicineId(day, line.getMedicineId())
+                    .orElseGet(() -> MedicineDailySales.builder()
+                            .day(day)
+                            .medicineId(line.getMedicineId())
+                            .build());
+            sales.setQuantity(sales.getQuantity() + sign * (long) line.getQuantity());
+            sales.setAmount(sales.getAmount() + sign * line.getAmount());
+            medicineDailySalesRepository.save(sales);
+        }
+        rollup.setOrderCount(rollup.getOrderCount() + sign);
+        rollup.setGrossSales(rollup.getGrossSales() + sign * total);
+        rollup.setItemsSold(rollup.getItemsSold() + sign * items);
+        dailySalesRollupRepository.save(rollup);
+    }
+
+    // 💳 PAYMENTS
+    public void applyPayments(List<PaymentDTO> payments) {
+        upsertPayments(payments);
+        PaymentDTO last = payments.get(payments.size() - 1);
+        advanceWatermark(SOURCE_PAYMENTS, last.getUpdatedAt(), last.getId());
+    }
+
+    /** Apply payment states without moving the watermark, e.g. when reconciling a day */
+    public void upsertPayments(List<PaymentDTO> payments) {
+        for (PaymentDTO payment : payments) {
+            applyPayment(payment);
+        }
+    }
+
+    private void applyPayment(PaymentDTO payment) {
+        PaymentFact previous = paymentFactRepository.findById(payment.getId())
+                .map(this::copyOf)
+                .orElse(null);
+
+        LocalDateTime paidAt = payment.getPaymentDate() != null ? payment.getPaymentDate() : payment.getUpdatedAt();
+        LocalDate day = paidAt != null ? paidAt.toLocalDate() : LocalDate.now();
+        double amount = payment.getAmount() != null ? payment.getAmount() : 0.0;
+        boolean refunded = "REFUNDED".equals(payment.getStatus());
+        double captured = refunded || "SUCCESS".equals(payment.getStatus()) ? amount : 0.0;
+        LocalDate refundDay = null;
+        if (refunded) {
+            // A refund keeps the day it was first seen; replays must not move it
+            refundDay = previous != null && previous.getRefundDay() != null
+                    ? previous.getRefundDay()
+                    : payment.getUpdatedAt() != null ? payment.getUpdatedAt().toLocalDate() : LocalDate.now();
+        }
+
+        PaymentFact current = paymentFactRepository.save(PaymentFact.builder()
+                .paymentId(payment.getId())
+                .orderId(payment.getOrderId())
+                .paymentDay(day)
+                .amount(amount)
+                .status(payment.getStatus())
+                .revenueContribution(refunded ? 0.0 : captured)
+                .capturedAmount(captured)
+                .refundedAmount(refunded ? amount : 0.0)
+                .refundDay(refundDay)
+                .build());
+        revenueRollupService.applyChange(previous, current);
+    }
+
+    /** Detached copy, since saving the new state mutates the managed row */
+    private PaymentFact copyOf(PaymentFact fact) {
+        return PaymentFact.builder()
+                .paymentId(fact.getPaymentId())
+                .orderId(fact.getOrderId())
+                .paymentDay(fact.getPaymentDay())
+                .amount(fact.getAmount())
+                .status(fact.getStatus())
+                .revenueContribution(fact.getRevenueContribution())
+                .capturedAmount(fact.getCapturedAmount())
+                .refundedAmount(fact.getRefundedAmount())
+                .refundDay(fact.getRefundDay())
+                .build();
+    }
+
+    // 📦 BATCHES
+    public void applyBatches(List<BatchDTO> batches) {
+        for (BatchDTO batch : batches) {
+            if (Boolean.TRUE.equals(batch.getDeleted())) {
+                if (batchFactRepository.existsById(batch.getId())) {
+                    batchFactRepository.deleteById(batch.getId());
+                }
+                continue;
+            }
+            batchFactRepository.save(BatchFact.builder()
+                    .batchId(batch.getId())
+                    .medicineId(batch.getMedicineId())
+                    .medicineName(batch.getMedicineName())
+                    .expiryDate(batch.getExpiryDate())
+                    .qtyAvailable(batch.getQtyAvailable() != null ? batch.getQtyAvailable() : 0)
+                    .build());
+        }
+        BatchDTO last = batches.get(batches.size() - 1);
+        advanceWatermark(SOURCE_BATCHES, last.getUpdatedAt(), last.getId());
+    }
+
+    private DailySalesRollup dailyRollup(LocalDate day) {
+        return dailySalesRollupRepository.findById(day)
+                .orElseGet(() -> DailySalesRollup.builder().day(day).build());
+    }
+
+    /** Sketches cannot retract, so they only see changes that have committed */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    /** Only ever forward: a late row re-read from the overlap window must not move it back */
+    private void advanceWatermark(String source, LocalDateTime updatedAt, Long id) {
+        if (updatedAt == null) {
+            return;
+        }
+        IngestWatermark current = getWatermark(source);
+        if (updatedAt.isBefore(current.getLastUpdatedAt())
+                || (updatedAt.equals(current.getLastUpdatedAt()) && id <= current.getLastId())) {
+            return;
+        }
+        watermarkRepository.save(IngestWatermark.builder()
+                .source(source)
+                .lastUpdatedAt(updatedAt)
+                .lastId(id)
+                .build());
+    }
+}
@@ -0,0 +1,30 @@
+package com.medicart.analytics.service;
+
+import com.medicart.common.dto.MedicineDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Latest catalogue snapshot (medicineId -> medicine), refreshed by
+ * {@link AnalyticsIngestionService} and read wherever facts need a name or category.
+ */
+@Component
+public class CatalogueDimensions {
+
+    private volatile Map<Long, MedicineDTO> medicines = Map.of();
+
+    public void update(Map<Long, MedicineDTO> refreshed) {
+        medicines = refreshed;
+    }
+
+    public Map<Long, MedicineDTO> getMedicines() {
+        return medicines;
+    }
+
+    /** Category of a medicine, or null if unknown */
+    public String categoryOf(Long medicineId) {
+        MedicineDTO medicine = medicines.get(medicineId);
+        return medicine != null ? medicine.getCategory() : null;
+    }
+}
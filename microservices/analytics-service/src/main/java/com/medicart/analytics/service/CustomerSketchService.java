@@ -0,0 +1,211 @@
+package com.medicart.analytics.service;
+
+import com.medicart.analytics.entity.CustomerSketch;
+import com.medicart.analytics.entity.OrderFact;
+import com.medicart.analytics.entity.OrderLineFact;
+import com.medicart.analytics.repository.CustomerSketchRepository;
+import com.medicart.analytics.repository.OrderFactRepository;
+import com.medicart.analytics.repository.OrderLineFactRepository;
+import com.medicart.analytics.sketch.HyperLogLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Distinct-customer counts from HyperLogLog sketches, one per day overall and one
+ * per day and medicine category, plus an all-time sketch.
+ *
+ * Sketches touched while applying a page of orders are written back in that page's
+ * transaction, so they are exactly as durable as the rollups. Recently used
+ * sketches are cached; any range is answered by merging its day sketches.
+ * A customer whose only order is later cancelled stays counted, since a sketch
+ * cannot forget.
+ */
+@Service
+public class CustomerSketchService {
+    private static final Logger log = LoggerFactory.getLogger(CustomerSketchService.class);
+
+    public static final String ALL_CATEGORIES = "";
+    /** Day key of the all-time sketch */
+    private static final LocalDate ALL_TIME = LocalDate.of(1970, 1, 1);
+
+    private record SketchKey(LocalDate day, String category) {
+    }
+
+    private final CustomerSketchRepository customerSketchRepository;
+    private final OrderFactRepository orderFactRepository;
+    private final OrderLineFactRepository orderLineFactRepository;
+    private final CatalogueDimensions catalogueDimensions;
+    private final int precision;
+    private final Map<SketchKey, HyperLogLog> cache;
+    private final Map<SketchKey, HyperLogLog> dirty = new HashMap<>();
+
+    public CustomerSketchService(CustomerSketchRepository customerSketchRepository,
+                                 OrderFactRepository orderFactRepository,
+                                 OrderLineFactRepository orderLineFactRepository,
+                                 CatalogueDimensions catalogueDimensions,
+                                 @Value("${analytics.customers.hll-precision:14}") int precision,
+                                 @Value("${analytics.customers.cache-size:256}") int cacheSize) {
+        this.customerSketchRepository = customerSketchRepository;
+        this.orderFactRepository = orderFactRepository;
+        this.orderLineFactRepository = orderLineFactRepository;
+        this.catalogueDimensions = catalogueDimensions;
+        this.precision = precision;
+        this.cache = new LinkedHashMap<>(cacheSize * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SketchKey, HyperLogLog> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Record that a customer bought on a day, in the given medicines. Changes are
+     * buffered until {@link #flush()}.
+     */
+    public synchronized void record(LocalDate day, Long userId, Collection<Long> medicineIds) {
+        if (userId == null) {
+            return;
+        }
+        add(new SketchKey(ALL_TIME, ALL_CATEGORIES), userId);
+        add(new SketchKey(day, ALL_CATEGORIES), userId);
+        Set<String> categories = new HashSet<>();
+        for (Long medicineId : medicineIds) {
+            String category = catalogueDimensions.categoryOf(medicineId);
+            if (category != null && categories.add(category)) {
+                add(new SketchKey(day, category), userId);
+            }
+        }
+    }
+
+    /** Persist buffered sketches; called inside the transaction that recorded them */
+    public synchronized void flush() {
+        for (Map.Entry<SketchKey, HyperLogLog> entry : dirty.entrySet()) {
+            SketchKey key = entry.getKey();
+            CustomerSketch row = customerSketchRepository.findByDayAndCategory(key.day(), key.category())
+                    .orElseGet(() -> CustomerSketch.builder().day(key.day()).category(key.category()).build());
+            row.setPrecision(precision);
+            row.setRegisters(entry.getValue().toCompressedBytes());
+            customerSketchRepository.save(row);
+        }
+        dirty.clear();
+    }
+
+    /** Discard buffered changes after a failed page; cached copies are reloaded on demand */
+    public synchronized void discard() {
+        for (SketchKey key : dirty.keySet()) {
+            cache.remove(key);
+        }
+        dirty.clear();
+    }
+
+    public synchronized long distinctCustomers(LocalDate from, LocalDate to, String category) {
+        String key = category != null ? category : ALL_CATEGORIES;
+        HyperLogLog merged = new HyperLogLog(precision);
+        Set<LocalDate> missing = new HashSet<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            HyperLogLog sketch = cached(new SketchKey(day, key));
+            if (sketch != null) {
+                merged.merge(sketch);
+            } else {
+                missing.add(day);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (CustomerSketch row : customerSketchRepository.findByDayBetweenAndCategory(from, to, key)) {
+                if (missing.contains(row.getDay())) {
+                    HyperLogLog sketch = decode(row);
+                    cache.put(new SketchKey(row.getDay(), key), sketch);
+                    merged.merge(sketch);
+                }
+            }
+        }
+        return merged.estimate();
+    }
+
+    public synchronized long distinctCustomersAllTime() {
+        HyperLogLog sketch = load(new SketchKey(ALL_TIME, ALL_CATEGORIES));
+        return sketch != null ? sketch.estimate() : 0L;
+    }
+
+    /**
+     * One-off backfill from the order facts when no sketches exist yet, e.g. right after
+     * this feature is deployed on a database that already has orders.
+     */
+    @Transactional
+    public void backfillIfEmpty(int pageSize) {
+        if (customerSketchRepository.count() > 0) {
+            return;
+        }
+        long afterId = 0L;
+        int orders = 0;
+        while (true) {
+            List<Long> orderIds = orderFactRepository.findCountedOrderIdsAfter(afterId, PageRequest.of(0, pageSize));
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            Map<Long, List<Long>> medicinesByOrder = new HashMap<>();
+            for (OrderLineFact line : orderLineFactRepository.findByOrderIdInOrderByOrderIdAscIdAsc(orderIds)) {
+                medicinesByOrder.computeIfAbsent(line.getOrderId(), id -> new ArrayList<>()).add(line.getMedicineId());
+            }
+            for (OrderFact order : orderFactRepository.findAllById(orderIds)) {
+                record(order.getOrderDay(), order.getUserId(), medicinesByOrder.getOrDefault(order.getOrderId(), List.of()));
+            }
+            orders += orderIds.size();
+            afterId = orderIds.get(orderIds.size() - 1);
+        }
+        flush();
+        if (orders > 0) {
+            log.info("👥 Backfilled customer sketches from {} orders", orders);
+        }
+    }
+
+    private void add(SketchKey key, long userId) {
+        HyperLogLog sketch = dirty.get(key);
+        if (sketch == null) {
+            sketch = load(key);
+            if (sketch == null) {
+                sketch = new HyperLogLog(precision);
+            }
+            cache.put(key, sketch);
+            dirty.put(key, sketch);
+        }
+        sketch.add(userId);
+    }
+
+    private HyperLogLog cached(SketchKey key) {
+        HyperLogLog sketch = dirty.get(key);
+        return sketch != null ? sketch : cache.get(key);
+    }
+
+    private HyperLogLog load(SketchKey key) {
+        HyperLogLog sketch = cached(key);
+        if (sketch != null) {
+            return sketch;
+        }
+        sketch = customerSketchRepository.findByDayAndCategory(key.day(), key.category())
+                .map(this::decode)
+                .orElse(null);
+        if (sketch != null) {
+            cache.put(key, sketch);
+        }
+        return sketch;
+    }
+
+    private HyperLogLog decode(CustomerSketch row) {
+        return HyperLogLog.fromCompressedBytes(row.getPrecision(), row.getRegisters());
+    }
+}
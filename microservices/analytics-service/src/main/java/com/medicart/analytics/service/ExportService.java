@@ -0,0 +1,175 @@
+package com.medicart.analytics.service;
+
+import com.medicart.analytics.entity.BatchFact;
+import com.medicart.analytics.entity.MedicineDailySales;
+import com.medicart.analytics.report.CsvWriter;
+import com.medicart.analytics.report.ExportLimitExceededException;
+import com.medicart.analytics.report.OrderLineExportRow;
+import com.medicart.analytics.repository.BatchFactRepository;
+import com.medicart.analytics.repository.MedicineDailySalesRepository;
+import com.medicart.analytics.repository.OrderLineFactRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CSV exports written straight to the response stream.
+ *
+ * Rows are read in keyset pages and each page is written and flushed before the
+ * next is fetched, so memory stays at one page whatever the export size and a slow
+ * client simply slows the reads down. A client disconnect surfaces as an
+ * IOException on write, which stops the export before the next query.
+ */
+@Service
+public class ExportService {
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private final OrderLineFactRepository orderLineFactRepository;
+    private final MedicineDailySalesRepository medicineDailySalesRepository;
+    private final BatchFactRepository batchFactRepository;
+    private final AnalyticsQueryService queryService;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int pageSize;
+
+    public ExportService(OrderLineFactRepository orderLineFactRepository,
+                         MedicineDailySalesRepository medicineDailySalesRepository,
+                         BatchFactRepository batchFactRepository,
+                         AnalyticsQueryService queryService,
+                         @Value("${analytics.export.max-concurrent:4}") int maxConcurrent,
+                         @Value("${analytics.export.page-size:2000}") int pageSize) {
+        this.orderLineFactRepository = orderLineFactRepository;
+        this.medicineDailySalesRepository = medicineDailySalesRepository;
+        this.batchFactRepository = batchFactRepository;
+        this.queryService = queryService;
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.pageSize = pageSize;
+    }
+
+    @FunctionalInterface
+    public interface RowSource {
+        long writeTo(CsvWriter csv) throws IOException;
+    }
+
+    /**
+     * Wrap an export as a response body. A concurrency permit is taken immediately
+     * and released when the stream finishes, fails or is abandoned by the client.
+     *
+     * @throws ExportLimitExceededException if too many exports are already running
+     */
+    public StreamingResponseBody stream(String name, boolean gzip, RowSource source) {
+        if (!permits.tryAcquire()) {
+            throw new ExportLimitExceededException(maxConcurrent, 10);
+        }
+        return out -> {
+            long start = System.currentTimeMillis();
+            long rows = 0;
+            try {
+                OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+                CsvWriter csv = new CsvWriter(target);
+                rows = source.writeTo(csv);
+                csv.flush();
+                if (target instanceof GZIPOutputStream gzipStream) {
+                    gzipStream.finish();
+                }
+                log.info("📤 Export {} finished: {} rows in {} ms", name, rows, System.currentTimeMillis() - start);
+            } catch (IOException e) {
+                log.info("📤 Export {} aborted after {} ms: {}", name, System.currentTimeMillis() - start, e.getMessage());
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    public long writeOrderLines(LocalDate from, LocalDate to, CsvWriter csv) throws IOException {
+        csv.writeRow("order_id", "order_day", "medicine_id", "medicine_name", "quantity", "amount", "order_status");
+        LocalDate day = from.minusDays(1);
+        long lineId = Long.MAX_VALUE;
+        long rows = 0;
+        while (true) {
+            checkCancelled();
+            List<OrderLineExportRow> page = orderLineFactRepository.findExportPageAfter(
+                    day, lineId, to, PageRequest.of(0, pageSize));
+            for (OrderLineExportRow row : page) {
+                csv.writeRow(row.orderId(), row.orderDay(), row.medicineId(),
+                        queryService.medicineName(row.medicineId()), row.quantity(), money(row.amount()), row.status());
+            }
+            rows += page.size();
+            csv.flush();
+            if (page.size() < pageSize) {
+                return rows;
+            }
+            OrderLineExportRow last = page.get(page.size() - 1);
+            day = last.orderDay();
+            lineId = last.lineId();
+        }
+    }
+
+    public long writeMedicineSales(LocalDate from, LocalDate to, CsvWriter csv) throws IOException {
+        csv.writeRow("day", "medicine_id", "medicine_name", "quantity", "amount");
+        LocalDate day = from.minusDays(1);
+        long medicineId = Long.MAX_VALUE;
+        long rows = 0;
+        while (true) {
+            checkCancelled();
+            List<MedicineDailySales> page = medicineDailySalesRepository.findPageAfter(
+                    day, medicineId, to, PageRequest.of(0, pageSize));
+            for (MedicineDailySales row : page) {
+                csv.writeRow(row.getDay(), row.getMedicineId(), queryService.medicineName(row.getMedicineId()),
+                        row.getQuantity(), money(row.getAmount()));
+            }
+            rows += page.size();
+            csv.flush();
+            if (page.size() < pageSize) {
+                return rows;
+            }
+            MedicineDailySales last = page.get(page.size() - 1);
+            day = last.getDay();
+            medicineId = last.getMedicineId();
+        }
+    }
+
+    public long writeInventory(CsvWriter csv) throws IOException {
+        csv.writeRow("batch_id", "medicine_id", "medicine_name", "expiry_date", "qty_available");
+        long afterId = 0L;
+        long rows = 0;
+        while (true) {
+            checkCancelled();
+            List<BatchFact> page = batchFactRepository.findByBatchIdGreaterThanOrderByBatchIdAsc(
+                    afterId, PageRequest.of(0, pageSize));
+            for (BatchFact batch : page) {
+                csv.writeRow(batch.getBatchId(), batch.getMedicineId(), batch.getMedicineName(),
+                        batch.getExpiryDate(), batch.getQtyAvailable());
+            }
+            rows += page.size();
+            csv.flush();
+            if (page.size() < pageSize) {
+                return rows;
+            }
+            afterId = page.get(page.size() - 1).getBatchId();
+        }
+    }
+
+    private static void checkCancelled() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Export cancelled");
+        }
+    }
+
+    private static String money(Double amount) {
+        return amount != null ? String.format(Locale.ROOT, "%.2f", amount) : null;
+    }
+}
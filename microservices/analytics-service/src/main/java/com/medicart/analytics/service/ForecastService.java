@@ -0,0 +1,228 @@
+package com.medicart.analytics.service;
+
+import com.medicart.analytics.entity.BatchFact;
+import com.medicart.analytics.entity.MedicineDailySales;
+import com.medicart.analytics.forecast.DemandForecast;
+import com.medicart.analytics.forecast.HoltWintersModel;
+import com.medicart.analytics.forecast.ReorderSuggestion;
+import com.medicart.analytics.repository.BatchFactRepository;
+import com.medicart.analytics.repository.MedicineDailySalesRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Per-medicine demand forecasting and reorder suggestions.
+ *
+ * The {@link HoltWintersModel} is fed one closed day at a time from the
+ * medicine_daily_sales rollup. On startup it replays history once; afterwards each
+ * ingestion cycle closes only the days that have ended since, so an update costs
+ * O(SKUs) per day rather than a refit. Sales that arrive for a day after it was
+ * closed are not re-applied to the model.
+ */
+@Service
+public class ForecastService {
+    private static final Logger log = LoggerFactory.getLogger(ForecastService.class);
+
+    private final MedicineDailySalesRepository medicineDailySalesRepository;
+    private final BatchFactRepository batchFactRepository;
+    private final AnalyticsQueryService queryService;
+    private final HoltWintersModel model;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int leadTimeDays;
+    private final int reviewPeriodDays;
+    private final double serviceLevelZ;
+    private double[] demandBuffer = new double[0];
+
+    public ForecastService(MedicineDailySalesRepository medicineDailySalesRepository,
+                           BatchFactRepository batchFactRepository,
+                           AnalyticsQueryService queryService,
+                           @Value("${analytics.forecast.alpha:0.3}") double alpha,
+                           @Value("${analytics.forecast.beta:0.05}") double beta,
+                           @Value("${analytics.forecast.gamma:0.2}") double gamma,
+                           @Value("${analytics.forecast.error-smoothing:0.3}") double errorSmoothing,
+                           @Value("${analytics.forecast.expected-skus:1024}") int expectedSkus,
+                           @Value("${analytics.forecast.lead-time-days:7}") int leadTimeDays,
+                           @Value("${analytics.forecast.review-period-days:7}") int reviewPeriodDays,
+                           @Value("${analytics.forecast.service-level-z:1.65}") double serviceLevelZ) {
+        this.medicineDailySalesRepository = medicineDailySalesRepository;
+        this.batchFactRepository = batchFactRepository;
+        this.queryService = queryService;
+        this.model = new HoltWintersModel(alpha, beta, gamma, errorSmoothing, expectedSkus);
+        this.leadTimeDays = leadTimeDays;
+        this.reviewPeriodDays = reviewPeriodDays;
+        this.serviceLevelZ = serviceLevelZ;
+    }
+
+    /**
+     * Feed every fully elapsed day not yet seen by the model. Called by the ingestion
+     * cycle after the feeds have been drained.
+     */
+    public void catchUp() {
+        LocalDate lastComplete = LocalDate.now().minusDays(1);
+        lock.writeLock().lock();
+        try {
+            LocalDate day;
+            if (model.getLastClosedDay() == Long.MIN_VALUE) {
+                Optional<LocalDate> first = medicineDailySalesRepository.findFirstDay();
+                if (first.isEmpty()) {
+                    return;
+                }
+                day = first.get();
+            } else {
+                day = LocalDate.ofEpochDay(model.getLastClosedDay() + 1);
+            }
+            int closed = 0;
+            for (; !day.isAfter(lastComplete); day = day.plusDays(1)) {
+                closeDay(day);
+                closed++;
+            }
+            if (closed > 0) {
+                log.info("📈 Demand models advanced {} day(s) to {} for {} medicines", closed, lastComplete, model.size());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public DemandForecast getForecast(long medicineId, int days) {
+        lock.readLock().lock();
+        try {
+            int slot = model.slotOf(medicineId);
+            double[] daily = model.forecast(slot, days);
+            boolean known = slot >= 0;
+            return new DemandForecast(
+                    medicineId,
+                    queryService.medicineName(medicineId),
+                    lastClosedDate(),
+                    Arrays.stream(daily).boxed().toList(),
+                    Arrays.stream(daily).sum(),
+                    known ? model.level(slot) : 0.0,
+                    known ? model.trend(slot) : 0.0,
+                    known ? Arrays.stream(model.seasonality(slot)).boxed().toList() : List.of(),
+                    known ? model.observations(slot) : 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ReorderSuggestion getReorderSuggestion(long medicineId) {
+        return suggest(medicineId, batchFactRepository.findByMedicineId(medicineId));
+    }
+
+    /**
+     * Suggestions for every known medicine that needs reordering, largest first.
+     */
+    public List<ReorderSuggestion> getReorderSuggestions(int limit) {
+        Map<Long, List<BatchFact>> batchesByMedicine = batchFactRepository.findAll().stream()
+                .collect(Collectors.groupingBy(BatchFact::getMedicineId));
+        List<Long> medicineIds = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < model.size(); slot++) {
+                medicineIds.add(model.skuAt(slot));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return medicineIds.stream()
+                .map(id -> suggest(id, batchesByMedicine.getOrDefault(id, List.of())))
+                .filter(suggestion -> suggestion.suggestedQuantity() > 0)
+                .sorted(Comparator.comparingLong(ReorderSuggestion::suggestedQuantity).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private void closeDay(LocalDate day) {
+        List<MedicineDailySales> sales = medicineDailySalesRepository.findByDay(day);
+        int[] touched = new int[sales.size()];
+        int count = 0;
+        for (MedicineDailySales row : sales) {
+            int slot = model.slotFor(row.getMedicineId());
+            if (slot >= demandBuffer.length) {
+                demandBuffer = Arrays.copyOf(demandBuffer, Math.max(slot + 1, demandBuffer.length * 2));
+            }
+            demandBuffer[slot] += Math.max(0L, row.getQuantity());
+            touched[count++] = slot;
+        }
+        model.closeDay(day.toEpochDay(), demandBuffer);
+        for (int i = 0; i < count; i++) {
+            demandBuffer[touched[i]] = 0.0;
+        }
+    }
+
+    /**
+     * Demand over lead time + review period plus safety stock, minus the stock that
+     * will sell before it expires. Batches are consumed first-expiry-first-out against
+     * the cumulative forecast; whatever a batch cannot sell before its expiry date is
+     * counted as expected waste rather than available stock.
+     */
+    private ReorderSuggestion suggest(long medicineId, List<BatchFact> batches) {
+        int horizon = leadTimeDays + reviewPeriodDays;
+        double[] daily;
+        double errorVariance;
+        LocalDate asOf;
+        lock.readLock().lock();
+        try {
+            int slot = model.slotOf(medicineId);
+            asOf = lastClosedDate();
+            int longestShelfLife = batches.stream()
+                    .filter(b -> b.getExpiryDate() != null)
+                    .mapToInt(b -> (int) Math.max(0, ChronoUnit.DAYS.between(asOf, b.getExpiryDate())))
+                    .max().orElse(0);
+            daily = model.forecast(slot, Math.max(horizon, Math.min(longestShelfLife, 3650)));
+            errorVariance = slot >= 0 ? model.errorVariance(slot) : 0.0;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        double[] cumulative = new double[daily.length + 1];
+        for (int i = 0; i < daily.length; i++) {
+            cumulative[i + 1] = cumulative[i] + daily[i];
+        }
+        LocalDate today = LocalDate.now();
+        List<BatchFact> usable = batches.stream()
+                .filter(b -> b.getExpiryDate() != null && b.getExpiryDate().isAfter(today) && b.getQtyAvailable() > 0)
+                .sorted(Comparator.comparing(BatchFact::getExpiryDate))
+                .toList();
+        long onHand = 0;
+        double available = 0.0;
+        double waste = 0.0;
+        double allocated = 0.0;
+        for (BatchFact batch : usable) {
+            int qty = batch.getQtyAvailable();
+            onHand += qty;
+            // Sellable days: from the day after asOf up to the day before expiry
+            long daysToExpiry = ChronoUnit.DAYS.between(asOf, batch.getExpiryDate());
+            int sellDays = (int) Math.min(daily.length, Math.max(0, daysToExpiry - 1));
+            double sold = Math.min(qty, Math.max(0.0, cumulative[sellDays] - allocated));
+            allocated += sold;
+            waste += qty - sold;
+            // A batch that outlives the horizon covers it in full; a short-dated one only by what it sells
+            available += daysToExpiry > horizon ? qty : sold;
+        }
+
+        double forecastDemand = cumulative[horizon];
+        double safetyStock = serviceLevelZ * Math.sqrt(errorVariance * horizon);
+        long suggested = (long) Math.ceil(Math.max(0.0, forecastDemand + safetyStock - available));
+        return new ReorderSuggestion(medicineId, queryService.medicineName(medicineId), horizon,
+                forecastDemand, safetyStock, onHand, available, waste, suggested);
+    }
+
+    private LocalDate lastClosedDate() {
+        long day = model.getLastClosedDay();
+        return day == Long.MIN_VALUE ? LocalDate.now().minusDays(1) : LocalDate.ofEpochDay(day);
+    }
+}
@@ -0,0 +1,137 @@
+package com.medicart.analytics.service;
+
+import com.medicart.analytics.entity.MedicineDailySales;
+import com.medicart.analytics.repository.MedicineDailySalesRepository;
+import com.medicart.analytics.sketch.SpaceSaving;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Approximate best sellers by units sold, from one {@link SpaceSaving} summary per
+ * day. Window answers (today / last 7 / last 30 days) merge at most 30 summaries of
+ * fixed capacity and are cached until the next update, so they cost the same no
+ * matter how many order lines were sold.
+ *
+ * Memory is bounded by {@code retention-days x capacity} counters. Counts only grow:
+ * a cancelled order's units stay counted, which the sketch cannot retract.
+ */
+@Service
+public class HeavyHitterService {
+    private static final Logger log = LoggerFactory.getLogger(HeavyHitterService.class);
+
+    public enum Window {
+        TODAY(1), WEEK(7), MONTH(30);
+
+        final int days;
+
+        Window(int days) {
+            this.days = days;
+        }
+
+        public static Window fromPeriod(String period) {
+            if (period == null) {
+                return MONTH;
+            }
+            return switch (period.toLowerCase()) {
+                case "daily", "today" -> TODAY;
+                case "weekly", "week" -> WEEK;
+                case "monthly", "month" -> MONTH;
+                default -> null;
+            };
+        }
+    }
+
+    private record CachedWindow(long version, long lastDay, SpaceSaving sketch) {
+    }
+
+    private final MedicineDailySalesRepository medicineDailySalesRepository;
+    private final int capacity;
+    private final int retentionDays;
+    private final NavigableMap<Long, SpaceSaving> dayBuckets = new TreeMap<>();
+    private final Map<Window, CachedWindow> windowCache = new HashMap<>();
+    private long version;
+
+    public HeavyHitterService(MedicineDailySalesRepository medicineDailySalesRepository,
+                              @Value("${analytics.heavy-hitters.capacity:200}") int capacity,
+                              @Value("${analytics.heavy-hitters.retention-days:35}") int retentionDays) {
+        this.medicineDailySalesRepository = medicineDailySalesRepository;
+        this.capacity = capacity;
+        this.retentionDays = Math.max(retentionDays, Window.MONTH.days);
+    }
+
+    /** Seed the day buckets from the daily sales rollup; run once before any order is offered */
+    public void load() {
+        synchronized (this) {
+            dayBuckets.clear();
+            version++;
+        }
+        LocalDate today = LocalDate.now();
+        int rows = 0;
+        for (int back = retentionDays - 1; back >= 0; back--) {
+            LocalDate day = today.minusDays(back);
+            for (MedicineDailySales sales : medicineDailySalesRepository.findByDay(day)) {
+                offer(day, sales.getMedicineId(), sales.getQuantity());
+                rows++;
+            }
+        }
+        log.info("📊 Heavy-hitter sketches seeded from {} daily sales rows", rows);
+    }
+
+    public synchronized void offer(LocalDate day, long medicineId, long quantity) {
+        long epochDay = day.toEpochDay();
+        long oldest = LocalDate.now().toEpochDay() - retentionDays + 1;
+        if (epochDay < oldest || quantity <= 0) {
+            return;
+        }
+        dayBuckets.computeIfAbsent(epochDay, d -> new SpaceSaving(capacity)).offer(medicineId, quantity);
+        dayBuckets.headMap(oldest, false).clear();
+        version++;
+    }
+
+    public synchronized List<SpaceSaving.Counter> top(Window window, int n) {
+        return windowSketch(window).top(n);
+    }
+
+    public synchronized long maxError(Window window) {
+        return windowSketch(window).maxError();
+    }
+
+    public synchronized long totalUnits(Window window) {
+        return windowSketch(window).getTotalWeight();
+    }
+
+    /** Copy of one day's summary, for merging on another replica */
+    public synchronized SpaceSaving daySketch(LocalDate day) {
+        SpaceSaving bucket = dayBuckets.get(day.toEpochDay());
+        return bucket != null ? bucket.copy() : new SpaceSaving(capacity);
+    }
+
+    /** Fold a summary produced elsewhere (e.g. another replica) into a day bucket */
+    public synchronized void mergeDay(LocalDate day, SpaceSaving sketch) {
+        dayBuckets.computeIfAbsent(day.toEpochDay(), d -> new SpaceSaving(capacity)).merge(sketch);
+        version++;
+    }
+
+    private SpaceSaving windowSketch(Window window) {
+        long today = LocalDate.now().toEpochDay();
+        CachedWindow cached = windowCache.get(window);
+        if (cached != null && cached.version() == version && cached.lastDay() == today) {
+            return cached.sketch();
+        }
+        SpaceSaving merged = new SpaceSaving(capacity);
+        for (SpaceSaving bucket : dayBuckets.subMap(today - window.days + 1, true, today, true).values()) {
+            merged.merge(bucket);
+        }
+        windowCache.put(window, new CachedWindow(version, today, merged));
+        return merged;
+    }
+}
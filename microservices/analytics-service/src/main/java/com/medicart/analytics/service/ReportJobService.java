@@ -0,0 +1,207 @@
+package com.medicart.analytics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medicart.analytics.entity.ReportJob;
+import com.medicart.analytics.report.CsvWriter;
+import com.medicart.analytics.report.ReportContentStore;
+import com.medicart.analytics.report.ReportQueueFullException;
+import com.medicart.analytics.report.ReportType;
+import com.medicart.analytics.repository.ReportJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs report generation as background jobs.
+ *
+ * A request only persists a QUEUED job and hands it to a fixed-size pool with a
+ * bounded queue, so no request thread ever waits on report work. Output is written
+ * to the {@link ReportContentStore} and streamed from there when downloaded.
+ */
+@Service
+public class ReportJobService {
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private final ReportJobRepository reportJobRepository;
+    private final ReportContentStore contentStore;
+    private final AnalyticsQueryService queryService;
+    private final ExportService exportService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final int retentionDays;
+
+    public ReportJobService(ReportJobRepository reportJobRepository,
+                            ReportContentStore contentStore,
+                            AnalyticsQueryService queryService,
+                            ExportService exportService,
+                            ObjectMapper objectMapper,
+                            @Value("${analytics.reports.workers:2}") int workers,
+                            @Value("${analytics.reports.queue-capacity:50}") int queueCapacity,
+                            @Value("${analytics.reports.retention-days:30}") int retentionDays) {
+        this.reportJobRepository = reportJobRepository;
+        this.contentStore = contentStore;
+        this.queryService = queryService;
+        this.exportService = exportService;
+        this.objectMapper = objectMapper;
+        this.retentionDays = retentionDays;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Persist a QUEUED job and schedule it.
+     *
+     * @throws ReportQueueFullException if the executor queue is full
+     */
+    public ReportJob submit(ReportType type, String period, String requestedBy) {
+        ReportJob job = reportJobRepository.save(ReportJob.builder()
+                .type(type.name())
+                .period(period)
+                .status(STATUS_QUEUED)
+                .requestedBy(requestedBy)
+                .createdAt(LocalDateTime.now())
+                .build());
+        try {
+            executor.execute(() -> run(job.getId()));
+        } catch (RejectedExecutionException e) {
+            reportJobRepository.delete(job);
+            log.warn("⚠️ Report queue full - rejected {} report", type);
+            throw new ReportQueueFullException(30);
+        }
+        log.info("🧾 Queued {} report - jobId: {}", type, job.getId());
+        return job;
+    }
+
+    public Optional<ReportJob> getJob(Long id) {
+        return reportJobRepository.findById(id);
+    }
+
+    public Page<ReportJob> getJobs(int page, int size) {
+        return reportJobRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(page, size));
+    }
+
+    public boolean deleteJob(Long id) {
+        Optional<ReportJob> job = reportJobRepository.findById(id);
+        if (job.isEmpty()) {
+            return false;
+        }
+        if (job.get().getContentLocation() != null) {
+            contentStore.delete(job.get().getContentLocation());
+        }
+        reportJobRepository.delete(job.get());
+        return true;
+    }
+
+    /**
+     * Jobs that were queued or running when the service last stopped will never finish.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        List<ReportJob> interrupted = reportJobRepository.findByStatusIn(List.of(STATUS_QUEUED, STATUS_RUNNING));
+        for (ReportJob job : interrupted) {
+            job.setStatus(STATUS_FAILED);
+            job.setErrorMessage("Interrupted by service restart");
+            job.setCompletedAt(LocalDateTime.now());
+        }
+        reportJobRepository.saveAll(interrupted);
+        if (!interrupted.isEmpty()) {
+            log.warn("⚠️ Marked {} interrupted report jobs as FAILED", interrupted.size());
+        }
+    }
+
+    @Scheduled(cron = "${analytics.reports.purge-cron:0 30 3 * * *}")
+    public void purgeExpiredReports() {
+        List<ReportJob> expired = reportJobRepository.findByCreatedAtBefore(LocalDateTime.now().minusDays(retentionDays));
+        for (ReportJob job : expired) {
+            if (job.getContentLocation() != null) {
+                contentStore.delete(job.getContentLocation());
+            }
+        }
+        reportJobRepository.deleteAll(expired);
+        if (!expired.isEmpty()) {
+            log.info("🧹 Purged {} reports older than {} days", expired.size(), retentionDays);
+        }
+    }
+
+    private void run(Long jobId) {
+        Optional<ReportJob> found = reportJobRepository.findById(jobId);
+        if (found.isEmpty()) {
+            return;
+        }
+        ReportJob job = found.get();
+        ReportType type = ReportType.valueOf(job.getType());
+        job.setStatus(STATUS_RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        reportJobRepository.save(job);
+
+        long start = System.nanoTime();
+        try {
+            String fileName = "report-" + job.getId() + "." + type.getExtension();
+            String location = contentStore.write(fileName, out -> generate(type, job.getPeriod(), out));
+            job.setContentLocation(location);
+            job.setContentType(type.getContentType());
+            job.setContentLength(contentStore.size(location));
+            job.setStatus(STATUS_COMPLETED);
+        } catch (Exception e) {
+            log.error("❌ Report job {} failed: {}", jobId, e.getMessage(), e);
+            job.setStatus(STATUS_FAILED);
+            job.setErrorMessage(e.getMessage());
+        }
+        job.setCompletedAt(LocalDateTime.now());
+        job.setDurationMs(Duration.ofNanos(System.nanoTime() - start).toMillis());
+        reportJobRepository.save(job);
+        log.info("🧾 Report job {} {} in {} ms", jobId, job.getStatus(), job.getDurationMs());
+    }
+
+    private void generate(ReportType type, String period, OutputStream out) throws IOException {
+        switch (type) {
+            case SALES -> objectMapper.writeValue(out, queryService.getSalesReport(period, null));
+            case INVENTORY -> objectMapper.writeValue(out, queryService.getInventoryReport());
+            case DASHBOARD -> objectMapper.writeValue(out, queryService.getDashboard());
+            case MEDICINE_SALES -> {
+                CsvWriter csv = new CsvWriter(out);
+                LocalDate to = LocalDate.now();
+                exportService.writeMedicineSales(queryService.periodStart(period, to), to, csv);
+                csv.flush();
+            }
+        }
+    }
+}
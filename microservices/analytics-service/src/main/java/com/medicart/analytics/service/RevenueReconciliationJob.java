@@ -0,0 +1,77 @@
+package com.medicart.analytics.service;
+
+import com.medicart.analytics.client.PaymentFeedClient;
+import com.medicart.common.dto.PaymentDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Nightly check of recent revenue days against payment-service. Each day's payments
+ * are re-read from the source and upserted (catching anything the feed missed), then
+ * the day is re-derived and any drift patched.
+ *
+ * Runs on the scheduler thread like ingestion, so the two never interleave; manual
+ * requests are queued onto the same scheduler for that reason.
+ */
+@Component
+public class RevenueReconciliationJob {
+    private static final Logger log = LoggerFactory.getLogger(RevenueReconciliationJob.class);
+
+    private final PaymentFeedClient paymentFeedClient;
+    private final AnalyticsRollupService rollupService;
+    private final RevenueRollupService revenueRollupService;
+    private final TaskScheduler taskScheduler;
+    private final int lookbackDays;
+
+    public RevenueReconciliationJob(PaymentFeedClient paymentFeedClient,
+                                    AnalyticsRollupService rollupService,
+                                    RevenueRollupService revenueRollupService,
+                                    TaskScheduler taskScheduler,
+                                    @Value("${analytics.revenue.reconcile-days:7}") int lookbackDays) {
+        this.paymentFeedClient = paymentFeedClient;
+        this.rollupService = rollupService;
+        this.revenueRollupService = revenueRollupService;
+        this.taskScheduler = taskScheduler;
+        this.lookbackDays = lookbackDays;
+    }
+
+    @Scheduled(cron = "${analytics.revenue.reconcile-cron:0 15 2 * * *}")
+    public void reconcileRecentDays() {
+        LocalDate today = LocalDate.now();
+        int patched = 0;
+        for (int i = lookbackDays; i >= 0; i--) {
+            patched += reconcileDay(today.minusDays(i));
+        }
+        log.info("💰 Revenue reconciliation checked {} days, patched {} rows", lookbackDays + 1, patched);
+    }
+
+    /** Queue a one-off reconciliation of a day behind whatever the scheduler is running */
+    public void requestReconcile(LocalDate day) {
+        taskScheduler.schedule(() -> reconcileDay(day), Instant.now());
+    }
+
+    private int reconcileDay(LocalDate day) {
+        try {
+            List<PaymentDTO> payments = paymentFeedClient.getPaymentsForDay(day.toString());
+            if (!payments.isEmpty()) {
+                rollupService.upsertPayments(payments);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Payments for {} unavailable, reconciling from local facts: {}", day, e.getMessage());
+        }
+        try {
+            return revenueRollupService.reconcile(day);
+        } catch (Exception e) {
+            log.error("❌ Revenue reconciliation failed for {}: {}", day, e.getMessage());
+            return 0;
+        }
+    }
+}
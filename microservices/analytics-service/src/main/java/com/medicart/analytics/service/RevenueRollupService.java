@@ -0,0 +1,236 @@
+package com.medicart.analytics.service;
+
+import com.medicart.analytics.entity.DailySalesRollup;
+import com.medicart.analytics.entity.OrderLineFact;
+import com.medicart.analytics.entity.PaymentFact;
+import com.medicart.analytics.entity.RevenueRollup;
+import com.medicart.analytics.entity.RevenueTotal;
+import com.medicart.analytics.repository.DailySalesRollupRepository;
+import com.medicart.analytics.repository.OrderLineFactRepository;
+import com.medicart.analytics.repository.PaymentFactRepository;
+import com.medicart.analytics.repository.RevenueRollupRepository;
+import com.medicart.analytics.repository.RevenueTotalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Revenue by day and category, kept current by deltas: a payment that succeeds adds
+ * its amount on the day it was taken, a refund adds to the refunded amount on the day
+ * it happened. Closed days are never recomputed by the ingest path; late payments
+ * simply patch the day they belong to. {@link #reconcile(LocalDate)} re-derives a day
+ * from the payment facts and patches whatever drift it finds.
+ *
+ * The day-level {@link DailySalesRollup#getRevenue()} and the per-category all-time
+ * {@link RevenueTotal} rows move with every delta, so all three always agree.
+ */
+@Service
+@Transactional
+public class RevenueRollupService {
+    private static final Logger log = LoggerFactory.getLogger(RevenueRollupService.class);
+
+    public static final String UNCATEGORIZED = "Uncategorized";
+    private static final double DRIFT_TOLERANCE = 0.005;
+
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final RevenueTotalRepository revenueTotalRepository;
+    private final DailySalesRollupRepository dailySalesRollupRepository;
+    private final PaymentFactRepository paymentFactRepository;
+    private final OrderLineFactRepository orderLineFactRepository;
+    private final CatalogueDimensions catalogueDimensions;
+
+    public RevenueRollupService(RevenueRollupRepository revenueRollupRepository,
+                                RevenueTotalRepository revenueTotalRepository,
+                                DailySalesRollupRepository dailySalesRollupRepository,
+                                PaymentFactRepository paymentFactRepository,
+                                OrderLineFactRepository orderLineFactRepository,
+                                CatalogueDimensions catalogueDimensions) {
+        this.revenueRollupRepository = revenueRollupRepository;
+        this.revenueTotalRepository = revenueTotalRepository;
+        this.dailySalesRollupRepository = dailySalesRollupRepository;
+        this.paymentFactRepository = paymentFactRepository;
+        this.orderLineFactRepository = orderLineFactRepository;
+        this.catalogueDimensions = catalogueDimensions;
+    }
+
+    /**
+     * Book the difference between what a payment contributed before ({@code previous},
+     * null if new) and what it contributes now. An unchanged capture or refund books
+     * nothing, so replayed pages are free.
+     */
+    public void applyChange(PaymentFact previous, PaymentFact current) {
+        if (previous == null || !Objects.equals(previous.getPaymentDay(), current.getPaymentDay())
+                || captured(previous) != captured(current)) {
+            if (previous != null) {
+                book(previous.getOrderId(), previous.getPaymentDay(), -captured(previous), false);
+            }
+            book(current.getOrderId(), current.getPaymentDay(), captured(current), false);
+        }
+        if (previous == null || !Objects.equals(previous.getRefundDay(), current.getRefundDay())
+                || refunded(previous) != refunded(current)) {
+            if (previous != null && previous.getRefundDay() != null) {
+                book(previous.getOrderId(), previous.getRefundDay(), -refunded(previous), true);
+            }
+            if (current.getRefundDay() != null) {
+                book(current.getOrderId(), current.getRefundDay(), refunded(current), true);
+            }
+        }
+    }
+
+    /**
+     * Re-derive one day from the payment facts and order lines and patch any category
+     * (and the day total) that has drifted. Returns the number of rows patched.
+     */
+    public int reconcile(LocalDate day) {
+        Map<String, double[]> expected = new TreeMap<>();
+        for (PaymentFact fact : paymentFactRepository.findByPaymentDay(day)) {
+            allocate(fact.getOrderId(), captured(fact)).forEach((category, share) ->
+                    expected.computeIfAbsent(category, c -> new double[2])[0] += share);
+        }
+        for (PaymentFact fact : paymentFactRepository.findByRefundDay(day)) {
+            allocate(fact.getOrderId(), refunded(fact)).forEach((category, share) ->
+                    expected.computeIfAbsent(category, c -> new double[2])[1] += share);
+        }
+        Map<String, RevenueRollup> actual = new HashMap<>();
+        for (RevenueRollup row : revenueRollupRepository.findByDay(day)) {
+            actual.put(row.getCategory(), row);
+        }
+
+        int patched = 0;
+        double expectedNet = 0.0;
+        TreeSet<String> categories = new TreeSet<>(expected.keySet());
+        categories.addAll(actual.keySet());
+        for (String category : categories) {
+            double[] want = expected.getOrDefault(category, new double[2]);
+            RevenueRollup have = actual.get(category);
+            double capturedDrift = want[0] - (have != null ? have.getCapturedAmount() : 0.0);
+            double refundedDrift = want[1] - (have != null ? have.getRefundedAmount() : 0.0);
+            expectedNet += want[0] - want[1];
+            if (Math.abs(capturedDrift) > DRIFT_TOLERANCE || Math.abs(refundedDrift) > DRIFT_TOLERANCE) {
+                log.warn("🩹 Revenue drift on {} in {}: captured {}, refunded {}",
+                        day, category, capturedDrift, refundedDrift);
+                book(day, category, capturedDrift, refundedDrift);
+                patched++;
+            }
+        }
+
+        // The day row may have drifted on its own, e.g. from before category rollups existed
+        DailySalesRollup dayRollup = dailySalesRollupRepository.findById(day).orElse(null);
+        double dayDrift = expectedNet - (dayRollup != null ? dayRollup.getRevenue() : 0.0);
+        if (Math.abs(dayDrift) > DRIFT_TOLERANCE) {
+            log.warn("🩹 Revenue drift on {} day total: {}", day, dayDrift);
+            addDayRevenue(day, dayDrift);
+            patched++;
+        }
+        return patched;
+    }
+
+    /**
+     * Rebuild every revenue rollup from the payment facts when some facts predate
+     * revenue rollups (their captured/refunded split is unknown). Runs once after upgrade.
+     */
+    public void rebuildIfLegacy(int pageSize) {
+        if (!paymentFactRepository.existsByCapturedAmountIsNull()) {
+            return;
+        }
+        revenueRollupRepository.deleteAllRows();
+        revenueTotalRepository.deleteAllRows();
+        dailySalesRollupRepository.resetRevenue();
+
+        long afterId = 0L;
+        int payments = 0;
+        while (true) {
+            List<PaymentFact> page = paymentFactRepository
+                    .findByPaymentIdGreaterThanOrderByPaymentIdAsc(afterId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            for (PaymentFact fact : page) {
+                if (fact.getCapturedAmount() == null) {
+                    boolean refunded = "REFUNDED".equals(fact.getStatus());
+                    boolean captured = refunded || "SUCCESS".equals(fact.getStatus());
+                    fact.setCapturedAmount(captured ? fact.getAmount() : 0.0);
+                    fact.setRefundedAmount(refunded ? fact.getAmount() : 0.0);
+                    // The refund time of old rows is unknown; book it against the payment day
+                    fact.setRefundDay(refunded ? fact.getPaymentDay() : null);
+                    fact.setRevenueContribution(fact.getCapturedAmount() - fact.getRefundedAmount());
+                    paymentFactRepository.save(fact);
+                }
+                applyChange(null, fact);
+            }
+            payments += page.size();
+            afterId = page.get(page.size() - 1).getPaymentId();
+        }
+        log.info("💰 Rebuilt revenue rollups from {} payments", payments);
+    }
+
+    /** Split an amount over the order's categories in proportion to line amounts */
+    private Map<String, Double> allocate(Long orderId, double amount) {
+        if (amount == 0.0) {
+            return Map.of();
+        }
+        List<OrderLineFact> lines = orderLineFactRepository.findByOrderId(orderId);
+        double linesTotal = 0.0;
+        for (OrderLineFact line : lines) {
+            linesTotal += line.getAmount();
+        }
+        if (linesTotal <= 0.0) {
+            return Map.of(UNCATEGORIZED, amount);
+        }
+        Map<String, Double> shares = new HashMap<>();
+        for (OrderLineFact line : lines) {
+            String category = catalogueDimensions.categoryOf(line.getMedicineId());
+            shares.merge(category != null ? category : UNCATEGORIZED, amount * line.getAmount() / linesTotal, Double::sum);
+        }
+        return shares;
+    }
+
+    private void book(Long orderId, LocalDate day, double amount, boolean refund) {
+        allocate(orderId, amount).forEach((category, share) ->
+                book(day, category, refund ? 0.0 : share, refund ? share : 0.0));
+    }
+
+    private void book(LocalDate day, String category, double captured, double refunded) {
+        RevenueRollup rollup = revenueRollupRepository.findByDayAndCategory(day, category)
+                .orElseGet(() -> RevenueRollup.builder().day(day).category(category).build());
+        rollup.setCapturedAmount(rollup.getCapturedAmount() + captured);
+        rollup.setRefundedAmount(rollup.getRefundedAmount() + refunded);
+        revenueRollupRepository.save(rollup);
+
+        RevenueTotal total = revenueTotalRepository.findById(category)
+                .orElseGet(() -> RevenueTotal.builder().category(category).build());
+        total.setCapturedAmount(total.getCapturedAmount() + captured);
+        total.setRefundedAmount(total.getRefundedAmount() + refunded);
+        revenueTotalRepository.save(total);
+
+        addDayRevenue(day, captured - refunded);
+    }
+
+    private void addDayRevenue(LocalDate day, double delta) {
+        DailySalesRollup rollup = dailySalesRollupRepository.findById(day)
+                .orElseGet(() -> DailySalesRollup.builder().day(day).build());
+        rollup.setRevenue(rollup.getRevenue() + delta);
+        dailySalesRollupRepository.save(rollup);
+    }
+
+    private static double captured(PaymentFact fact) {
+        if (fact.getCapturedAmount() != null) {
+            return fact.getCapturedAmount();
+        }
+        return fact.getRevenueContribution() != null ? fact.getRevenueContribution() : 0.0;
+    }
+
+    private static double refunded(PaymentFact fact) {
+        return fact.getRefundedAmount() != null ? fact.getRefundedAmount() : 0.0;
+    }
+}
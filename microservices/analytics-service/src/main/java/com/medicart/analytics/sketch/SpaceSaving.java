@@ -0,0 +1,200 @@
+package com.medicart.analytics.sketch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted Space-Saving heavy-hitter summary (Metwally et al.) with at most
+ * {@code capacity} counters kept in an indexed min-heap.
+ *
+ * Error bounds, with N the total weight offered: every reported count overestimates
+ * the true count by at most its recorded error, and that error is at most N / capacity.
+ * Any item whose true count exceeds N / capacity is guaranteed to be present.
+ *
+ * Summaries of the same capacity are mergeable (Agarwal et al.): the merged summary
+ * keeps the same N / capacity guarantee over the combined stream.
+ *
+ * Not thread-safe.
+ */
+public final class SpaceSaving {
+
+    public record Counter(long item, long count, long error) {
+        /** Lower bound on the true count */
+        public long guaranteed() {
+            return count - error;
+        }
+    }
+
+    private final int capacity;
+    private final long[] items;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<Long, Integer> heapIndex;
+    private int size;
+    private long totalWeight;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.items = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.heapIndex = new HashMap<>(capacity * 2);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getTotalWeight() {
+        return totalWeight;
+    }
+
+    /** Upper bound on the overestimate of any reported count */
+    public long maxError() {
+        return size < capacity ? 0 : counts[0];
+    }
+
+    public void offer(long item, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        totalWeight += weight;
+        Integer position = heapIndex.get(item);
+        if (position != null) {
+            counts[position] += weight;
+            siftDown(position);
+            return;
+        }
+        if (size < capacity) {
+            int slot = size++;
+            set(slot, item, weight, 0);
+            siftUp(slot);
+            return;
+        }
+        // Replace the minimum; the newcomer inherits its count as possible error
+        long minCount = counts[0];
+        heapIndex.remove(items[0]);
+        set(0, item, minCount + weight, minCount);
+        siftDown(0);
+    }
+
+    /**
+     * Merge another summary into this one. Items missing from one side are assumed to
+     * have up to that side's minimum count, which is added to their error.
+     */
+    public void merge(SpaceSaving other) {
+        long thisMin = maxError();
+        long otherMin = other.maxError();
+        Map<Long, long[]> combined = new HashMap<>((size + other.size) * 2);
+        for (int i = 0; i < size; i++) {
+            combined.put(items[i], new long[]{counts[i] + otherMin, errors[i] + otherMin});
+        }
+        for (int i = 0; i < other.size; i++) {
+            long[] existing = combined.get(other.items[i]);
+            if (existing != null) {
+                existing[0] += other.counts[i] - otherMin;
+                existing[1] += other.errors[i] - otherMin;
+            } else {
+                combined.put(other.items[i], new long[]{other.counts[i] + thisMin, other.errors[i] + thisMin});
+            }
+        }
+        long total = totalWeight + other.totalWeight;
+        List<Map.Entry<Long, long[]>> entries = new ArrayList<>(combined.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+
+        heapIndex.clear();
+        size = 0;
+        for (int i = 0; i < entries.size() && i < capacity; i++) {
+            Map.Entry<Long, long[]> entry = entries.get(i);
+            int slot = size++;
+            set(slot, entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+            siftUp(slot);
+        }
+        totalWeight = total;
+    }
+
+    public SpaceSaving copy() {
+        SpaceSaving copy = new SpaceSaving(capacity);
+        copy.merge(this);
+        return copy;
+    }
+
+    /** The {@code n} largest counters, largest first */
+    public List<Counter> top(int n) {
+        List<Counter> all = counters();
+        all.sort((a, b) -> Long.compare(b.count(), a.count()));
+        return all.size() > n ? new ArrayList<>(all.subList(0, n)) : all;
+    }
+
+    public List<Counter> counters() {
+        List<Counter> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new Counter(items[i], counts[i], errors[i]));
+        }
+        return result;
+    }
+
+    /** Rebuild a summary from its counters, e.g. one received from another replica */
+    public static SpaceSaving of(int capacity, long totalWeight, List<Counter> counters) {
+        SpaceSaving sketch = new SpaceSaving(capacity);
+        for (Counter counter : counters) {
+            if (sketch.size == capacity) {
+                break;
+            }
+            int slot = sketch.size++;
+            sketch.set(slot, counter.item(), counter.count(), counter.error());
+            sketch.siftUp(slot);
+        }
+        sketch.totalWeight = totalWeight;
+        return sketch;
+    }
+
+    private void set(int slot, long item, long count, long error) {
+        items[slot] = item;
+        counts[slot] = count;
+        errors[slot] = error;
+        heapIndex.put(item, slot);
+    }
+
+    private void swap(int a, int b) {
+        long item = items[a];
+        long count = counts[a];
+        long error = errors[a];
+        items[a] = items[b];
+        counts[a] = counts[b];
+        errors[a] = errors[b];
+        items[b] = item;
+        counts[b] = count;
+        errors[b] = error;
+        heapIndex.put(items[a], a);
+        heapIndex.put(items[b], b);
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (counts[parent] <= counts[slot]) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int left = 2 * slot + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && counts[left + 1] < counts[left] ? left + 1 : left;
+            if (counts[slot] <= counts[smallest]) {
+                return;
+            }
+            swap(slot, smallest);
+            slot = smallest;
+        }
+    }
+}
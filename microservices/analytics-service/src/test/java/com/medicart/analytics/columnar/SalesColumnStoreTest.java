@@ -0,0 +1,106 @@
+package com.medicart.analytics.columnar;
+
+import com.medicart.analytics.entity.OrderLineFact;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SalesColumnStoreTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    private final SalesColumnStore store = new SalesColumnStore(1024, 0);
+
+    @AfterEach
+    void shutDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void replacingAnOrderCountsOnlyItsLatestLines() {
+        store.updateCategories(Map.of(1L, "Analgesic", 2L, "Antibiotic"));
+        store.replaceOrder(10, List.of(line(10, FIRST_DAY, 1, 2, 20.0), line(10, FIRST_DAY, 2, 1, 15.0)));
+        store.replaceOrder(10, List.of(line(10, FIRST_DAY, 1, 3, 30.0)));
+        store.replaceOrder(11, List.of(line(11, FIRST_DAY.plusDays(1), 2, 4, 60.0)));
+        store.replaceOrder(12, List.of(line(12, FIRST_DAY, 2, 9, 90.0)));
+        store.replaceOrder(12, List.of());
+
+        SalesAggregate all = store.scan(FIRST_DAY, FIRST_DAY.plusDays(1), null);
+        assertThat(all.getLineCount()).isEqualTo(2);
+        assertThat(all.getQuantity()).isEqualTo(7);
+        assertThat(all.getAmount()).isEqualTo(90.0);
+        assertThat(store.getLiveRows()).isEqualTo(2);
+
+        SalesAggregate antibiotics = store.scan(FIRST_DAY, FIRST_DAY.plusDays(1), "Antibiotic");
+        assertThat(antibiotics.getQuantity()).isEqualTo(4);
+        assertThat(store.scan(FIRST_DAY, FIRST_DAY, "Antibiotic").getLineCount()).isZero();
+        assertThat(store.scan(FIRST_DAY, FIRST_DAY, "Vitamins").getLineCount()).isZero();
+    }
+
+    @Test
+    void recategorisesExistingRows() {
+        store.updateCategories(Map.of(1L, "Analgesic"));
+        store.replaceOrder(10, List.of(line(10, FIRST_DAY, 1, 2, 20.0)));
+
+        store.updateCategories(Map.of(1L, "Pain relief"));
+
+        assertThat(store.scan(FIRST_DAY, FIRST_DAY, "Pain relief").getQuantity()).isEqualTo(2);
+        assertThat(store.scan(FIRST_DAY, FIRST_DAY, "Analgesic").getQuantity()).isZero();
+    }
+
+    /**
+     * Enough orders to fill many chunks: one-month and whole-range scans match a plain
+     * loop over the same rows.
+     */
+    @Test
+    void scansMatchARowLoop() {
+        Random random = new Random(17);
+        List<OrderLineFact> rows = new ArrayList<>();
+        for (long orderId = 1; orderId <= 20_000; orderId++) {
+            LocalDate day = FIRST_DAY.plusDays(orderId * 365 / 20_001);
+            List<OrderLineFact> lines = new ArrayList<>();
+            for (int i = 0, n = 1 + random.nextInt(4); i < n; i++) {
+                lines.add(line(orderId, day, 1 + random.nextInt(500), 1 + random.nextInt(5), 1 + random.nextInt(100)));
+            }
+            store.replaceOrder(orderId, lines);
+            rows.addAll(lines);
+        }
+
+        for (int days : new int[]{30, 365}) {
+            LocalDate from = FIRST_DAY.plusDays(200);
+            LocalDate to = from.plusDays(days - 1);
+            long expectedQuantity = 0;
+            double expectedAmount = 0;
+            for (OrderLineFact row : rows) {
+                if (!row.getOrderDay().isBefore(from) && !row.getOrderDay().isAfter(to)) {
+                    expectedQuantity += row.getQuantity();
+                    expectedAmount += row.getAmount();
+                }
+            }
+
+            SalesAggregate aggregate = store.scan(from, to, null);
+
+            assertThat(aggregate.getQuantity()).as("%d-day quantity", days).isEqualTo(expectedQuantity);
+            assertThat(aggregate.getAmount()).as("%d-day amount", days)
+                    .isCloseTo(expectedAmount, within(1e-6 * expectedAmount));
+        }
+    }
+
+    private static OrderLineFact line(long orderId, LocalDate day, long medicineId, int quantity, double amount) {
+        return OrderLineFact.builder()
+                .orderId(orderId)
+                .orderDay(day)
+                .medicineId(medicineId)
+                .quantity(quantity)
+                .amount(amount)
+                .build();
+    }
+}
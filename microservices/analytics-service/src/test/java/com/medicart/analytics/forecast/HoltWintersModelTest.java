@@ -0,0 +1,102 @@
+package com.medicart.analytics.forecast;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HoltWintersModelTest {
+
+    private static final long START_DAY = 20_000;
+
+    @Test
+    void flatDemandForecastsTheSameLevel() {
+        HoltWintersModel model = model();
+        int slot = model.slotFor(101);
+        for (int day = 0; day < 70; day++) {
+            model.closeDay(START_DAY + day, demand(model, slot, 10.0));
+        }
+
+        for (double value : model.forecast(slot, 14)) {
+            assertThat(value).isCloseTo(10.0, within(0.1));
+        }
+        assertThat(model.errorVariance(slot)).isLessThan(0.01);
+    }
+
+    @Test
+    void learnsTheWeeklyPattern() {
+        HoltWintersModel model = model();
+        int slot = model.slotFor(202);
+        for (int day = 0; day < 20 * 7; day++) {
+            model.closeDay(START_DAY + day, demand(model, slot, weekly(START_DAY + day)));
+        }
+
+        double[] forecast = model.forecast(slot, 7);
+        for (int h = 1; h <= 7; h++) {
+            assertThat(forecast[h - 1]).as("day +%d", h).isCloseTo(weekly(START_DAY + 20 * 7 - 1 + h), within(1.0));
+        }
+    }
+
+    @Test
+    void followsATrend() {
+        HoltWintersModel model = model();
+        int slot = model.slotFor(303);
+        for (int day = 0; day < 100; day++) {
+            model.closeDay(START_DAY + day, demand(model, slot, 20.0 + 0.5 * day));
+        }
+
+        assertThat(model.trend(slot)).isCloseTo(0.5, within(0.1));
+        double[] forecast = model.forecast(slot, 10);
+        assertThat(forecast[9] - forecast[0]).isCloseTo(4.5, within(1.0));
+    }
+
+    @Test
+    void waitsForTheFirstSaleAndNeverForecastsBelowZero() {
+        HoltWintersModel model = model();
+        int slot = model.slotFor(404);
+        model.closeDay(START_DAY, demand(model, slot, 0.0));
+        model.closeDay(START_DAY + 1, demand(model, slot, 0.0));
+
+        assertThat(model.observations(slot)).isZero();
+        assertThat(model.forecast(slot, 3)).containsOnly(0.0);
+
+        for (int day = 2; day < 40; day++) {
+            model.closeDay(START_DAY + day, demand(model, slot, Math.max(0.0, 40.0 - 2 * day)));
+        }
+        for (double value : model.forecast(slot, 30)) {
+            assertThat(value).isGreaterThanOrEqualTo(0.0);
+        }
+        assertThat(model.forecast(-1, 3)).containsOnly(0.0);
+    }
+
+    @Test
+    void keepsSlotsWhenGrowingPastTheExpectedSize() {
+        HoltWintersModel model = new HoltWintersModel(0.3, 0.05, 0.3, 0.1, 4);
+        for (long sku = 1; sku <= 1_000; sku++) {
+            assertThat(model.slotFor(sku * 7919)).isEqualTo(sku - 1);
+        }
+
+        assertThat(model.size()).isEqualTo(1_000);
+        for (long sku = 1; sku <= 1_000; sku++) {
+            int slot = model.slotOf(sku * 7919);
+            assertThat(slot).isEqualTo(sku - 1);
+            assertThat(model.skuAt(slot)).isEqualTo(sku * 7919);
+        }
+        assertThat(model.slotOf(42)).isEqualTo(-1);
+    }
+
+    private static HoltWintersModel model() {
+        return new HoltWintersModel(0.3, 0.05, 0.3, 0.1, 16);
+    }
+
+    private static double[] demand(HoltWintersModel model, int slot, double value) {
+        double[] demand = new double[model.size()];
+        demand[slot] = value;
+        return demand;
+    }
+
+    /** 30 units on one day of the week, 10 on the others */
+    private static double weekly(long epochDay) {
+        return Math.floorMod(epochDay, HoltWintersModel.SEASON) == 3 ? 30.0 : 10.0;
+    }
+}
@@ -0,0 +1,92 @@
+package com.medicart.analytics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    /** Three standard errors at precision 14 (1.04 / sqrt(16384) = 0.81%) */
+    private static final double TOLERANCE = 3 * 1.04 / Math.sqrt(1 << 14);
+
+    @Test
+    void estimatesStayWithinThreeStandardErrors() {
+        for (int distinct : new int[]{1_000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog sketch = new HyperLogLog(14);
+            for (long id = 1; id <= distinct; id++) {
+                sketch.add(id);
+            }
+            assertThat((double) sketch.estimate())
+                    .as("%d distinct ids", distinct)
+                    .isCloseTo(distinct, within(distinct * TOLERANCE));
+        }
+    }
+
+    @Test
+    void smallCountsAreNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog(14);
+        for (long id = 1; id <= 100; id++) {
+            sketch.add(id);
+        }
+
+        assertThat(sketch.estimate()).isBetween(99L, 101L);
+    }
+
+    @Test
+    void repeatedIdsAreCountedOnce() {
+        HyperLogLog sketch = new HyperLogLog(14);
+        for (int pass = 0; pass < 5; pass++) {
+            for (long id = 1; id <= 5_000; id++) {
+                sketch.add(id);
+            }
+        }
+
+        assertThat((double) sketch.estimate()).isCloseTo(5_000, within(5_000 * TOLERANCE));
+        assertThat(sketch.add(42)).isFalse();
+    }
+
+    @Test
+    void mergeEstimatesTheUnion() {
+        HyperLogLog monday = new HyperLogLog(14);
+        HyperLogLog tuesday = new HyperLogLog(14);
+        for (long id = 1; id <= 60_000; id++) {
+            monday.add(id);
+        }
+        for (long id = 40_001; id <= 100_000; id++) {
+            tuesday.add(id);
+        }
+
+        HyperLogLog week = monday.copy();
+        week.merge(tuesday);
+
+        assertThat((double) week.estimate()).isCloseTo(100_000, within(100_000 * TOLERANCE));
+        assertThat(monday.estimate()).isLessThan(week.estimate());
+    }
+
+    @Test
+    void compressedBytesRoundTrip() {
+        HyperLogLog sketch = new HyperLogLog(14);
+        for (long id = 1; id <= 2_000; id++) {
+            sketch.add(id);
+        }
+
+        byte[] compressed = sketch.toCompressedBytes();
+
+        assertThat(compressed.length).isLessThan(1 << 14);
+        assertThat(HyperLogLog.fromCompressedBytes(14, compressed).estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void rejectsMismatchedOrCorruptInput() {
+        assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(12).merge(new HyperLogLog(14)))
+                .isInstanceOf(IllegalArgumentException.class);
+        byte[] compressed = new HyperLogLog(12).toCompressedBytes();
+        assertThatThrownBy(() -> HyperLogLog.fromCompressedBytes(14, compressed))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.fromCompressedBytes(14, new byte[]{1, 2, 3}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,110 @@
+package com.medicart.analytics.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpaceSavingTest {
+
+    private static final int CAPACITY = 50;
+
+    @Test
+    void countsStayWithinTheirErrorBounds() {
+        SpaceSaving sketch = new SpaceSaving(CAPACITY);
+        Map<Long, Long> truth = new HashMap<>();
+        feed(sketch, truth, new Random(7), 100_000);
+
+        assertGuarantees(sketch, truth);
+    }
+
+    @Test
+    void weightedOffersCountTheirWeight() {
+        SpaceSaving sketch = new SpaceSaving(CAPACITY);
+        Map<Long, Long> truth = new HashMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            long item = skewed(random);
+            long weight = 1 + random.nextInt(5);
+            sketch.offer(item, weight);
+            truth.merge(item, weight, Long::sum);
+        }
+        sketch.offer(1, 0);
+
+        assertThat(sketch.getTotalWeight()).isEqualTo(truth.values().stream().mapToLong(Long::longValue).sum());
+        assertGuarantees(sketch, truth);
+    }
+
+    @Test
+    void topReturnsTheHeaviestItemsFirst() {
+        SpaceSaving sketch = new SpaceSaving(CAPACITY);
+        feed(sketch, new HashMap<>(), new Random(3), 50_000);
+
+        var top = sketch.top(3);
+
+        assertThat(top).hasSize(3);
+        assertThat(top.get(0).item()).isEqualTo(0L);
+        assertThat(top.get(0).count()).isGreaterThanOrEqualTo(top.get(1).count());
+        assertThat(top.get(1).count()).isGreaterThanOrEqualTo(top.get(2).count());
+    }
+
+    @Test
+    void mergedSummaryKeepsTheGuaranteesOverBothStreams() {
+        SpaceSaving left = new SpaceSaving(CAPACITY);
+        SpaceSaving right = new SpaceSaving(CAPACITY);
+        Map<Long, Long> truth = new HashMap<>();
+        feed(left, truth, new Random(1), 60_000);
+        feed(right, truth, new Random(2), 40_000);
+
+        left.merge(right);
+
+        assertThat(left.getTotalWeight()).isEqualTo(100_000);
+        assertGuarantees(left, truth);
+    }
+
+    @Test
+    void rebuildsFromItsCounters() {
+        SpaceSaving sketch = new SpaceSaving(CAPACITY);
+        Map<Long, Long> truth = new HashMap<>();
+        feed(sketch, truth, new Random(5), 30_000);
+
+        SpaceSaving rebuilt = SpaceSaving.of(CAPACITY, sketch.getTotalWeight(), sketch.counters());
+
+        assertThat(rebuilt.top(10)).isEqualTo(sketch.top(10));
+        assertGuarantees(rebuilt, truth);
+    }
+
+    private static void feed(SpaceSaving sketch, Map<Long, Long> truth, Random random, int offers) {
+        for (int i = 0; i < offers; i++) {
+            long item = skewed(random);
+            sketch.offer(item, 1);
+            truth.merge(item, 1L, Long::sum);
+        }
+    }
+
+    /** Roughly Zipfian over 5000 items: a few best sellers and a long tail */
+    private static long skewed(Random random) {
+        return (long) Math.floor(Math.pow(5_000, random.nextDouble())) - 1;
+    }
+
+    private static void assertGuarantees(SpaceSaving sketch, Map<Long, Long> truth) {
+        long total = sketch.getTotalWeight();
+        long bound = total / sketch.getCapacity();
+        Map<Long, SpaceSaving.Counter> reported = new HashMap<>();
+        for (SpaceSaving.Counter counter : sketch.counters()) {
+            long actual = truth.getOrDefault(counter.item(), 0L);
+            assertThat(counter.count()).as("count of %d", counter.item()).isGreaterThanOrEqualTo(actual);
+            assertThat(counter.guaranteed()).as("guaranteed count of %d", counter.item()).isLessThanOrEqualTo(actual);
+            assertThat(counter.error()).as("error of %d", counter.item()).isLessThanOrEqualTo(bound);
+            reported.put(counter.item(), counter);
+        }
+        truth.forEach((item, count) -> {
+            if (count > bound) {
+                assertThat(reported).as("heavy hitter %d (%d of %d)", item, count, total).containsKey(item);
+            }
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.medicart.gateway.cache;
+
+import com.medicart.gateway.security.JwtRequestInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Admin endpoints for the gateway response cache. Require a token with ROLE_ADMIN.
+ */
+@RestController
+@RequestMapping("/gateway/cache")
+public class ResponseCacheController {
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheController.class);
+
+    private final ResponseCacheStore store;
+    private final JwtRequestInspector jwtRequestInspector;
+
+    public ResponseCacheController(ResponseCacheStore store, JwtRequestInspector jwtRequestInspector) {
+        this.store = store;
+        this.jwtRequestInspector = jwtRequestInspector;
+    }
+
+    /**
+     * DELETE /gateway/cache?prefix=/medicines
+     * Purge entries under a path prefix, or everything when no prefix is given
+     */
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> purge(@RequestParam(required = false) String prefix,
+                                                     ServerHttpRequest request) {
+        if (!jwtRequestInspector.isAdmin(request)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Admin role required"));
+        }
+        int removed = prefix == null || prefix.isBlank() ? store.purgeAll() : store.purge(prefix);
+        log.info("🧹 Response cache purge of {}: {} entries", prefix == null ? "*" : prefix, removed);
+        return ResponseEntity.ok(Map.of(
+                "prefix", prefix == null ? "*" : prefix,
+                "purged", removed));
+    }
+
+    /**
+     * GET /gateway/cache/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats(ServerHttpRequest request) {
+        if (!jwtRequestInspector.isAdmin(request)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Admin role required"));
+        }
+        return ResponseEntity.ok(store.stats());
+    }
+}
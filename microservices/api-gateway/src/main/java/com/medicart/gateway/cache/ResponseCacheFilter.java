@@ -0,0 +1,289 @@
+package com.medicart.gateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Caches GET responses of the routes listed in {@code gateway.cache.routes}.
+ *
+ * - Hits are served from memory without touching the route; clients get an ETag
+ *   (the upstream one, or a body hash) and {@code If-None-Match} answers 304.
+ * - Only 200 responses without cookies and without no-store/private/no-cache are
+ *   kept, for the upstream max-age or {@code gateway.cache.ttl-seconds}.
+ * - Concurrent misses on one key are coalesced: the first request goes upstream, the
+ *   rest wait for it and are served its cached response.
+ * - A successful write (POST/PUT/PATCH/DELETE) through a cached route empties the
+ *   cache, so admins see their catalogue edits immediately.
+ *
+ * Ordered just before the response is written so it can capture the upstream body.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)=(\\d+)");
+    private static final Set<String> UNSTORED_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "date", "set-cookie", "x-cache", "age");
+
+    private final ResponseCacheStore store;
+    private final boolean enabled;
+    private final Set<String> routes;
+    private final long defaultTtlSeconds;
+    private final int maxBodyBytes;
+    private final Duration coalesceTimeout;
+    private final ConcurrentHashMap<String, Sinks.Empty<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(ResponseCacheStore store,
+                               @Value("${gateway.cache.enabled:true}") boolean enabled,
+                               @Value("${gateway.cache.routes:medicines-service,batches-service}") Set<String> routes,
+                               @Value("${gateway.cache.ttl-seconds:30}") long defaultTtlSeconds,
+                               @Value("${gateway.cache.max-body-bytes:1048576}") int maxBodyBytes,
+                               @Value("${gateway.cache.coalesce-timeout-ms:5000}") long coalesceTimeoutMs) {
+        this.store = store;
+        this.enabled = enabled;
+        this.routes = routes;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.maxBodyBytes = maxBodyBytes;
+        this.coalesceTimeout = Duration.ofMillis(coalesceTimeoutMs);
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null || !routes.contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        if (method != HttpMethod.GET) {
+            if (method == HttpMethod.HEAD || method == HttpMethod.OPTIONS) {
+                return chain.filter(exchange);
+            }
+            return chain.filter(exchange).doOnSuccess(done -> purgeAfterWrite(exchange));
+        }
+
+        String key = cacheKey(request);
+        HttpHeaders requestHeaders = request.getHeaders();
+        boolean revalidate = requestHeaders.getCacheControl() != null
+                && requestHeaders.getCacheControl().contains("no-cache");
+        if (!revalidate) {
+            CachedResponse hit = store.lookup(key, requestHeaders);
+            if (hit != null) {
+                return serve(exchange, hit, "HIT");
+            }
+        }
+
+        Sinks.Empty<Void> ticket = Sinks.empty();
+        Sinks.Empty<Void> leader = inFlight.putIfAbsent(key, ticket);
+        if (leader == null) {
+            return fetch(exchange, chain, key).doFinally(signal -> {
+                inFlight.remove(key, ticket);
+                ticket.tryEmitEmpty();
+            });
+        }
+        if (revalidate) {
+            return fetch(exchange, chain, key);
+        }
+        return leader.asMono()
+                .timeout(coalesceTimeout, Mono.empty())
+                .then(Mono.defer(() -> {
+                    CachedResponse shared = store.lookup(key, requestHeaders);
+                    return shared != null ? serve(exchange, shared, "COALESCED") : chain.filter(exchange);
+                }));
+    }
+
+    /** Forward upstream and keep a copy of the response if it is cacheable */
+    private Mono<Void> fetch(ServerWebExchange exchange, GatewayFilterChain chain, String key) {
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        ServerHttpResponseDecorator capturing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                HttpHeaders headers = getDelegate().getHeaders();
+                HttpStatusCode status = getStatusCode();
+                Long ttlSeconds = cacheableTtlSeconds(status, headers);
+                if (ttlSeconds == null) {
+                    return super.writeWith(body);
+                }
+                return Flux.from(body).collectList().flatMap(buffers -> {
+                    int size = buffers.stream().mapToInt(DataBuffer::readableByteCount).sum();
+                    if (size > maxBodyBytes) {
+                        return super.writeWith(Flux.fromIterable(buffers));
+                    }
+                    byte[] bytes = new byte[size];
+                    int offset = 0;
+                    for (DataBuffer buffer : buffers) {
+                        int length = buffer.readableByteCount();
+                        buffer.read(bytes, offset, length);
+                        offset += length;
+                        DataBufferUtils.release(buffer);
+                    }
+                    CachedResponse cached = toCached(status, headers, bytes, ttlSeconds);
+                    store.store(key, varyNames(headers), requestHeaders, cached);
+
+                    headers.setETag(cached.etag());
+                    headers.set("X-Cache", "MISS");
+                    if (etagMatches(requestHeaders, cached.etag())) {
+                        setStatusCode(HttpStatus.NOT_MODIFIED);
+                        headers.remove(HttpHeaders.CONTENT_LENGTH);
+                        return setComplete();
+                    }
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached, String outcome) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        response.setStatusCode(cached.status());
+        cached.headers().forEach((name, values) -> {
+            if (name.equalsIgnoreCase(HttpHeaders.VARY)) {
+                List<String> vary = new ArrayList<>(headers.getVary());
+                values.stream().filter(value -> !vary.contains(value)).forEach(vary::add);
+                headers.setVary(vary);
+            } else if (!headers.containsKey(name)) {
+                headers.put(name, new ArrayList<>(values));
+            }
+        });
+        headers.setETag(cached.etag());
+        headers.set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds(System.currentTimeMillis())));
+        headers.set("X-Cache", outcome);
+
+        if (etagMatches(exchange.getRequest().getHeaders(), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private void purgeAfterWrite(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status != null && status.is2xxSuccessful()) {
+            int removed = store.purgeAll();
+            if (removed > 0) {
+                log.info("🧹 Response cache cleared after {} {} ({} entries)",
+                        exchange.getRequest().getMethod(), exchange.getRequest().getPath(), removed);
+            }
+        }
+    }
+
+    /** TTL to keep this response for, or null if it must not be cached */
+    private Long cacheableTtlSeconds(HttpStatusCode status, HttpHeaders headers) {
+        if (status == null || status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        if (headers.getVary().contains("*")) {
+            return null;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return defaultTtlSeconds;
+        }
+        String directives = cacheControl.toLowerCase(Locale.ROOT);
+        if (directives.contains("no-store") || directives.contains("private") || directives.contains("no-cache")) {
+            return null;
+        }
+        Matcher maxAge = MAX_AGE.matcher(directives);
+        if (maxAge.find()) {
+            long seconds = Long.parseLong(maxAge.group(1));
+            return seconds > 0 ? seconds : null;
+        }
+        return defaultTtlSeconds;
+    }
+
+    private static CachedResponse toCached(HttpStatusCode status, HttpHeaders headers, byte[] body, long ttlSeconds) {
+        HttpHeaders stored = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (!UNSTORED_HEADERS.contains(lower) && !lower.startsWith("access-control-")) {
+                stored.put(name, new ArrayList<>(values));
+            }
+        });
+        String etag = headers.getETag() != null ? headers.getETag() : hashEtag(body);
+        stored.setETag(etag);
+        long now = System.currentTimeMillis();
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(stored), body, etag,
+                now, now + ttlSeconds * 1000);
+    }
+
+    private static List<String> varyNames(HttpHeaders headers) {
+        return headers.getVary().stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private static boolean etagMatches(HttpHeaders requestHeaders, String etag) {
+        String wanted = stripWeak(etag);
+        for (String candidate : requestHeaders.getIfNoneMatch()) {
+            if (candidate.equals("*") || stripWeak(candidate).equals(wanted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String hashEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String cacheKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String path = request.getPath().value();
+        return "GET " + path + (query != null ? "?" + query : "");
+    }
+}
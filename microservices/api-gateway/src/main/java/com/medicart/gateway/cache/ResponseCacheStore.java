@@ -0,0 +1,133 @@
+package com.medicart.gateway.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory LRU of upstream responses. Entries are keyed by method, path and
+ * query; each remembers the response's {@code Vary} header names and holds one
+ * variant per combination of those request header values (e.g. gzip vs identity).
+ */
+@Component
+public class ResponseCacheStore {
+
+    private static final int MAX_VARIANTS = 8;
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, Resource> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ResponseCacheStore(@Value("${gateway.cache.max-entries:2000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Resource> eldest) {
+                if (size() > ResponseCacheStore.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /** Fresh response for this request, or null */
+    public CachedResponse lookup(String key, HttpHeaders requestHeaders) {
+        Resource resource;
+        synchronized (this) {
+            resource = entries.get(key);
+        }
+        CachedResponse response = resource != null
+                ? resource.variants.get(variantKey(resource.varyNames, requestHeaders))
+                : null;
+        if (response == null || !response.isFresh(System.currentTimeMillis())) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return response;
+    }
+
+    public void store(String key, List<String> varyNames, HttpHeaders requestHeaders, CachedResponse response) {
+        Resource resource;
+        synchronized (this) {
+            resource = entries.get(key);
+            if (resource == null || !resource.varyNames.equals(varyNames)) {
+                resource = new Resource(varyNames);
+                entries.put(key, resource);
+            }
+        }
+        if (resource.variants.size() >= MAX_VARIANTS) {
+            resource.variants.clear();
+        }
+        resource.variants.put(variantKey(varyNames, requestHeaders), response);
+    }
+
+    /** Drop every entry whose path starts with the prefix; returns how many were removed */
+    public synchronized int purge(String pathPrefix) {
+        List<String> doomed = new ArrayList<>();
+        for (String key : entries.keySet()) {
+            if (pathOf(key).startsWith(pathPrefix)) {
+                doomed.add(key);
+            }
+        }
+        doomed.forEach(entries::remove);
+        return doomed.size();
+    }
+
+    public synchronized int purgeAll() {
+        int removed = entries.size();
+        entries.clear();
+        return removed;
+    }
+
+    public Map<String, Object> stats() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return Map.of(
+                "entries", size,
+                "maxEntries", maxEntries,
+                "hits", hits.get(),
+                "misses", misses.get(),
+                "evictions", evictions.get());
+    }
+
+    private static String variantKey(List<String> varyNames, HttpHeaders requestHeaders) {
+        if (varyNames.isEmpty()) {
+            return "";
+        }
+        StringBuilder key = new StringBuilder();
+        for (String name : varyNames) {
+            key.append(name).append('=').append(requestHeaders.getOrEmpty(name)).append(';');
+        }
+        return key.toString();
+    }
+
+    /** Keys look like "GET /medicines?page=1" */
+    private static String pathOf(String key) {
+        int start = key.indexOf(' ') + 1;
+        int query = key.indexOf('?', start);
+        return query < 0 ? key.substring(start) : key.substring(start, query);
+    }
+
+    private static final class Resource {
+        final List<String> varyNames;
+        final Map<String, CachedResponse> variants = new ConcurrentHashMap<>();
+
+        Resource(List<String> varyNames) {
+            this.varyNames = varyNames;
+        }
+    }
+}
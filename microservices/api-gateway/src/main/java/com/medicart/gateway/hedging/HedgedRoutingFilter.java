@@ -0,0 +1,268 @@
+package com.medicart.gateway.hedging;
+
+import com.medicart.common.resilience.LatencyTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycleValidator;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.http.client.HttpClient;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedged GETs for the idempotent routes in {@code gateway.hedging.routes}. The first
+ * attempt goes to a load-balanced instance as usual; if it has not answered after the
+ * route's recent p95 latency, a second attempt goes to a different instance and the
+ * first response wins (the other is cancelled). If the first attempt fails (5xx or
+ * connection error) the second is sent at once instead. Every hedge must be granted by the global
+ * {@link RetryBudget}, so hedging stops adding load once upstreams are slow across
+ * the board.
+ *
+ * Runs where the load-balancer filter would, and performs the upstream calls itself;
+ * other routes and methods continue down the normal chain. Both attempts report to
+ * the load-balancer lifecycle, so instance latency stats stay accurate.
+ */
+@Component
+public class HedgedRoutingFilter implements GlobalFilter, Ordered {
+    private static final Logger log = LoggerFactory.getLogger(HedgedRoutingFilter.class);
+
+    private final LoadBalancerClientFactory loadBalancerClientFactory;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFilters;
+    private final RetryBudget retryBudget;
+    private final WebClient webClient;
+    private final Set<String> routes;
+    private final double percentile;
+    private final int warmupCalls;
+    private final Duration initialDelay;
+    private final long minDelayMs;
+    private final long maxDelayMs;
+    private final Duration attemptTimeout;
+    private final Map<String, LatencyTracker> routeLatencies = new ConcurrentHashMap<>();
+
+    public HedgedRoutingFilter(LoadBalancerClientFactory loadBalancerClientFactory,
+                               ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                               RetryBudget retryBudget,
+                               HttpClient httpClient,
+                               @Value("${gateway.hedging.routes:medicines-service,batches-service}") Set<String> routes,
+                               @Value("${gateway.hedging.percentile:0.95}") double percentile,
+                               @Value("${gateway.hedging.warmup-calls:50}") int warmupCalls,
+                               @Value("${gateway.hedging.initial-delay-ms:250}") long initialDelayMs,
+                               @Value("${gateway.hedging.min-delay-ms:20}") long minDelayMs,
+                               @Value("${gateway.hedging.max-delay-ms:2000}") long maxDelayMs,
+                               @Value("${gateway.hedging.attempt-timeout-ms:10000}") long attemptTimeoutMs,
+                               @Value("${gateway.hedging.max-body-bytes:4194304}") int maxBodyBytes) {
+        this.loadBalancerClientFactory = loadBalancerClientFactory;
+        this.headersFilters = headersFilters;
+        this.retryBudget = retryBudget;
+        this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxBodyBytes))
+                .build();
+        this.routes = routes;
+        this.percentile = percentile;
+        this.warmupCalls = warmupCalls;
+        this.initialDelay = Duration.ofMillis(initialDelayMs);
+        this.minDelayMs = minDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.attemptTimeout = Duration.ofMillis(attemptTimeoutMs);
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (route == null || url == null || !"lb".equals(url.getScheme())
+                || exchange.getRequest().getMethod() != HttpMethod.GET || !routes.contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+        ServerWebExchangeUtils.setAlreadyRouted(exchange);
+        retryBudget.recordRequest();
+
+        String serviceId = url.getHost();
+        ReactorServiceInstanceLoadBalancer loadBalancer =
+                loadBalancerClientFactory.getInstance(serviceId, ReactorServiceInstanceLoadBalancer.class);
+        if (loadBalancer == null) {
+            return unavailable(exchange, "No load balancer for " + serviceId);
+        }
+        LatencyTracker latencies = routeLatencies.computeIfAbsent(route.getId(), id -> new LatencyTracker(512));
+        HttpHeaders requestHeaders = HttpHeadersFilter.filterRequest(headersFilters.getIfAvailable(), exchange);
+        requestHeaders.remove(HttpHeaders.HOST);
+        AtomicReference<ServiceInstance> firstInstance = new AtomicReference<>();
+        AtomicReference<ResponseEntity<byte[]>> lastFailure = new AtomicReference<>();
+
+        long start = System.nanoTime();
+        Sinks.Empty<Void> primaryFailed = Sinks.empty();
+        Mono<ResponseEntity<byte[]>> primary = attempt(exchange, serviceId, loadBalancer, url, requestHeaders,
+                null, firstInstance, lastFailure)
+                .doOnSuccess(response -> latencies.record(elapsedMs(start)))
+                // Cancelled means the hedge won: the primary took at least this long
+                .doOnCancel(() -> latencies.record(elapsedMs(start)))
+                .doOnError(error -> primaryFailed.tryEmitEmpty());
+
+        // Hedge once the primary is slower than p95, or straight away if it failed
+        Duration delay = hedgeDelay(latencies);
+        Mono<ResponseEntity<byte[]>> hedge = Mono.firstWithSignal(Mono.delay(delay).then(), primaryFailed.asMono())
+                .then(Mono.defer(() -> {
+                    if (!retryBudget.tryAcquireExtra()) {
+                        return Mono.empty();
+                    }
+                    log.debug("🏁 Hedging {} {} (p95 delay {} ms)", route.getId(), url.getPath(), delay.toMillis());
+                    return attempt(exchange, serviceId, loadBalancer, url, requestHeaders,
+                            firstInstance.get(), new AtomicReference<>(), lastFailure);
+                }));
+
+        return Mono.firstWithValue(primary, hedge)
+                .flatMap(response -> write(exchange, response))
+                .onErrorResume(error -> {
+                    ResponseEntity<byte[]> failure = lastFailure.get();
+                    if (failure != null) {
+                        return write(exchange, failure);
+                    }
+                    log.warn("⚠️ All attempts for {} {} failed: {}", route.getId(), url.getPath(), error.getMessage());
+                    return unavailable(exchange, "Upstream " + serviceId + " unavailable");
+                });
+    }
+
+    /**
+     * One upstream call to an instance other than {@code avoid}. 5xx responses are
+     * turned into errors (kept in {@code lastFailure}) so the other attempt can win.
+     */
+    private Mono<ResponseEntity<byte[]>> attempt(ServerWebExchange exchange, String serviceId,
+                                                 ReactorServiceInstanceLoadBalancer loadBalancer, URI url,
+                                                 HttpHeaders requestHeaders, ServiceInstance avoid,
+                                                 AtomicReference<ServiceInstance> chosen,
+                                                 AtomicReference<ResponseEntity<byte[]>> lastFailure) {
+        Request<RequestDataContext> lbRequest = new DefaultRequest<>(
+                new RequestDataContext(new RequestData(exchange.getRequest()), "default"));
+        Set<LoadBalancerLifecycle> lifecycles = LoadBalancerLifecycleValidator.getSupportedLifecycleProcessors(
+                loadBalancerClientFactory.getInstances(serviceId, LoadBalancerLifecycle.class),
+                RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+
+        return choose(loadBalancer, lbRequest, avoid).flatMap(lbResponse -> {
+            ServiceInstance instance = lbResponse.getServer();
+            chosen.set(instance);
+            lifecycles.forEach(lifecycle -> lifecycle.onStartRequest(lbRequest, lbResponse));
+            return webClient.get()
+                    .uri(LoadBalancerUriTools.reconstructURI(instance, url))
+                    .headers(headers -> headers.addAll(requestHeaders))
+                    .exchangeToMono(response -> response.toEntity(byte[].class))
+                    .timeout(attemptTimeout)
+                    .doOnSuccess(response -> complete(lifecycles, lbRequest, lbResponse, response, null))
+                    .doOnError(error -> complete(lifecycles, lbRequest, lbResponse, null, error))
+                    .doOnCancel(() -> lifecycles.forEach(lifecycle -> lifecycle.onComplete(
+                            new CompletionContext<>(CompletionContext.Status.DISCARD, lbRequest, lbResponse))))
+                    .flatMap(response -> {
+                        if (response.getStatusCode().is5xxServerError()) {
+                            lastFailure.set(response);
+                            return Mono.error(new IllegalStateException(
+                                    "Upstream answered " + response.getStatusCode().value()));
+                        }
+                        return Mono.just(response);
+                    });
+        });
+    }
+
+    /** Choose an instance, retrying a couple of times to get one other than {@code avoid} */
+    private Mono<Response<ServiceInstance>> choose(ReactorServiceInstanceLoadBalancer loadBalancer,
+                                                   Request<RequestDataContext> lbRequest, ServiceInstance avoid) {
+        return Mono.from(loadBalancer.choose(lbRequest))
+                .repeat(avoid == null ? 0 : 2)
+                .filter(Response::hasServer)
+                .filter(response -> avoid == null || !sameInstance(response.getServer(), avoid))
+                .next();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void complete(Set<LoadBalancerLifecycle> lifecycles, Request<RequestDataContext> lbRequest,
+                                 Response<ServiceInstance> lbResponse, ResponseEntity<byte[]> response,
+                                 Throwable error) {
+        RequestData requestData = lbRequest.getContext().getClientRequest();
+        CompletionContext context = error != null
+                ? new CompletionContext<>(CompletionContext.Status.FAILED, error, lbRequest, lbResponse)
+                : new CompletionContext<>(CompletionContext.Status.SUCCESS, lbRequest, lbResponse,
+                        new ResponseData(response.getStatusCode(), response.getHeaders(),
+                                new LinkedMultiValueMap<>(), requestData));
+        lifecycles.forEach(lifecycle -> lifecycle.onComplete(context));
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, ResponseEntity<byte[]> upstream) {
+        ServerHttpResponse response = exchange.getResponse();
+        byte[] body = upstream.getBody() != null ? upstream.getBody() : new byte[0];
+        response.setStatusCode(upstream.getStatusCode());
+        HttpHeaders headers = HttpHeadersFilter.filter(headersFilters.getIfAvailable(), upstream.getHeaders(),
+                exchange, HttpHeadersFilter.Type.RESPONSE);
+        headers.forEach((name, values) -> response.getHeaders().put(name, values));
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private Mono<Void> unavailable(ServerWebExchange exchange, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private Duration hedgeDelay(LatencyTracker latencies) {
+        if (latencies.count() < warmupCalls) {
+            return initialDelay;
+        }
+        long p = latencies.percentile(percentile);
+        return Duration.ofMillis(Math.max(minDelayMs, Math.min(maxDelayMs, p)));
+    }
+
+    private static boolean sameInstance(ServiceInstance a, ServiceInstance b) {
+        return a.getHost().equals(b.getHost()) && a.getPort() == b.getPort();
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
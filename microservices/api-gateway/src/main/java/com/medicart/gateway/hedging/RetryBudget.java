@@ -0,0 +1,70 @@
+package com.medicart.gateway.hedging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caps extra upstream requests (hedges and retries) at a share of real traffic over
+ * a sliding window: extras &lt;= ratio x requests + minPerSecond x window. When a
+ * dependency is slow everywhere, every request would want a hedge; the budget runs
+ * out and load stays near 1x instead of doubling into the outage.
+ */
+@Component
+public class RetryBudget {
+
+    private final double ratio;
+    private final int minPerSecond;
+    private final int windowSeconds;
+    private final long[] requests;
+    private final long[] extras;
+    private final long[] slotSecond;
+
+    public RetryBudget(@Value("${gateway.retry-budget.ratio:0.1}") double ratio,
+                       @Value("${gateway.retry-budget.min-per-second:5}") int minPerSecond,
+                       @Value("${gateway.retry-budget.window-seconds:10}") int windowSeconds) {
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.windowSeconds = windowSeconds;
+        this.requests = new long[windowSeconds];
+        this.extras = new long[windowSeconds];
+        this.slotSecond = new long[windowSeconds];
+    }
+
+    /** Count one original request */
+    public synchronized void recordRequest() {
+        requests[slot(currentSecond())]++;
+    }
+
+    /** Reserve one extra request if the budget allows it */
+    public synchronized boolean tryAcquireExtra() {
+        long now = currentSecond();
+        slot(now);
+        long windowRequests = 0;
+        long windowExtras = 0;
+        for (int i = 0; i < windowSeconds; i++) {
+            if (now - slotSecond[i] < windowSeconds) {
+                windowRequests += requests[i];
+                windowExtras += extras[i];
+            }
+        }
+        if (windowExtras >= ratio * windowRequests + (long) minPerSecond * windowSeconds) {
+            return false;
+        }
+        extras[slot(now)]++;
+        return true;
+    }
+
+    private int slot(long second) {
+        int slot = (int) (second % windowSeconds);
+        if (slotSecond[slot] != second) {
+            slotSecond[slot] = second;
+            requests[slot] = 0;
+            extras[slot] = 0;
+        }
+        return slot;
+    }
+
+    private static long currentSecond() {
+        return System.nanoTime() / 1_000_000_000L;
+    }
+}
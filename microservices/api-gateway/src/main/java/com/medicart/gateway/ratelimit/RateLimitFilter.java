@@ -0,0 +1,179 @@
+package com.medicart.gateway.ratelimit;
+
+import com.medicart.gateway.security.JwtRequestInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token buckets in front of every route. Clients are keyed by the JWT
+ * subject when a valid token is present, otherwise by remote address, so logging in
+ * does not share a bucket with everyone behind the same NAT. Each limit (path pattern,
+ * route or default, see {@link RateLimitProperties}) has its own buckets.
+ *
+ * Over the limit the request is answered here with 429 and {@code Retry-After}; it
+ * never reaches the service. All state is local to this gateway instance.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered, DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final String OVERFLOW_CLIENT = "~overflow";
+
+    private final RateLimitProperties properties;
+    private final JwtRequestInspector jwtRequestInspector;
+    private final List<Map.Entry<PathPattern, String>> pathLimits = new ArrayList<>();
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Disposable sweeper;
+
+    public RateLimitFilter(RateLimitProperties properties, JwtRequestInspector jwtRequestInspector) {
+        this.properties = properties;
+        this.jwtRequestInspector = jwtRequestInspector;
+        PathPatternParser parser = new PathPatternParser();
+        properties.getPaths().keySet().forEach(pattern -> pathLimits.add(Map.entry(parser.parse(pattern), pattern)));
+        long sweepSeconds = Math.max(10, properties.getIdleEvictSeconds() / 2);
+        this.sweeper = Schedulers.single().schedulePeriodically(this::evictIdle, sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public int getOrder() {
+        // Before anything that does work for the request, including the response cache
+        return Ordered.HIGHEST_PRECEDENCE + 10_000;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() == HttpMethod.OPTIONS) {
+            return chain.filter(exchange);
+        }
+        String limitName = limitNameFor(exchange);
+        RateLimitProperties.Limit limit = limitFor(limitName);
+        String client = clientKey(request);
+
+        long now = System.nanoTime();
+        TokenBucket bucket = bucketFor(limitName, client, limit, now);
+        long waitNanos = bucket.tryAcquire(now);
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().set("X-RateLimit-Limit", String.valueOf(limit.getCapacity()));
+        if (waitNanos == 0) {
+            response.getHeaders().set("X-RateLimit-Remaining", String.valueOf(bucket.remaining()));
+            return chain.filter(exchange);
+        }
+
+        long retryAfterSeconds = Math.max(1, (long) Math.ceil(waitNanos / 1_000_000_000.0));
+        log.debug("🚦 Rate limited {} on {} (retry after {}s)", client, limitName, retryAfterSeconds);
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getHeaders().set("X-RateLimit-Remaining", "0");
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"error\":\"Too many requests\",\"retryAfterSeconds\":" + retryAfterSeconds + "}")
+                .getBytes(StandardCharsets.UTF_8);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.dispose();
+    }
+
+    private String limitNameFor(ServerWebExchange exchange) {
+        for (Map.Entry<PathPattern, String> pathLimit : pathLimits) {
+            if (pathLimit.getKey().matches(exchange.getRequest().getPath().pathWithinApplication())) {
+                return "path:" + pathLimit.getValue();
+            }
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route != null && properties.getRoutes().containsKey(route.getId())) {
+            return "route:" + route.getId();
+        }
+        return "default";
+    }
+
+    private RateLimitProperties.Limit limitFor(String limitName) {
+        if (limitName.startsWith("path:")) {
+            return properties.getPaths().get(limitName.substring(5));
+        }
+        if (limitName.startsWith("route:")) {
+            return properties.getRoutes().get(limitName.substring(6));
+        }
+        return properties.getDefaults();
+    }
+
+    private TokenBucket bucketFor(String limitName, String client, RateLimitProperties.Limit limit, long now) {
+        String key = limitName + "|" + client;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.getMaxBuckets()) {
+            key = limitName + "|" + OVERFLOW_CLIENT;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now));
+    }
+
+    private String clientKey(ServerHttpRequest request) {
+        return jwtRequestInspector.bearerToken(request)
+                .map(jwt -> "user:" + jwt.getSubject())
+                .orElseGet(() -> "ip:" + clientAddress(request));
+    }
+
+    /**
+     * With a trusted proxy in front, its hop is the last X-Forwarded-For entry; anything
+     * before it came from the client and is not used.
+     */
+    private String clientAddress(ServerHttpRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            // A proxy may append its hop as a separate header line rather than to the list
+            String forwardedFor = String.join(",", request.getHeaders().getOrEmpty("X-Forwarded-For"));
+            if (!forwardedFor.isBlank()) {
+                String lastHop = forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+                if (!lastHop.isEmpty()) {
+                    return lastHop;
+                }
+            }
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) {
+            return "unknown";
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+
+    private void evictIdle() {
+        long cutoff = System.nanoTime() - Duration.ofSeconds(properties.getIdleEvictSeconds()).toNanos();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.lastUsed() < cutoff);
+        int evicted = before - buckets.size();
+        if (evicted > 0) {
+            log.debug("🚦 Evicted {} idle rate-limit buckets ({} left)", evicted, buckets.size());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.medicart.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code gateway.rate-limit.*}. A request is limited by the first match of: a path
+ * pattern in {@code paths}, its route id in {@code routes}, then {@code defaults}.
+ */
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private Limit defaults = new Limit(100, 50.0);
+    private Map<String, Limit> routes = new LinkedHashMap<>();
+    private Map<String, Limit> paths = new LinkedHashMap<>();
+
+    /** Buckets untouched for this long are dropped (they would be full anyway) */
+    private long idleEvictSeconds = 300;
+    /** Hard cap on live buckets; beyond it new clients share one overflow bucket per limit */
+    private int maxBuckets = 100_000;
+    /** Key anonymous clients by X-Forwarded-For; only safe behind a trusted proxy */
+    private boolean trustForwardedFor = false;
+
+    public static class Limit {
+        /** Burst size */
+        private int capacity;
+        /** Sustained requests per second */
+        private double refillPerSecond;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getRefillPerSecond() {
+            return refillPerSecond;
+        }
+
+        public void setRefillPerSecond(double refillPerSecond) {
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Limit getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Limit defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Limit> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, Limit> routes) {
+        this.routes = routes;
+    }
+
+    public Map<String, Limit> getPaths() {
+        return paths;
+    }
+
+    public void setPaths(Map<String, Limit> paths) {
+        this.paths = paths;
+    }
+
+    public long getIdleEvictSeconds() {
+        return idleEvictSeconds;
+    }
+
+    public void setIdleEvictSeconds(long idleEvictSeconds) {
+        this.idleEvictSeconds = idleEvictSeconds;
+    }
+
+    public int getMaxBuckets() {
+        return maxBuckets;
+    }
+
+    public void setMaxBuckets(int maxBuckets) {
+        this.maxBuckets = maxBuckets;
+    }
+
+    public boolean isTrustForwardedFor() {
+        return trustForwardedFor;
+    }
+
+    public void setTrustForwardedFor(boolean trustForwardedFor) {
+        this.trustForwardedFor = trustForwardedFor;
+    }
+}
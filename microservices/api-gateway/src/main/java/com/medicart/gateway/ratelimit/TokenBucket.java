@@ -0,0 +1,44 @@
+package com.medicart.gateway.ratelimit;
+
+/**
+ * Token bucket refilled lazily: nothing runs in the background, the tokens earned
+ * since the last call are added when the bucket is next touched.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+    private volatile long lastUsed;
+
+    TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefill = now;
+        this.lastUsed = now;
+    }
+
+    /** Take one token; returns 0 on success, else nanoseconds until one is available */
+    synchronized long tryAcquire(long now) {
+        lastUsed = now;
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+        }
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return 0;
+        }
+        return tokensPerNano > 0 ? (long) Math.ceil((1.0 - tokens) / tokensPerNano) : Long.MAX_VALUE;
+    }
+
+    synchronized int remaining() {
+        return (int) tokens;
+    }
+
+    long lastUsed() {
+        return lastUsed;
+    }
+}
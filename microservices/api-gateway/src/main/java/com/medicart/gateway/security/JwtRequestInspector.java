@@ -0,0 +1,44 @@
+package com.medicart.gateway.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Reads the caller's JWT at the gateway. Routes are not authenticated here (the
+ * services do that), so this is only for gateway-level decisions such as admin-only
+ * endpoints. Tokens carry the role in the {@code scope} claim, e.g. {@code ROLE_ADMIN}.
+ */
+@Component
+public class JwtRequestInspector {
+
+    private final JwtDecoder jwtDecoder;
+
+    public JwtRequestInspector(JwtDecoder jwtDecoder) {
+        this.jwtDecoder = jwtDecoder;
+    }
+
+    /** The verified bearer token, or empty if absent, malformed, expired or forged */
+    public Optional<Jwt> bearerToken(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(jwtDecoder.decode(header.substring(7)));
+        } catch (JwtException e) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean isAdmin(ServerHttpRequest request) {
+        return bearerToken(request)
+                .map(jwt -> "ROLE_ADMIN".equals(jwt.getClaimAsString("scope")))
+                .orElse(false);
+    }
+}
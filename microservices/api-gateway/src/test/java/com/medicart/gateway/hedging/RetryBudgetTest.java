@@ -0,0 +1,44 @@
+package com.medicart.gateway.hedging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+    @Test
+    void idleTrafficStillGetsTheMinimumBudget() {
+        RetryBudget budget = new RetryBudget(0.1, 1, 10);
+
+        assertThat(acquired(budget, 50)).isEqualTo(10);
+    }
+
+    @Test
+    void extrasScaleWithRecordedRequests() {
+        RetryBudget budget = new RetryBudget(0.1, 1, 10);
+        for (int i = 0; i < 200; i++) {
+            budget.recordRequest();
+        }
+
+        // 10% of 200 requests plus 1 a second over 10 seconds
+        assertThat(acquired(budget, 100)).isEqualTo(30);
+    }
+
+    @Test
+    void zeroBudgetAllowsNoExtras() {
+        RetryBudget budget = new RetryBudget(0.0, 0, 10);
+        budget.recordRequest();
+
+        assertThat(budget.tryAcquireExtra()).isFalse();
+    }
+
+    private static int acquired(RetryBudget budget, int attempts) {
+        int acquired = 0;
+        for (int i = 0; i < attempts; i++) {
+            if (budget.tryAcquireExtra()) {
+                acquired++;
+            }
+        }
+        return acquired;
+    }
+}
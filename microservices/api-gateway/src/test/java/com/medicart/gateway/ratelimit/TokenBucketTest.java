@@ -0,0 +1,63 @@
+package com.medicart.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsABurstUpToCapacityThenReportsTheWait() {
+        TokenBucket bucket = new TokenBucket(3, 2.0, 0);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+
+        // 2 tokens a second: the next one is half a second away
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND / 2);
+        assertThat(bucket.remaining()).isZero();
+    }
+
+    @Test
+    void refillsWithElapsedTimeButNotPastCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 2.0, 0);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(0);
+        }
+
+        assertThat(bucket.tryAcquire(SECOND / 4)).isEqualTo(SECOND / 4);
+        assertThat(bucket.tryAcquire(SECOND / 2)).isZero();
+
+        bucket.tryAcquire(100 * SECOND);
+        assertThat(bucket.remaining()).isEqualTo(2);
+    }
+
+    @Test
+    void clockGoingBackwardsDoesNotAddTokens() {
+        TokenBucket bucket = new TokenBucket(1, 1.0, SECOND);
+        bucket.tryAcquire(SECOND);
+
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void zeroRefillNeverRecovers() {
+        TokenBucket bucket = new TokenBucket(1, 0.0, 0);
+        bucket.tryAcquire(0);
+
+        assertThat(bucket.tryAcquire(100 * SECOND)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void tracksLastUse() {
+        TokenBucket bucket = new TokenBucket(1, 1.0, 0);
+        bucket.tryAcquire(5 * SECOND);
+
+        assertThat(bucket.lastUsed()).isEqualTo(5 * SECOND);
+    }
+}
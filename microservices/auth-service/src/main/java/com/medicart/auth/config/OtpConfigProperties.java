@@ -0,0 +1,33 @@
+package com.medicart.auth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "otp")
+public class OtpConfigProperties {
+    /** memory (bounded, per instance) or jdbc (shared across replicas) */
+    private String store = "memory";
+    private Long expiryMinutes = 10L;
+    private Integer maxEntries = 100_000;
+    private Long sweepIntervalMs = 60_000L;
+    private RateLimit emailRateLimit = new RateLimit(3, 600_000L);
+    private RateLimit ipRateLimit = new RateLimit(20, 600_000L);
+    private Integer rateLimitMaxKeys = 100_000;
+
+    @Data
+    public static class RateLimit {
+        private Integer capacity;
+        private Long refillPeriodMs;
+
+        public RateLimit() {
+        }
+
+        public RateLimit(Integer capacity, Long refillPeriodMs) {
+            this.capacity = capacity;
+            this.refillPeriodMs = refillPeriodMs;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.medicart.auth.config;
+
+import com.medicart.auth.otp.InMemoryOtpStore;
+import com.medicart.auth.otp.JdbcOtpStore;
+import com.medicart.auth.otp.OtpStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Wires the {@link OtpStore} implementation selected by {@code otp.store}.
+ */
+@Configuration
+@EnableScheduling
+public class OtpStoreConfig {
+    private static final Logger log = LoggerFactory.getLogger(OtpStoreConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+    public OtpStore inMemoryOtpStore(OtpConfigProperties properties) {
+        log.info("Using in-memory OTP store (maxEntries={})", properties.getMaxEntries());
+        return new InMemoryOtpStore(properties.getMaxEntries());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "otp.store", havingValue = "jdbc")
+    public OtpStore jdbcOtpStore(JdbcTemplate jdbcTemplate) {
+        log.info("Using JDBC OTP store (table otp_codes)");
+        return new JdbcOtpStore(jdbcTemplate);
+    }
+}
@@ -0,0 +1,20 @@
+package com.medicart.auth.config;
+
+import com.medicart.auth.prescription.LocalFilesystemPrescriptionStore;
+import com.medicart.auth.prescription.PrescriptionStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class PrescriptionStoreConfig {
+
+    @Bean
+    public PrescriptionStore prescriptionStore(
+            @Value("${prescription.storage.root:data/prescriptions}") String root) throws IOException {
+        return new LocalFilesystemPrescriptionStore(Path.of(root));
+    }
+}
@@ -37,6 +37,7 @@ public class SecurityConfig {
                 .requestMatchers("GET", "/auth/me", "/api/auth/me").authenticated()
                 .requestMatchers("GET", "/auth/users/**", "/api/auth/users/**").authenticated()
                 .requestMatchers("PUT", "/auth/users/**", "/api/auth/users/**").authenticated()
+                .requestMatchers("POST", "/auth/users/batch", "/api/auth/users/batch").authenticated()
                 .requestMatchers("/prescriptions/**", "/api/prescriptions/**").authenticated()
                 .anyRequest().authenticated()
             )
@@ -1,5 +1,6 @@
 package com.medicart.auth.controller;
 
+import com.medicart.auth.otp.OtpRateLimitException;
 import com.medicart.auth.service.AuthService;
 import com.medicart.auth.service.OtpService;
 import com.medicart.common.dto.LoginResponse;
@@ -7,8 +8,12 @@ import com.medicart.common.dto.RegisterRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -30,7 +35,8 @@ public class OtpController {
      * Send OTP to email (mocked - returns OTP in response for demo)
      */
     @PostMapping("/send")
-    public ResponseEntity<Map<String, Object>> sendOtp(@RequestBody Map<String, String> request) {
+    public ResponseEntity<Map<String, Object>> sendOtp(@RequestBody Map<String, String> request,
+                                                       HttpServletRequest httpRequest) {
         try {
             String email = request.get("email");
             
@@ -41,9 +47,13 @@ public class OtpController {
             }
 
             log.info("Sending OTP to email: {}", email);
-            Map<String, Object> response = otpService.generateAndSendOtp(email);
+            Map<String, Object> response = otpService.generateAndSendOtp(email, clientIp(httpRequest));
             
             return ResponseEntity.ok(response);
+        } catch (OtpRateLimitException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to send OTP", e);
             return ResponseEntity.badRequest().body(
@@ -118,4 +128,20 @@ public class OtpController {
             );
         }
     }
+
+    /**
+     * Resolve the caller's IP: the last X-Forwarded-For hop, which the gateway appends
+     * with the address it accepted the connection from. Earlier hops are whatever the
+     * client sent and cannot be trusted for rate limiting.
+     */
+    private String clientIp(HttpServletRequest request) {
+        String forwarded = String.join(",", Collections.list(request.getHeaders("X-Forwarded-For")));
+        if (!forwarded.isBlank()) {
+            String lastHop = forwarded.substring(forwarded.lastIndexOf(',') + 1).trim();
+            if (!lastHop.isEmpty()) {
+                return lastHop;
+            }
+        }
+        return request.getRemoteAddr();
+    }
 }
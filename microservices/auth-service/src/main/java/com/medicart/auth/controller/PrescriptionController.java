@@ -1,35 +1,52 @@
 package com.medicart.auth.controller;
 
+import com.medicart.auth.entity.Prescription;
+import com.medicart.auth.prescription.PrescriptionFileSender;
+import com.medicart.auth.service.PrescriptionRenditionService;
+import com.medicart.auth.service.PrescriptionService;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import jakarta.servlet.http.HttpServletRequest;
-import java.util.ArrayList;
-import java.util.List;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.time.format.DateTimeFormatter;
-import java.util.UUID;
 
 @RestController
 @RequestMapping({"/prescriptions", "/api/prescriptions"})
 public class PrescriptionController {
     private static final Logger log = LoggerFactory.getLogger(PrescriptionController.class);
-    
-    // In-memory storage for prescriptions (userId -> List of prescriptions)
-    private static final Map<Long, List<Map<String, Object>>> prescriptionStorage = new ConcurrentHashMap<>();
-    // In-memory storage for file data (prescriptionId -> file bytes)
-    private static final Map<String, byte[]> fileStorage = new ConcurrentHashMap<>();
+
+    private final PrescriptionService prescriptionService;
+    private final PrescriptionFileSender fileSender;
+
+    public PrescriptionController(PrescriptionService prescriptionService,
+                                  PrescriptionFileSender fileSender) {
+        this.prescriptionService = prescriptionService;
+        this.fileSender = fileSender;
+    }
 
     /**
-     * Get user's prescription history
+     * Get user's prescription history, newest first.
+     * Paging metadata is returned in the X-Total-Count / X-Total-Pages headers.
      */
     @GetMapping
     public ResponseEntity<List<Map<String, Object>>> getPrescriptions(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
             @RequestHeader(value = "X-User-Id", required = false) Long userId,
             @RequestHeader(value = "Authorization", required = false) String authHeader,
             HttpServletRequest request) {
@@ -38,18 +55,22 @@ public class PrescriptionController {
             log.info("📋 GET /prescriptions REQUEST RECEIVED");
             log.info("  Path: {}", request.getRequestURI());
             log.info("  X-User-Id Header: {}", userId);
+            log.info("  Page: {}, Size: {}", page, size);
             log.info("  Authorization Header Present: {}", authHeader != null);
-            if (authHeader != null) {
-                log.info("  Auth Header Length: {}", authHeader.length());
-                log.info("  Auth Header Type: {}", authHeader.startsWith("Bearer") ? "Bearer" : "Other");
-            }
             log.info("═══════════════════════════════════════════════════════════════");
             
-            // Get prescriptions for this user
-            List<Map<String, Object>> prescriptions = prescriptionStorage.getOrDefault(userId, new ArrayList<>());
-            log.info("✅ RESPONSE: Returning {} prescriptions for userId: {}", prescriptions.size(), userId);
+            Page<Prescription> result = prescriptionService.getUserPrescriptions(userId, page, size);
+            List<Map<String, Object>> prescriptions = result.getContent()
+                    .stream()
+                    .map(this::toResponse)
+                    .toList();
+            log.info("✅ RESPONSE: Returning {} of {} prescriptions for userId: {}",
+                    prescriptions.size(), result.getTotalElements(), userId);
             
-            return ResponseEntity.ok(prescriptions);
+            return ResponseEntity.ok()
+                    .header("X-Total-Count", String.valueOf(result.getTotalElements()))
+                    .header("X-Total-Pages", String.valueOf(result.getTotalPages()))
+                    .body(prescriptions);
         } catch (Exception e) {
             log.error("❌ ERROR fetching prescriptions (userId: {}): {}", userId, e.getMessage(), e);
             return ResponseEntity.badRequest().build();
@@ -57,7 +78,8 @@ public class PrescriptionController {
     }
 
     /**
-     * Upload a new prescription file
+     * Upload a new prescription file. The multipart part is streamed into the
+     * prescription store; it is never held in memory as a whole.
      */
     @PostMapping
     public ResponseEntity<?> uploadPrescription(
@@ -69,13 +91,9 @@ public class PrescriptionController {
             log.info("═══════════════════════════════════════════════════════════════");
             log.info("📤 POST /prescriptions REQUEST RECEIVED");
             log.info("  Path: {}", request.getRequestURI());
-            log.info("  Method: {}", request.getMethod());
             log.info("  Content-Type: {}", request.getContentType());
             log.info("  X-User-Id Header: {}", userId);
             log.info("  Authorization Header Present: {}", authHeader != null);
-            if (authHeader != null) {
-                log.info("  Auth Header Length: {}", authHeader.length());
-            }
             log.info("  File Name: {}", file.getOriginalFilename());
             log.info("  File Size: {} bytes", file.getSize());
             log.info("═══════════════════════════════════════════════════════════════");
@@ -86,98 +104,115 @@ public class PrescriptionController {
             }
 
             // Validate file size (5MB max)
-            if (file.getSize() > 5 * 1024 * 1024) {
+            if (file.getSize() > PrescriptionService.MAX_FILE_SIZE) {
                 log.warn("⚠️ Upload failed - file exceeds 5MB limit (userId: {}, size: {} bytes)", 
                         userId, file.getSize());
                 return ResponseEntity.badRequest().body(Map.of("error", "File size exceeds 5MB limit"));
             }
 
-            // Generate unique prescription ID
-            String prescriptionId = UUID.randomUUID().toString();
-            
-            // Store file bytes in memory
-            byte[] fileBytes = file.getBytes();
-            fileStorage.put(prescriptionId, fileBytes);
-            log.info("📁 File stored in memory - prescriptionId: {}, size: {} bytes", prescriptionId, fileBytes.length);
-            
-            // Create prescription record
-            Map<String, Object> prescription = new HashMap<>();
-            prescription.put("id", prescriptionId);
-            prescription.put("fileName", file.getOriginalFilename());
-            prescription.put("fileSize", file.getSize());
-            prescription.put("uploadedDate", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-            prescription.put("userId", userId);
-            
-            // Store in user's prescription list
-            prescriptionStorage.computeIfAbsent(userId, k -> new ArrayList<>())
-                    .add(prescription);
+            Prescription prescription = prescriptionService.upload(userId, file);
+            String uploadedDate = prescription.getUploadedAt().format(DateTimeFormatter.ISO_DATE_TIME);
             
             log.info("✅ Prescription stored - userId: {}, prescriptionId: {}, fileName: {}", 
-                    userId, prescriptionId, file.getOriginalFilename());
-
-            Map<String, Object> response = Map.of(
-                    "id", prescriptionId,
-                    "message", "File uploaded successfully",
-                    "fileName", file.getOriginalFilename(),
-                    "userId", userId,
-                    "uploadedDate", prescription.get("uploadedDate")
-            );
-            log.info("✅ RESPONSE: File uploaded successfully - userId: {}", userId);
+                    userId, prescription.getId(), prescription.getFileName());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("id", prescription.getId());
+            response.put("message", "File uploaded successfully");
+            response.put("fileName", prescription.getFileName());
+            response.put("userId", userId);
+            response.put("uploadedDate", uploadedDate);
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.error("❌ ERROR uploading prescription (userId: {}): {}", userId, e.getMessage(), e);
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
         }
     }
 
     /**
-     * Download a prescription file
+     * Download a prescription file. Supports single byte-range requests and is served
+     * straight from disk (sendfile / transferTo) rather than through a byte[].
      */
     @GetMapping("/{id}/download")
-    public ResponseEntity<?> downloadPrescription(
+    public void downloadPrescription(
             @PathVariable String id,
             @RequestHeader(value = "X-User-Id", required = false) Long userId,
-            @RequestHeader(value = "Authorization", required = false) String authHeader,
-            HttpServletRequest request) {
-        try {
-            log.info("═══════════════════════════════════════════════════════════════");
-            log.info("📥 GET /prescriptions/{} DOWNLOAD REQUEST RECEIVED", id);
-            log.info("  Path: {}", request.getRequestURI());
-            log.info("  X-User-Id Header: {}", userId);
-            log.info("  Authorization Header Present: {}", authHeader != null);
-            log.info("═══════════════════════════════════════════════════════════════");
-            
-            // Retrieve file from storage
-            byte[] fileBytes = fileStorage.get(id);
-            if (fileBytes == null) {
-                log.error("❌ Prescription not found - prescriptionId: {}", id);
-                return ResponseEntity.notFound().build();
-            }
-            
-            // Find prescription details from storage to get file name
-            String fileName = "prescription.pdf";
-            for (List<Map<String, Object>> userPrescriptions : prescriptionStorage.values()) {
-                for (Map<String, Object> prescription : userPrescriptions) {
-                    if (prescription.get("id").equals(id)) {
-                        fileName = (String) prescription.get("fileName");
-                        break;
-                    }
-                }
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        log.info("📥 GET /prescriptions/{}/download (userId: {}, range: {})", id, userId, request.getHeader("Range"));
+
+        Optional<Prescription> prescription = prescriptionService.findById(id);
+        if (prescription.isEmpty()) {
+            log.error("❌ Prescription not found - prescriptionId: {}", id);
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        Resource content = prescriptionService.openContent(prescription.get());
+        if (!content.exists()) {
+            log.error("❌ Prescription content missing - prescriptionId: {}, sha256: {}",
+                    id, prescription.get().getSha256());
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        fileSender.send(content, prescription.get().getFileName(), "application/octet-stream", request, response);
+    }
+
+    /**
+     * Serve the downscaled thumbnail (default) or the recompressed preview
+     * ({@code ?variant=preview}) of an image prescription.
+     * Renditions are immutable and content-addressed, so the ETag is their SHA-256 and
+     * they may be cached for a year. They are patient data, hence {@code private}.
+     * Returns 202 while the rendition is still being generated and 404 for files that
+     * cannot be rendered (e.g. PDFs).
+     */
+    @GetMapping("/{id}/thumbnail")
+    public ResponseEntity<?> getThumbnail(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "thumbnail") String variant,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        Optional<Prescription> prescription = prescriptionService.findById(id);
+        if (prescription.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Optional<String> key = prescriptionService.renditionKey(prescription.get(), variant);
+        if (key.isEmpty()) {
+            String status = prescription.get().getRenditionStatus();
+            if (status == null || PrescriptionRenditionService.STATUS_PENDING.equals(status)) {
+                return ResponseEntity.accepted()
+                        .header(HttpHeaders.RETRY_AFTER, "2")
+                        .body(Map.of("status", PrescriptionRenditionService.STATUS_PENDING));
             }
-            
-            log.info("✅ RESPONSE: Returning file - prescriptionId: {}, fileName: {}, size: {} bytes", 
-                    id, fileName, fileBytes.length);
-            
-            return ResponseEntity.ok()
-                    .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
-                    .header("Content-Type", "application/octet-stream")
-                    .body(fileBytes);
-        } catch (Exception e) {
-            log.error("❌ ERROR downloading prescription (userId: {}, prescriptionId: {}): {}", 
-                    userId, id, e.getMessage(), e);
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            return ResponseEntity.notFound().build();
         }
+
+        String etag = "\"" + key.get() + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        Resource content = prescriptionService.openContent(key.get());
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.IMAGE_JPEG)
+                .body(content);
     }
-}
 
+    private Map<String, Object> toResponse(Prescription prescription) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", prescription.getId());
+        map.put("fileName", prescription.getFileName());
+        map.put("fileSize", prescription.getFileSize());
+        map.put("uploadedDate", prescription.getUploadedAt().format(DateTimeFormatter.ISO_DATE_TIME));
+        map.put("userId", prescription.getUserId());
+        return map;
+    }
+}
@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.List;
 
 @RestController
 @RequestMapping("/auth/users")
@@ -17,12 +18,13 @@ public class UserController {
     @Autowired
     private AuthService authService;
 
+    private static final int MAX_BATCH_SIZE = 500;
+
     @GetMapping("/{userId}")
     public ResponseEntity<UserDTO> getUserById(@PathVariable Long userId) {
         try {
-            log.info("👤 Fetching user details for userId: {}", userId);
-            UserDTO user = (UserDTO) authService.getUserById(userId);
-            log.info("✅ User details retrieved for userId: {}", userId);
+            log.debug("Fetching user details for userId: {}", userId);
+            UserDTO user = authService.getUserById(userId);
             return ResponseEntity.ok(user);
         } catch (Exception e) {
             log.error("❌ Failed to fetch user (userId: {}): {}", userId, e.getMessage());
@@ -35,7 +37,7 @@ public class UserController {
             @RequestHeader("X-User-Id") Long userId) {
         try {
             log.info("👤 Fetching user profile for userId: {}", userId);
-            UserDTO user = (UserDTO) authService.getUserById(userId);
+            UserDTO user = authService.getUserById(userId);
             log.info("✅ User profile retrieved for userId: {}", userId);
             return ResponseEntity.ok(user);
         } catch (Exception e) {
@@ -44,6 +46,23 @@ public class UserController {
         }
     }
 
+    /**
+     * Resolve a list of user ids in one call (e.g. every customer on an admin order listing).
+     * Unknown ids are omitted from the response.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> getUsersByIds(@RequestBody List<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        if (userIds.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body(java.util.Map.of(
+                    "error", "At most " + MAX_BATCH_SIZE + " user ids per request"));
+        }
+        log.debug("Batch user lookup for {} ids", userIds.size());
+        return ResponseEntity.ok(authService.getUsersByIds(userIds));
+    }
+
     @PutMapping("/{userId}")
     public ResponseEntity<?> updateUser(
             @PathVariable Long userId,
@@ -0,0 +1,62 @@
+package com.medicart.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Metadata for an uploaded prescription. The file itself lives in the
+ * {@code PrescriptionStore} under {@link #sha256}.
+ * Downloads resolve by primary key; history pages use the (user_id, uploaded_at) index.
+ */
+@Entity
+@Table(name = "prescriptions", indexes = {
+    @Index(name = "idx_prescriptions_user_uploaded", columnList = "user_id, uploaded_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Prescription {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    /** PENDING, READY, UNSUPPORTED or FAILED; null for rows uploaded before renditions existed */
+    @Column(name = "rendition_status", length = 16)
+    private String renditionStatus;
+
+    @Column(name = "thumbnail_sha256", length = 64)
+    private String thumbnailSha256;
+
+    @Column(name = "preview_sha256", length = 64)
+    private String previewSha256;
+
+    @Column(name = "uploaded_at", nullable = false, updatable = false)
+    private LocalDateTime uploadedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (uploadedAt == null) {
+            uploadedAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.medicart.auth.otp;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded in-process OTP store.
+ *
+ * Entries live in an insertion-ordered map; re-issuing an OTP moves the email to the
+ * tail. Every code shares the same TTL, so the head of the map is always the entry
+ * that expires first: a sweep only walks expired entries and stops at the first
+ * live one. When {@code maxEntries} is reached the oldest entry is dropped, so
+ * memory stays bounded no matter how many distinct emails request a code.
+ */
+public class InMemoryOtpStore implements OtpStore {
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, OtpEntry> entries;
+
+    public InMemoryOtpStore(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, OtpEntry> eldest) {
+                return size() > InMemoryOtpStore.this.maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized void put(String email, OtpEntry entry) {
+        // Remove first so a re-issued code moves to the tail of the expiry order
+        entries.remove(email);
+        entries.put(email, entry);
+    }
+
+    @Override
+    public synchronized Optional<OtpEntry> get(String email) {
+        return Optional.ofNullable(entries.get(email));
+    }
+
+    @Override
+    public synchronized boolean remove(String email) {
+        return entries.remove(email) != null;
+    }
+
+    @Override
+    public synchronized int evictExpired(long nowMillis) {
+        int removed = 0;
+        Iterator<OtpEntry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (!it.next().isExpired(nowMillis)) {
+                break;
+            }
+            it.remove();
+            removed++;
+        }
+        return removed;
+    }
+
+    @Override
+    public synchronized long size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,59 @@
+package com.medicart.auth.otp;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * OTP store backed by the auth-service database so that all replicas share state.
+ *
+ * The table is created on startup if missing. Expired rows are deleted by the
+ * periodic sweep in {@code OtpService}; the primary key on {@code email} keeps at
+ * most one row per address.
+ */
+public class JdbcOtpStore implements OtpStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcOtpStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS otp_codes ("
+                + "email VARCHAR(255) NOT NULL PRIMARY KEY, "
+                + "otp VARCHAR(16) NOT NULL, "
+                + "expires_at BIGINT NOT NULL, "
+                + "INDEX idx_otp_codes_expires_at (expires_at))");
+    }
+
+    @Override
+    public void put(String email, OtpEntry entry) {
+        jdbcTemplate.update("INSERT INTO otp_codes (email, otp, expires_at) VALUES (?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE otp = VALUES(otp), expires_at = VALUES(expires_at)",
+                email, entry.otp(), entry.expiresAtMillis());
+    }
+
+    @Override
+    public Optional<OtpEntry> get(String email) {
+        List<OtpEntry> rows = jdbcTemplate.query(
+                "SELECT otp, expires_at FROM otp_codes WHERE email = ?",
+                (rs, rowNum) -> new OtpEntry(rs.getString("otp"), rs.getLong("expires_at")),
+                email);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public boolean remove(String email) {
+        return jdbcTemplate.update("DELETE FROM otp_codes WHERE email = ?", email) > 0;
+    }
+
+    @Override
+    public int evictExpired(long nowMillis) {
+        return jdbcTemplate.update("DELETE FROM otp_codes WHERE expires_at < ?", nowMillis);
+    }
+
+    @Override
+    public long size() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM otp_codes", Long.class);
+        return count != null ? count : 0L;
+    }
+}
@@ -0,0 +1,11 @@
+package com.medicart.auth.otp;
+
+/**
+ * A single issued OTP and the epoch-millis instant after which it is no longer valid.
+ */
+public record OtpEntry(String otp, long expiresAtMillis) {
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis > expiresAtMillis;
+    }
+}
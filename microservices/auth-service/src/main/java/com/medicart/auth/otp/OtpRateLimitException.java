@@ -0,0 +1,18 @@
+package com.medicart.auth.otp;
+
+/**
+ * Thrown when an OTP request exceeds the per-email or per-IP send rate.
+ */
+public class OtpRateLimitException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OtpRateLimitException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
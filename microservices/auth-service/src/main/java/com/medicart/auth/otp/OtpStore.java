@@ -0,0 +1,39 @@
+package com.medicart.auth.otp;
+
+import java.util.Optional;
+
+/**
+ * Storage SPI for issued OTPs, keyed by email.
+ *
+ * The default {@link InMemoryOtpStore} is bounded and local to one auth-service
+ * instance. {@link JdbcOtpStore} keeps the codes in MySQL so every replica behind
+ * the gateway can verify an OTP issued by any other one.
+ * Select the implementation with {@code otp.store=memory|jdbc}.
+ */
+public interface OtpStore {
+
+    /**
+     * Store (or replace) the OTP for the given email.
+     */
+    void put(String email, OtpEntry entry);
+
+    /**
+     * Look up the OTP for the given email, expired or not.
+     */
+    Optional<OtpEntry> get(String email);
+
+    /**
+     * Remove the OTP for the given email. Returns true if one was present.
+     */
+    boolean remove(String email);
+
+    /**
+     * Drop every entry that expired before {@code nowMillis}. Returns the number removed.
+     */
+    int evictExpired(long nowMillis);
+
+    /**
+     * Number of entries currently held.
+     */
+    long size();
+}
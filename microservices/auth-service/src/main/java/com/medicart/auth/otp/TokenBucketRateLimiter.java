@@ -0,0 +1,69 @@
+package com.medicart.auth.otp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keyed token-bucket limiter with lazy refill.
+ *
+ * Each key gets a bucket of {@code capacity} tokens that refills continuously at
+ * {@code capacity / refillPeriodMillis}. Buckets are only touched when a request for
+ * that key arrives, so there is no background refill work. The bucket map is an
+ * access-ordered LRU capped at {@code maxKeys}; a bucket that falls off the end has
+ * been idle the longest and would be full again anyway.
+ */
+public class TokenBucketRateLimiter {
+
+    private final int capacity;
+    private final long refillPeriodMillis;
+    private final LinkedHashMap<String, Bucket> buckets;
+
+    public TokenBucketRateLimiter(int capacity, long refillPeriodMillis, int maxKeys) {
+        if (capacity <= 0 || refillPeriodMillis <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("capacity, refillPeriodMillis and maxKeys must be positive");
+        }
+        this.capacity = capacity;
+        this.refillPeriodMillis = refillPeriodMillis;
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    /**
+     * Try to take one token for {@code key}.
+     *
+     * @return 0 if the request is allowed, otherwise the number of milliseconds until
+     *         a token becomes available
+     */
+    public synchronized long tryAcquire(String key, long nowMillis) {
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, nowMillis));
+        bucket.refill(nowMillis);
+        if (bucket.tokens >= 1.0) {
+            bucket.tokens -= 1.0;
+            return 0L;
+        }
+        double missing = 1.0 - bucket.tokens;
+        return (long) Math.ceil(missing * refillPeriodMillis / capacity);
+    }
+
+    private final class Bucket {
+        double tokens;
+        long lastRefillMillis;
+
+        Bucket(double tokens, long nowMillis) {
+            this.tokens = tokens;
+            this.lastRefillMillis = nowMillis;
+        }
+
+        void refill(long nowMillis) {
+            long elapsed = nowMillis - lastRefillMillis;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + (double) elapsed * capacity / refillPeriodMillis);
+                lastRefillMillis = nowMillis;
+            }
+        }
+    }
+}
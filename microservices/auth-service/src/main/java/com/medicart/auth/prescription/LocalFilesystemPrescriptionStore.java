@@ -0,0 +1,111 @@
+package com.medicart.auth.prescription;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * {@link PrescriptionStore} on the local filesystem.
+ *
+ * Uploads are streamed to a temp file under {@code <root>/tmp} while the SHA-256 is
+ * computed, then atomically moved to {@code <root>/ab/cd/abcd...}. If that path
+ * already exists the content is identical and the temp file is simply discarded.
+ */
+public class LocalFilesystemPrescriptionStore implements PrescriptionStore {
+    private static final Logger log = LoggerFactory.getLogger(LocalFilesystemPrescriptionStore.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path tmpDir;
+
+    public LocalFilesystemPrescriptionStore(Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.tmpDir = this.root.resolve("tmp");
+        Files.createDirectories(tmpDir);
+        log.info("Prescription store root: {}", this.root);
+    }
+
+    @Override
+    public StoredContent store(InputStream content, long maxBytes) throws IOException {
+        MessageDigest digest = newSha256();
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+        long size = 0;
+        try {
+            try (DigestInputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(tmp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException("File size exceeds " + maxBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = pathFor(sha256);
+            if (Files.exists(target)) {
+                Files.delete(tmp);
+                return new StoredContent(sha256, size, true);
+            }
+
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Another upload of the same content won the race
+                Files.deleteIfExists(tmp);
+                return new StoredContent(sha256, size, true);
+            }
+            return new StoredContent(sha256, size, false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    @Override
+    public Resource load(String sha256) {
+        return new FileSystemResource(pathFor(sha256));
+    }
+
+    @Override
+    public boolean exists(String sha256) {
+        return Files.exists(pathFor(sha256));
+    }
+
+    @Override
+    public void delete(String sha256) throws IOException {
+        Files.deleteIfExists(pathFor(sha256));
+    }
+
+    private Path pathFor(String sha256) {
+        if (sha256 == null || !sha256.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid content key");
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
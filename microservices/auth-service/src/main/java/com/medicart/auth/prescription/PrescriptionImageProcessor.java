@@ -0,0 +1,116 @@
+package com.medicart.auth.prescription;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Produces a small thumbnail and a recompressed preview of a prescription image
+ * using only the JDK's ImageIO codecs (JPEG, PNG, GIF, BMP, WBMP).
+ *
+ * Phone photos are large, so the source is decoded with ImageIO subsampling
+ * sized to the preview instead of at full resolution; this keeps the decoded
+ * raster, and so the worker's heap use, proportional to the preview size.
+ * Formats ImageIO cannot read (PDF, HEIC) yield {@link Optional#empty()}.
+ */
+public class PrescriptionImageProcessor {
+
+    private final int thumbnailSize;
+    private final int previewSize;
+    private final float thumbnailQuality;
+    private final float previewQuality;
+
+    public PrescriptionImageProcessor(int thumbnailSize, int previewSize,
+                                      float thumbnailQuality, float previewQuality) {
+        this.thumbnailSize = thumbnailSize;
+        this.previewSize = previewSize;
+        this.thumbnailQuality = thumbnailQuality;
+        this.previewQuality = previewQuality;
+    }
+
+    public record Renditions(byte[] thumbnailJpeg, byte[] previewJpeg) {
+    }
+
+    public Optional<Renditions> render(InputStream source) throws IOException {
+        BufferedImage image = readSubsampled(source);
+        if (image == null) {
+            return Optional.empty();
+        }
+        BufferedImage preview = scaleToFit(image, previewSize);
+        BufferedImage thumbnail = scaleToFit(preview, thumbnailSize);
+        return Optional.of(new Renditions(
+                writeJpeg(thumbnail, thumbnailQuality),
+                writeJpeg(preview, previewQuality)));
+    }
+
+    private BufferedImage readSubsampled(InputStream source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source)) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longest / previewSize);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scaleToFit(BufferedImage source, int maxSide) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxSide / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        // Always redraw into an opaque RGB raster: JPEG has no alpha channel
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, targetWidth, targetHeight, java.awt.Color.WHITE, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] writeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,35 @@
+package com.medicart.auth.prescription;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content-addressed blob store for prescription files.
+ *
+ * Content is keyed by its SHA-256, so uploading the same file twice stores it once.
+ * Metadata (owner, original file name, upload time) lives in the {@code prescriptions}
+ * table; the store only deals in bytes.
+ */
+public interface PrescriptionStore {
+
+    /**
+     * Stream {@code content} into the store without buffering it in memory.
+     *
+     * @param maxBytes uploads larger than this are rejected and nothing is kept
+     */
+    StoredContent store(InputStream content, long maxBytes) throws IOException;
+
+    /**
+     * Open stored content for reading. The resource does not exist if the key is unknown.
+     */
+    Resource load(String sha256);
+
+    boolean exists(String sha256);
+
+    /**
+     * Delete stored content. Callers must make sure no metadata row still references it.
+     */
+    void delete(String sha256) throws IOException;
+}
@@ -0,0 +1,11 @@
+package com.medicart.auth.prescription;
+
+/**
+ * Result of writing an upload to a {@link PrescriptionStore}.
+ *
+ * @param sha256       hex SHA-256 of the content, which is also its storage key
+ * @param size         number of bytes written
+ * @param deduplicated true if identical content was already stored and the upload was discarded
+ */
+public record StoredContent(String sha256, long size, boolean deduplicated) {
+}
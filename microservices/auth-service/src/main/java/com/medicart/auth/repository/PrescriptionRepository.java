@@ -0,0 +1,12 @@
+package com.medicart.auth.repository;
+
+import com.medicart.auth.entity.Prescription;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PrescriptionRepository extends JpaRepository<Prescription, String> {
+    Page<Prescription> findByUserIdOrderByUploadedAtDesc(Long userId, Pageable pageable);
+}
@@ -6,12 +6,20 @@ import com.medicart.auth.repository.RoleRepository;
 import com.medicart.common.dto.LoginRequest;
 import com.medicart.common.dto.LoginResponse;
 import com.medicart.common.dto.RegisterRequest;
+import com.medicart.common.dto.UserDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class AuthService {
@@ -29,6 +37,9 @@ public class AuthService {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private UserDtoCache userDtoCache;
+
     public LoginResponse register(RegisterRequest request) {
         try {
             log.info("🔐 Registration processing for email: {}", request.getEmail());
@@ -131,29 +142,67 @@ public class AuthService {
         return userRepository.findByEmail(email);
     }
 
-    public Object getUserById(Long userId) {
-        try {
-            log.info("👤 Fetching user data for userId: {}", userId);
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> {
-                        log.error("❌ User not found - userId: {}", userId);
-                        return new RuntimeException("User not found");
-                    });
-            
-            log.info("✅ User found - email: {}, name: {}", user.getEmail(), user.getFullName());
-            
-            return com.medicart.common.dto.UserDTO.builder()
-                    .id(user.getId())
-                    .email(user.getEmail())
-                    .fullName(user.getFullName())
-                    .phone(user.getPhone())
-                    .isActive(user.getIsActive())
-                    .role(user.getRole().getName())
-                    .build();
-        } catch (Exception e) {
-            log.error("❌ Error fetching user (userId: {}): {}", userId, e.getMessage(), e);
-            throw e;
+    /**
+     * Look up a user's profile, served from {@link UserDtoCache} when possible.
+     * This is called per order by other services, so it only logs at DEBUG.
+     */
+    public UserDTO getUserById(Long userId) {
+        UserDTO cached = userDtoCache.get(userId);
+        if (cached != null) {
+            log.debug("User cache hit - userId: {}", userId);
+            return cached;
         }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> {
+                    log.warn("User not found - userId: {}", userId);
+                    return new RuntimeException("User not found");
+                });
+
+        UserDTO userDTO = toUserDTO(user);
+        userDtoCache.put(userDTO);
+        log.debug("User cache miss - loaded userId: {}", userId);
+        return userDTO;
+    }
+
+    /**
+     * Resolve many users in one call. Cached profiles are returned directly and the
+     * rest are loaded with a single IN query. Results follow the order of
+     * {@code userIds}; unknown ids are skipped.
+     */
+    public List<UserDTO> getUsersByIds(Collection<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        Map<Long, UserDTO> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long id : ids) {
+            UserDTO cached = userDtoCache.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (User user : userRepository.findAllById(missing)) {
+                UserDTO userDTO = toUserDTO(user);
+                userDtoCache.put(userDTO);
+                found.put(user.getId(), userDTO);
+            }
+        }
+
+        log.debug("Batch user lookup - requested: {}, cached: {}, loaded: {}",
+                ids.size(), ids.size() - missing.size(), found.size() - (ids.size() - missing.size()));
+
+        List<UserDTO> result = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            UserDTO userDTO = found.get(id);
+            if (userDTO != null) {
+                result.add(userDTO);
+            }
+        }
+        return result;
     }
 
     public User updateUser(Long userId, RegisterRequest request) {
@@ -172,6 +221,7 @@ public class AuthService {
             user.setPhone(request.getPhone());
 
             user = userRepository.save(user);
+            userDtoCache.invalidate(userId);
             log.info("✅ User updated successfully - userId: {}", userId);
             
             return user;
@@ -180,4 +230,15 @@ public class AuthService {
             throw e;
         }
     }
+
+    private UserDTO toUserDTO(User user) {
+        return UserDTO.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .fullName(user.getFullName())
+                .phone(user.getPhone())
+                .isActive(user.getIsActive())
+                .role(user.getRole().getName())
+                .build();
+    }
 }
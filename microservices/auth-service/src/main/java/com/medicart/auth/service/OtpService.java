@@ -1,19 +1,27 @@
 package com.medicart.auth.service;
 
+import com.medicart.auth.config.OtpConfigProperties;
+import com.medicart.auth.otp.OtpEntry;
+import com.medicart.auth.otp.OtpRateLimitException;
+import com.medicart.auth.otp.OtpStore;
+import com.medicart.auth.otp.TokenBucketRateLimiter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import java.security.SecureRandom;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 /**
  * OTP Service - Mocked Email Implementation
  * 
  * This service generates and verifies OTPs without sending actual emails.
- * The OTP is stored in memory with a 10-minute expiration.
+ * OTPs are kept in the configured {@link OtpStore} with a 10-minute expiration
+ * (see {@code otp.*} in application.properties). Expired codes are swept on a
+ * schedule, and sends are throttled per email and per client IP.
  * In production, replace with actual SMTP email service.
  * 
  * For demo/evaluation purposes, OTP is logged to console and returned in response.
@@ -21,27 +29,45 @@ import java.util.concurrent.TimeUnit;
 @Service
 public class OtpService {
     private static final Logger log = LoggerFactory.getLogger(OtpService.class);
-    private static final int OTP_LENGTH = 6;
-    private static final long OTP_EXPIRY_MINUTES = 10;
+    private static final SecureRandom RANDOM = new SecureRandom();
 
-    // In-memory store: email -> {otp, timestamp}
-    private final Map<String, OtpData> otpStore = new ConcurrentHashMap<>();
+    private final OtpStore otpStore;
+    private final long expiryMinutes;
+    private final TokenBucketRateLimiter emailLimiter;
+    private final TokenBucketRateLimiter ipLimiter;
+
+    public OtpService(OtpStore otpStore, OtpConfigProperties properties) {
+        this.otpStore = otpStore;
+        this.expiryMinutes = properties.getExpiryMinutes();
+        this.emailLimiter = new TokenBucketRateLimiter(
+                properties.getEmailRateLimit().getCapacity(),
+                properties.getEmailRateLimit().getRefillPeriodMs(),
+                properties.getRateLimitMaxKeys());
+        this.ipLimiter = new TokenBucketRateLimiter(
+                properties.getIpRateLimit().getCapacity(),
+                properties.getIpRateLimit().getRefillPeriodMs(),
+                properties.getRateLimitMaxKeys());
+    }
 
     /**
      * Generate and store OTP for given email
      * Returns OTP in response for demo purposes (to show evaluator)
+     *
+     * @throws OtpRateLimitException if the email or client IP has exhausted its send budget
      */
-    public Map<String, Object> generateAndSendOtp(String email) {
+    public Map<String, Object> generateAndSendOtp(String email, String clientIp) {
+        long now = System.currentTimeMillis();
+        checkRateLimit(ipLimiter, clientIp, "client", now);
+        checkRateLimit(emailLimiter, email, "email", now);
+
         String otp = generateOtp();
-        long timestamp = System.currentTimeMillis();
-        
-        otpStore.put(email, new OtpData(otp, timestamp));
+        otpStore.put(email, new OtpEntry(otp, now + TimeUnit.MINUTES.toMillis(expiryMinutes)));
         
         // Log to console for demo purposes
         log.warn("============================================================");
         log.warn("🔐 OTP Generated for Email: {}", email);
         log.warn("📱 OTP Code: {}", otp);
-        log.warn("⏱️  Expires in: {} minutes", OTP_EXPIRY_MINUTES);
+        log.warn("⏱️  Expires in: {} minutes", expiryMinutes);
         log.warn("============================================================");
         
         // Return OTP in response for evaluation/demo (remove in production)
@@ -49,7 +75,7 @@ public class OtpService {
         response.put("message", "OTP sent successfully (mocked - no email sent due to SMTP restrictions)");
         response.put("email", email);
         response.put("demoOtp", otp); // For demo purposes only
-        response.put("expiryMinutes", OTP_EXPIRY_MINUTES);
+        response.put("expiryMinutes", expiryMinutes);
         response.put("note", "Email service is mocked. OTP shown here for demo purposes.");
         
         return response;
@@ -59,55 +85,63 @@ public class OtpService {
      * Verify OTP for given email
      */
     public boolean verifyOtp(String email, String providedOtp) {
-        OtpData storedOtpData = otpStore.get(email);
+        Optional<OtpEntry> stored = otpStore.get(email);
         
-        if (storedOtpData == null) {
+        if (stored.isEmpty()) {
             log.error("❌ OTP not found for email: {}", email);
             return false;
         }
         
+        OtpEntry storedOtp = stored.get();
+
         // Check expiry
-        long currentTime = System.currentTimeMillis();
-        long expiryTime = storedOtpData.timestamp + TimeUnit.MINUTES.toMillis(OTP_EXPIRY_MINUTES);
-        
-        if (currentTime > expiryTime) {
+        if (storedOtp.isExpired(System.currentTimeMillis())) {
             log.error("❌ OTP expired for email: {}", email);
             otpStore.remove(email);
             return false;
         }
         
         // Verify OTP
-        boolean isValid = storedOtpData.otp.equals(providedOtp);
+        boolean isValid = storedOtp.otp().equals(providedOtp);
         
         if (isValid) {
             log.info("✅ OTP verified successfully for email: {}", email);
             otpStore.remove(email); // Remove after successful verification
         } else {
-            log.error("❌ Invalid OTP for email: {}. Expected: {}, Got: {}", email, storedOtpData.otp, providedOtp);
+            log.error("❌ Invalid OTP for email: {}. Expected: {}, Got: {}", email, storedOtp.otp(), providedOtp);
         }
         
         return isValid;
     }
 
     /**
-     * Generate 6-digit random OTP
+     * Periodically drop expired OTPs so codes that are never verified do not linger
      */
-    private String generateOtp() {
-        Random random = new Random();
-        int otp = 100000 + random.nextInt(900000);
-        return String.valueOf(otp);
+    @Scheduled(fixedDelayString = "${otp.sweep-interval-ms:60000}")
+    public void evictExpiredOtps() {
+        int removed = otpStore.evictExpired(System.currentTimeMillis());
+        if (removed > 0) {
+            log.debug("Evicted {} expired OTPs ({} remaining)", removed, otpStore.size());
+        }
+    }
+
+    private void checkRateLimit(TokenBucketRateLimiter limiter, String key, String scope, long now) {
+        if (key == null) {
+            return;
+        }
+        long waitMillis = limiter.tryAcquire(key, now);
+        if (waitMillis > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis + 999));
+            log.warn("⚠️ OTP rate limit hit for {} {} - retry in {}s", scope, key, retryAfterSeconds);
+            throw new OtpRateLimitException("Too many OTP requests. Please try again later.", retryAfterSeconds);
+        }
     }
 
     /**
-     * Helper class to store OTP with timestamp
+     * Generate 6-digit random OTP
      */
-    private static class OtpData {
-        String otp;
-        long timestamp;
-
-        OtpData(String otp, long timestamp) {
-            this.otp = otp;
-            this.timestamp = timestamp;
-        }
+    private String generateOtp() {
+        int otp = 100000 + RANDOM.nextInt(900000);
+        return String.valueOf(otp);
     }
 }
@@ -0,0 +1,127 @@
+package com.medicart.auth.service;
+
+import com.medicart.auth.entity.Prescription;
+import com.medicart.auth.prescription.PrescriptionImageProcessor;
+import com.medicart.auth.prescription.PrescriptionStore;
+import com.medicart.auth.prescription.StoredContent;
+import com.medicart.auth.repository.PrescriptionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates thumbnail and preview renditions of uploaded prescriptions off the
+ * request thread.
+ *
+ * Work runs on a fixed-size pool with a bounded queue. If the queue is full the
+ * prescription simply stays PENDING and is resubmitted the next time someone asks
+ * for its thumbnail, so a burst of uploads can never pile up unbounded work.
+ */
+@Service
+public class PrescriptionRenditionService {
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionRenditionService.class);
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_READY = "READY";
+    public static final String STATUS_UNSUPPORTED = "UNSUPPORTED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private final PrescriptionStore prescriptionStore;
+    private final PrescriptionRepository prescriptionRepository;
+    private final PrescriptionImageProcessor imageProcessor;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public PrescriptionRenditionService(
+            PrescriptionStore prescriptionStore,
+            PrescriptionRepository prescriptionRepository,
+            @Value("${prescription.renditions.workers:2}") int workers,
+            @Value("${prescription.renditions.queue-capacity:100}") int queueCapacity,
+            @Value("${prescription.renditions.thumbnail-size:256}") int thumbnailSize,
+            @Value("${prescription.renditions.preview-size:1280}") int previewSize) {
+        this.prescriptionStore = prescriptionStore;
+        this.prescriptionRepository = prescriptionRepository;
+        this.imageProcessor = new PrescriptionImageProcessor(thumbnailSize, previewSize, 0.7f, 0.8f);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "prescription-rendition-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queue rendition work for a prescription. Duplicate submissions while a job is
+     * queued or running are ignored.
+     */
+    public void submit(Prescription prescription) {
+        String id = prescription.getId();
+        if (!inFlight.add(id)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    render(id);
+                } finally {
+                    inFlight.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(id);
+            log.warn("⚠️ Rendition queue full - prescriptionId: {} left PENDING", id);
+        }
+    }
+
+    private void render(String prescriptionId) {
+        Optional<Prescription> found = prescriptionRepository.findById(prescriptionId);
+        if (found.isEmpty()) {
+            return;
+        }
+        Prescription prescription = found.get();
+        try (InputStream original = prescriptionStore.load(prescription.getSha256()).getInputStream()) {
+            Optional<PrescriptionImageProcessor.Renditions> renditions = imageProcessor.render(original);
+            if (renditions.isEmpty()) {
+                // PDFs and formats ImageIO cannot decode: the JDK has no PDF rasterizer
+                prescription.setRenditionStatus(STATUS_UNSUPPORTED);
+            } else {
+                StoredContent thumbnail = storeBytes(renditions.get().thumbnailJpeg());
+                StoredContent preview = storeBytes(renditions.get().previewJpeg());
+                prescription.setThumbnailSha256(thumbnail.sha256());
+                prescription.setPreviewSha256(preview.sha256());
+                prescription.setRenditionStatus(STATUS_READY);
+            }
+            log.debug("Rendition {} for prescriptionId: {}", prescription.getRenditionStatus(), prescriptionId);
+        } catch (Exception e) {
+            log.error("❌ Rendition failed - prescriptionId: {}: {}", prescriptionId, e.getMessage(), e);
+            prescription.setRenditionStatus(STATUS_FAILED);
+        }
+        prescriptionRepository.save(prescription);
+    }
+
+    private StoredContent storeBytes(byte[] bytes) throws java.io.IOException {
+        return prescriptionStore.store(new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
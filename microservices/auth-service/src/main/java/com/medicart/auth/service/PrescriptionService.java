@@ -0,0 +1,104 @@
+package com.medicart.auth.service;
+
+import com.medicart.auth.entity.Prescription;
+import com.medicart.auth.prescription.PrescriptionStore;
+import com.medicart.auth.prescription.StoredContent;
+import com.medicart.auth.repository.PrescriptionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Prescription uploads and lookups. File bytes go to the {@link PrescriptionStore};
+ * ownership and file names go to the {@code prescriptions} table.
+ */
+@Service
+public class PrescriptionService {
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionService.class);
+
+    public static final long MAX_FILE_SIZE = 5 * 1024 * 1024;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final PrescriptionStore prescriptionStore;
+    private final PrescriptionRepository prescriptionRepository;
+    private final PrescriptionRenditionService renditionService;
+
+    public PrescriptionService(PrescriptionStore prescriptionStore,
+                               PrescriptionRepository prescriptionRepository,
+                               PrescriptionRenditionService renditionService) {
+        this.prescriptionStore = prescriptionStore;
+        this.prescriptionRepository = prescriptionRepository;
+        this.renditionService = renditionService;
+    }
+
+    public Prescription upload(Long userId, MultipartFile file) throws IOException {
+        StoredContent stored;
+        try (InputStream in = file.getInputStream()) {
+            stored = prescriptionStore.store(in, MAX_FILE_SIZE);
+        }
+        log.info("📁 File stored - sha256: {}, size: {} bytes, deduplicated: {}",
+                stored.sha256(), stored.size(), stored.deduplicated());
+
+        Prescription prescription = Prescription.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(userId)
+                .fileName(file.getOriginalFilename() != null ? file.getOriginalFilename() : "prescription")
+                .contentType(file.getContentType())
+                .fileSize(stored.size())
+                .sha256(stored.sha256())
+                .renditionStatus(PrescriptionRenditionService.STATUS_PENDING)
+                .build();
+        prescription = prescriptionRepository.save(prescription);
+        renditionService.submit(prescription);
+        return prescription;
+    }
+
+    /**
+     * One page of a user's upload history, newest first. Served from the
+     * (user_id, uploaded_at) index, so cost does not grow with other users' uploads.
+     */
+    public Page<Prescription> getUserPrescriptions(Long userId, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        return prescriptionRepository.findByUserIdOrderByUploadedAtDesc(
+                userId, PageRequest.of(Math.max(page, 0), pageSize));
+    }
+
+    public Optional<Prescription> findById(String prescriptionId) {
+        return prescriptionRepository.findById(prescriptionId);
+    }
+
+    public Resource openContent(Prescription prescription) {
+        return prescriptionStore.load(prescription.getSha256());
+    }
+
+    /**
+     * Content key of the requested rendition ("thumbnail" or "preview"), or empty if it
+     * is not available yet. Pending or pre-existing prescriptions are (re)queued.
+     */
+    public Optional<String> renditionKey(Prescription prescription, String variant) {
+        String status = prescription.getRenditionStatus();
+        if (status == null || PrescriptionRenditionService.STATUS_PENDING.equals(status)) {
+            renditionService.submit(prescription);
+            return Optional.empty();
+        }
+        if (!PrescriptionRenditionService.STATUS_READY.equals(status)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable("preview".equals(variant)
+                ? prescription.getPreviewSha256()
+                : prescription.getThumbnailSha256());
+    }
+
+    public Resource openContent(String sha256) {
+        return prescriptionStore.load(sha256);
+    }
+}
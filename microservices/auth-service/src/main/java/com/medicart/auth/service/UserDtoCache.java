@@ -0,0 +1,58 @@
+package com.medicart.auth.service;
+
+import com.medicart.common.dto.UserDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of {@link UserDTO}s keyed by user id.
+ *
+ * Profile lookups are called by other services once per order, so the hot path
+ * should not hit MySQL. Entries are evicted least-recently-used once
+ * {@code auth.user-cache.max-entries} is reached, expire after
+ * {@code auth.user-cache.ttl-ms}, and are invalidated explicitly whenever
+ * {@link AuthService#updateUser} changes a user.
+ */
+@Component
+public class UserDtoCache {
+
+    private final long ttlMillis;
+    private final LinkedHashMap<Long, CachedUser> entries;
+
+    public UserDtoCache(@Value("${auth.user-cache.max-entries:10000}") int maxEntries,
+                        @Value("${auth.user-cache.ttl-ms:300000}") long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedUser> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized UserDTO get(Long userId) {
+        CachedUser cached = entries.get(userId);
+        if (cached == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() > cached.expiresAtMillis) {
+            entries.remove(userId);
+            return null;
+        }
+        return cached.user;
+    }
+
+    public synchronized void put(UserDTO user) {
+        entries.put(user.getId(), new CachedUser(user, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public synchronized void invalidate(Long userId) {
+        entries.remove(userId);
+    }
+
+    private record CachedUser(UserDTO user, long expiresAtMillis) {
+    }
+}
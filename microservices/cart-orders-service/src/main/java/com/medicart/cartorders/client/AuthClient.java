@@ -4,12 +4,21 @@ import com.medicart.common.dto.UserDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import java.util.List;
 
 @FeignClient(name = "auth-service")
 public interface AuthClient {
     
     @GetMapping("/auth/users/{id}")
     UserDTO getUserById(@PathVariable("id") Long userId);
+
+    /**
+     * Resolve many users in one round trip; unknown ids are omitted.
+     */
+    @PostMapping("/auth/users/batch")
+    List<UserDTO> getUsersByIds(@RequestBody List<Long> userIds);
     
     @GetMapping("/auth/validate")
     String validateToken();
@@ -7,7 +7,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import java.util.List;
 
-@FeignClient(name = "admin-catalogue-service")
+@FeignClient(name = "admin-catalogue-service",
+        configuration = MedicineClientConfig.class,
+        fallbackFactory = MedicineClientFallbackFactory.class)
 public interface MedicineClient {
     
     @GetMapping("/medicines/{id}")
@@ -0,0 +1,33 @@
+package com.medicart.cartorders.client;
+
+import com.medicart.common.dto.MedicineDTO;
+import com.medicart.common.feign.FeignMessageConverters;
+import feign.codec.Decoder;
+import feign.optionals.OptionalDecoder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Feign configuration for {@link MedicineClient} only (deliberately not a
+ * {@code @Configuration}, so it is not picked up for other clients). Decodes as usual
+ * and keeps a copy of every medicine in the {@link MedicineSnapshotStore}.
+ */
+public class MedicineClientConfig {
+
+    @Bean
+    public Decoder medicineSnapshotDecoder(FeignMessageConverters feignMessageConverters,
+                                           ObjectProvider<HttpMessageConverterCustomizer> customizers,
+                                           MedicineSnapshotStore snapshotStore) {
+        Decoder delegate = new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(feignMessageConverters, customizers)));
+        return (response, type) -> {
+            Object body = delegate.decode(response, type);
+            if (body instanceof MedicineDTO medicine) {
+                snapshotStore.put(medicine);
+            }
+            return body;
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package com.medicart.cartorders.client;
+
+import com.medicart.common.dto.BatchDTO;
+import com.medicart.common.dto.MedicineDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Used when the catalogue fails, times out or its circuit is open. Medicine details
+ * fall back to the last snapshot; stock and batch lookups have no safe stale answer
+ * and fail fast instead.
+ */
+@Component
+public class MedicineClientFallbackFactory implements FallbackFactory<MedicineClient> {
+    private static final Logger log = LoggerFactory.getLogger(MedicineClientFallbackFactory.class);
+
+    private final MedicineSnapshotStore snapshotStore;
+
+    public MedicineClientFallbackFactory(MedicineSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    @Override
+    public MedicineClient create(Throwable cause) {
+        return new MedicineClient() {
+            @Override
+            public MedicineDTO getMedicineById(Long medicineId) {
+                MedicineDTO snapshot = snapshotStore.get(medicineId)
+                        .orElseThrow(() -> unavailable(cause));
+                log.warn("⚠️ Catalogue unavailable ({}), serving cached medicine {}", cause.getMessage(), medicineId);
+                return snapshot;
+            }
+
+            @Override
+            public List<BatchDTO> getAvailableBatches(Long medicineId) {
+                throw unavailable(cause);
+            }
+
+            @Override
+            public BatchDTO getBatchById(Long batchId) {
+                throw unavailable(cause);
+            }
+        };
+    }
+
+    private static RuntimeException unavailable(Throwable cause) {
+        return new RuntimeException("Catalogue service unavailable: " + cause.getMessage(), cause);
+    }
+}
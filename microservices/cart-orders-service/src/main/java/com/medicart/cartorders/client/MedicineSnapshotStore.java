@@ -0,0 +1,54 @@
+package com.medicart.cartorders.client;
+
+import com.medicart.common.dto.MedicineDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last good copy of every medicine read from the catalogue. Only the
+ * {@link MedicineClientFallbackFactory} reads it, so a cart can still be shown
+ * (with possibly outdated prices) while the catalogue is down or its circuit is open.
+ */
+@Component
+public class MedicineSnapshotStore {
+
+    private record Snapshot(MedicineDTO medicine, long takenAt) {
+    }
+
+    private final ConcurrentHashMap<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final long maxStaleMs;
+    private final int maxEntries;
+
+    public MedicineSnapshotStore(@Value("${catalogue.snapshot.max-stale-ms:3600000}") long maxStaleMs,
+                                 @Value("${catalogue.snapshot.max-entries:10000}") int maxEntries) {
+        this.maxStaleMs = maxStaleMs;
+        this.maxEntries = maxEntries;
+    }
+
+    public void put(MedicineDTO medicine) {
+        if (medicine.getId() == null) {
+            return;
+        }
+        if (snapshots.size() >= maxEntries && !snapshots.containsKey(medicine.getId())) {
+            evictOldest();
+        }
+        snapshots.put(medicine.getId(), new Snapshot(medicine, System.currentTimeMillis()));
+    }
+
+    public Optional<MedicineDTO> get(Long medicineId) {
+        Snapshot snapshot = snapshots.get(medicineId);
+        if (snapshot == null || System.currentTimeMillis() - snapshot.takenAt() > maxStaleMs) {
+            return Optional.empty();
+        }
+        return Optional.of(snapshot.medicine());
+    }
+
+    private void evictOldest() {
+        snapshots.entrySet().stream()
+                .min((a, b) -> Long.compare(a.getValue().takenAt(), b.getValue().takenAt()))
+                .ifPresent(oldest -> snapshots.remove(oldest.getKey(), oldest.getValue()));
+    }
+}
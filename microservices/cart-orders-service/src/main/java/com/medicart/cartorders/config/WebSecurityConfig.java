@@ -1,33 +1,43 @@
 package com.medicart.cartorders.config;
 
+import com.medicart.common.security.ServiceTokenAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class WebSecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   @Value("${medicart.service-auth.token}") String serviceToken) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(authorize -> authorize
+                // Service-to-service feeds (not routed by the gateway)
+                .requestMatchers("/internal/**").hasRole(ServiceTokenAuthenticationFilter.ROLE)
+
                 // Allow cart, order, and address endpoints (development mode)
                 .requestMatchers("/api/cart/**").permitAll()
                 .requestMatchers("/api/orders/**").permitAll()
                 .requestMatchers("/api/address/**").permitAll()
 
                 .requestMatchers("/health").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
 
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
             .httpBasic(basic -> basic.disable())
             .formLogin(form -> form.disable())
-            .logout(logout -> logout.disable());
+            .logout(logout -> logout.disable())
+            .addFilterBefore(new ServiceTokenAuthenticationFilter(serviceToken),
+                    UsernamePasswordAuthenticationFilter.class);
             
         return http.build();
     }
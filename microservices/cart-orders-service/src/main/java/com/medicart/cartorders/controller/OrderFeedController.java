@@ -0,0 +1,30 @@
+package com.medicart.cartorders.controller;
+
+import com.medicart.cartorders.service.OrderService;
+import com.medicart.common.dto.OrderDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Incremental order feed consumed by analytics-service. Internal: not routed by the
+ * gateway and only open to callers presenting the service token.
+ */
+@RestController
+@RequestMapping("/internal/orders")
+public class OrderFeedController {
+    @Autowired
+    private OrderService orderService;
+
+    @GetMapping("/feed")
+    public ResponseEntity<List<OrderDTO>> getOrderFeed(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "500") int limit) {
+        LocalDateTime from = since != null ? since : LocalDateTime.of(1970, 1, 1, 0, 0);
+        return ResponseEntity.ok(orderService.getOrderFeed(from, afterId, Math.min(Math.max(limit, 1), 1000)));
+    }
+}
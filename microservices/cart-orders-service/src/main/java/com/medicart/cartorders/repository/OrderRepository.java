@@ -1,12 +1,25 @@
 package com.medicart.cartorders.repository;
 
 import com.medicart.cartorders.entity.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserId(Long userId);
     List<Order> findByUserIdOrderByOrderDateDesc(Long userId);
+
+    /**
+     * Keyset page of orders changed after the (updatedAt, id) watermark, oldest first.
+     */
+    @Query("SELECT o FROM Order o WHERE o.updatedAt > :since OR (o.updatedAt = :since AND o.id > :afterId) "
+            + "ORDER BY o.updatedAt ASC, o.id ASC")
+    List<Order> findChangedSince(@Param("since") LocalDateTime since,
+                                 @Param("afterId") Long afterId,
+                                 Pageable pageable);
 }
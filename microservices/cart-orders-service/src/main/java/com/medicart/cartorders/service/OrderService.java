@@ -10,6 +10,7 @@ import com.medicart.cartorders.repository.OrderRepository;
 import com.medicart.common.dto.BatchDTO;
 import com.medicart.common.dto.OrderDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
@@ -130,6 +131,17 @@ public class OrderService {
         return convertToDTO(order);
     }
 
+    /**
+     * Change feed for analytics: orders whose updatedAt is after the given
+     * (since, afterId) watermark, oldest first, at most {@code limit} rows.
+     */
+    public List<OrderDTO> getOrderFeed(LocalDateTime since, Long afterId, int limit) {
+        return orderRepository.findChangedSince(since, afterId, PageRequest.of(0, limit))
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Update order status
      */
@@ -155,6 +167,7 @@ public class OrderService {
                 .totalAmount(order.getTotalAmount())
                 .status(order.getStatus())
                 .addressId(order.getAddressId())
+                .updatedAt(order.getUpdatedAt())
                 .items(order.getItems() != null ? order.getItems()
                         .stream()
                         .map(item -> com.medicart.common.dto.OrderItemDTO.builder()
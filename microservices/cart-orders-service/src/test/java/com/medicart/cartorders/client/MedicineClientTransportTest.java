@@ -0,0 +1,250 @@
+package com.medicart.cartorders.client;
+
+import com.medicart.cartorders.entity.CartItem;
+import com.medicart.cartorders.entity.Order;
+import com.medicart.cartorders.repository.CartItemRepository;
+import com.medicart.cartorders.repository.OrderRepository;
+import com.medicart.cartorders.service.CartService;
+import com.medicart.cartorders.service.OrderService;
+import com.medicart.common.dto.CartItemDTO;
+import com.medicart.common.dto.OrderDTO;
+import com.medicart.common.feign.FeignHttpProperties;
+import com.medicart.common.feign.JdkHttpFeignClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark of cart and checkout against the catalogue, over Feign's default
+ * HttpURLConnection transport and over {@link JdkHttpFeignClient}. A stub catalogue
+ * answers after a short delay; concurrent users each load their cart through
+ * {@link CartService#getUserCart} and check it out through
+ * {@link OrderService#placeOrder}, with the repositories mocked out.
+ *
+ * Opt-in, as it takes several seconds: {@code mvn test -Dmedicart.benchmarks=true}.
+ * Logs the timings; asserts only that both transports produce the same carts and orders.
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "medicart.benchmarks", matches = "true")
+class MedicineClientTransportTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MedicineClientTransportTest.class);
+
+    private static final String NODELAY = "sun.net.httpserver.nodelay";
+    private static final int CART_LINES = 10;
+    private static final int USERS = 16;
+    private static final int CARTS_PER_USER = 2;
+    /** More than one stub batch holds, so checkout allocates from two batches per line */
+    private static final int LINE_QUANTITY = 50;
+
+    private static String previousNodelay;
+
+    private HttpServer server;
+    private String url;
+
+    @BeforeAll
+    static void disableNagle() {
+        // Otherwise the stub's separate header and body writes wait on delayed ACKs
+        previousNodelay = System.setProperty(NODELAY, "true");
+    }
+
+    @AfterAll
+    static void restoreNagle() {
+        if (previousNodelay == null) {
+            System.clearProperty(NODELAY);
+        } else {
+            System.setProperty(NODELAY, previousNodelay);
+        }
+    }
+
+    @BeforeEach
+    void startCatalogue() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/medicines/", exchange -> {
+            long id = Long.parseLong(exchange.getRequestURI().getPath().substring("/medicines/".length()));
+            respond(exchange, "{\"id\":" + id + ",\"name\":\"Medicine " + id + "\",\"category\":\"Analgesic\","
+                    + "\"price\":" + (id * 2.5) + ",\"requiresRx\":false,\"inStock\":true,\"totalQuantity\":120}");
+        });
+        server.createContext("/batches/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            long medicineId = Long.parseLong(path.substring("/batches/".length(), path.lastIndexOf('/')));
+            StringBuilder body = new StringBuilder("[");
+            for (int i = 1; i <= 3; i++) {
+                body.append(i > 1 ? "," : "")
+                        .append("{\"id\":").append(medicineId * 10 + i)
+                        .append(",\"batchNo\":\"B-").append(medicineId).append('-').append(i)
+                        .append("\",\"expiryDate\":\"2027-0").append(i).append("-01\",\"qtyAvailable\":40")
+                        .append(",\"medicineId\":").append(medicineId).append('}');
+            }
+            respond(exchange, body.append(']').toString());
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopCatalogue() {
+        server.stop(0);
+    }
+
+    @Test
+    void cartAndCheckoutOverBothTransports() throws Exception {
+        Shop urlConnection = shop(client(new Client.Default(null, null)));
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().factory()))
+                .build();
+        Shop jdk = shop(client(new JdkHttpFeignClient(httpClient, new FeignHttpProperties())));
+
+        assertThat(jdk.carts.getUserCart(1L)).isEqualTo(urlConnection.carts.getUserCart(1L));
+        OrderDTO jdkOrder = jdk.orders.placeOrder(1L, 1L);
+        OrderDTO urlConnectionOrder = urlConnection.orders.placeOrder(1L, 1L);
+        assertThat(jdkOrder.getItems()).isEqualTo(urlConnectionOrder.getItems());
+        assertThat(jdkOrder.getTotalAmount()).isEqualTo(urlConnectionOrder.getTotalAmount());
+
+        // Warm up both paths before timing
+        run(urlConnection);
+        run(jdk);
+        long urlConnectionNanos = run(urlConnection);
+        long jdkNanos = run(jdk);
+
+        int carts = USERS * CARTS_PER_USER;
+        log.info("{} carts of {} lines, {} users: HttpURLConnection {} ms ({} ms/cart), JDK HttpClient {} ms ({} ms/cart)",
+                carts, CART_LINES, USERS,
+                String.format("%.1f", urlConnectionNanos / 1e6), String.format("%.2f", urlConnectionNanos / 1e6 / carts),
+                String.format("%.1f", jdkNanos / 1e6), String.format("%.2f", jdkNanos / 1e6 / carts));
+    }
+
+    /** Every user loads and checks out its carts; returns the wall time */
+    private static long run(Shop shop) throws Exception {
+        long start = System.nanoTime();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>();
+            for (int user = 0; user < USERS; user++) {
+                long userId = user;
+                running.add(users.submit(() -> {
+                    for (int cart = 0; cart < CARTS_PER_USER; cart++) {
+                        List<CartItemDTO> items = shop.carts.getUserCart(userId);
+                        assertThat(items).hasSize(CART_LINES);
+                        OrderDTO order = shop.orders.placeOrder(userId, userId);
+                        assertThat(order.getItems()).hasSize(CART_LINES * 2);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /** Cart and order services over the given client; every user's cart holds the same lines */
+    private static Shop shop(MedicineClient medicineClient) {
+        CartItemRepository cartItemRepository = mock(CartItemRepository.class);
+        when(cartItemRepository.findByUserId(anyLong())).thenAnswer(invocation -> cart(invocation.getArgument(0)));
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CartService carts = new CartService();
+        ReflectionTestUtils.setField(carts, "cartItemRepository", cartItemRepository);
+        ReflectionTestUtils.setField(carts, "medicineClient", medicineClient);
+        OrderService orders = new OrderService();
+        ReflectionTestUtils.setField(orders, "cartItemRepository", cartItemRepository);
+        ReflectionTestUtils.setField(orders, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(orders, "medicineClient", medicineClient);
+        return new Shop(carts, orders);
+    }
+
+    private static List<CartItem> cart(long userId) {
+        List<CartItem> items = new ArrayList<>();
+        for (long line = 1; line <= CART_LINES; line++) {
+            long medicineId = userId * 100 + line;
+            items.add(CartItem.builder()
+                    .id(medicineId)
+                    .userId(userId)
+                    .medicineId(medicineId)
+                    .quantity(LINE_QUANTITY)
+                    .price(medicineId * 2.5)
+                    .build());
+        }
+        return items;
+    }
+
+    private record Shop(CartService carts, OrderService orders) {
+    }
+
+    private MedicineClient client(Client transport) {
+        HttpMessageConverters converters = new HttpMessageConverters(false,
+                List.of(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build())));
+        SpringDecoder decoder = new SpringDecoder(() -> converters,
+                new DefaultListableBeanFactory().getBeanProvider(HttpMessageConverterCustomizer.class));
+        return Feign.builder()
+                .client(transport)
+                .contract(new SpringMvcContract())
+                .decoder(new ResponseEntityDecoder(decoder))
+                .target(MedicineClient.class, url);
+    }
+
+    /** Answers after 2 ms, gzipped when the caller asks for it */
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
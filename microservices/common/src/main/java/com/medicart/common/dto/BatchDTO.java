@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -23,4 +24,10 @@ public class BatchDTO {
 
     // 🔑 required for frontend display
     private String medicineName;
+
+    // 🔑 change-feed watermark for analytics ingestion
+    private LocalDateTime updatedAt;
+
+    // 🪦 set on change-feed entries for deleted batches (only id, medicineId, updatedAt filled)
+    private Boolean deleted;
 }
@@ -0,0 +1,32 @@
+package com.medicart.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpiryReportDTO {
+    private LocalDate asOf;
+    private Integer windowDays;
+
+    // Stocked batches whose expiry date is on or before asOf
+    private Long expiredBatches;
+    private Long expiredQuantity;
+
+    // Stocked batches expiring after asOf and within windowDays
+    private Long expiringBatches;
+    private Long quantityAtRisk;
+
+    private Long stockedBatches;
+    private Long totalQuantity;
+
+    private List<BatchDTO> expiring;
+    private List<BatchDTO> expired;
+}
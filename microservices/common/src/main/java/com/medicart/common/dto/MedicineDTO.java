@@ -20,4 +20,5 @@ public class MedicineDTO {
     private Boolean inStock;
     private String stockStatus;
     private Integer totalQuantity;
+    private Integer reorderThreshold;
 }
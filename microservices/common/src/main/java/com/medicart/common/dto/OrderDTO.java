@@ -19,4 +19,5 @@ public class OrderDTO {
     private String status;
     private Long addressId;
     private List<OrderItemDTO> items;
+    private LocalDateTime updatedAt;
 }
@@ -13,9 +13,11 @@ import java.time.LocalDateTime;
 public class PaymentDTO {
     private Long id;
     private Long orderId;
+    private Long userId;
     private Double amount;
     private String status;
     private String paymentMethod;
     private LocalDateTime paymentDate;
     private String transactionId;
+    private LocalDateTime updatedAt;
 }
@@ -16,4 +16,12 @@ public class ReportDTO {
     private String data;
     private LocalDateTime generatedAt;
     private String generatedBy;
+    private String status;
+    private String period;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private Long durationMs;
+    private String contentType;
+    private Long contentLength;
+    private String errorMessage;
 }
@@ -0,0 +1,24 @@
+package com.medicart.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockStateDTO {
+    public static final String LOW = "LOW";
+    public static final String OUT = "OUT";
+
+    private Long medicineId;
+    private String medicineName;
+    private String sku;
+
+    // OK, LOW or OUT, against the medicine's reorder threshold and counting only unexpired batches
+    private String level;
+    private Long usableQuantity;
+    private Integer reorderThreshold;
+}
@@ -0,0 +1,38 @@
+package com.medicart.common.feign;
+
+import feign.Feign;
+import feign.codec.Decoder;
+import feign.optionals.OptionalDecoder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Default decoder for every Feign client, the same chain Spring Cloud builds but
+ * over {@link FeignMessageConverters}, so only Feign responses tolerate unknown
+ * properties. Client-specific decoders should build on {@link FeignMessageConverters}
+ * too.
+ */
+@AutoConfiguration
+@ConditionalOnClass({Feign.class, SpringDecoder.class, HttpMessageConverters.class})
+public class FeignDecoderAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public FeignMessageConverters feignMessageConverters(ObjectProvider<HttpMessageConverters> messageConverters) {
+        return new FeignMessageConverters(messageConverters);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(Decoder.class)
+    public Decoder feignDecoder(FeignMessageConverters feignMessageConverters,
+                                ObjectProvider<HttpMessageConverterCustomizer> customizers) {
+        return new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(feignMessageConverters, customizers)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.medicart.common.feign;
+
+import feign.Client;
+import feign.Feign;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.LoadBalancerFeignRequestTransformer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Replaces Feign's default HttpURLConnection transport with {@link JdkHttpFeignClient}.
+ * Registered ahead of Spring Cloud's Feign load-balancer configuration so service
+ * names are still resolved through Eureka, just over the pooled client.
+ * Set {@code medicart.feign.http.enabled=false} to go back to the default transport.
+ */
+@AutoConfiguration(
+        afterName = "org.springframework.cloud.loadbalancer.config.BlockingLoadBalancerClientAutoConfiguration",
+        beforeName = "org.springframework.cloud.openfeign.loadbalancer.FeignLoadBalancerAutoConfiguration")
+@ConditionalOnClass(Feign.class)
+@ConditionalOnProperty(name = "medicart.feign.http.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(FeignHttpProperties.class)
+public class FeignHttpAutoConfiguration {
+    private static final Logger log = LoggerFactory.getLogger(FeignHttpAutoConfiguration.class);
+
+    @Bean
+    public HttpClient feignHttpClient(FeignHttpProperties properties) {
+        HttpClient.Version version = HttpClient.Version.valueOf(properties.getVersion());
+        log.info("🔗 Feign transport: JDK HttpClient {} (max {} in flight per host, gzip {})",
+                version, properties.getMaxRequestsPerHost(), properties.isCompression() ? "on" : "off");
+        return HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(Duration.ofMillis(properties.getConnectTimeoutMs()))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("feign-http-", 0).factory()))
+                .build();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(FeignBlockingLoadBalancerClient.class)
+    @ConditionalOnBean({LoadBalancerClient.class, LoadBalancerClientFactory.class})
+    static class LoadBalancedTransport {
+
+        @Bean
+        @ConditionalOnMissingBean(Client.class)
+        public Client feignClient(HttpClient feignHttpClient, FeignHttpProperties properties,
+                                  LoadBalancerClient loadBalancerClient,
+                                  LoadBalancerClientFactory loadBalancerClientFactory,
+                                  List<LoadBalancerFeignRequestTransformer> transformers) {
+            // Only the load-balancing wrapper is a bean: Feign expects exactly one Client
+            return new FeignBlockingLoadBalancerClient(new JdkHttpFeignClient(feignHttpClient, properties),
+                    loadBalancerClient, loadBalancerClientFactory, transformers);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.medicart.common.feign;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Transport settings for inter-service Feign calls ({@code medicart.feign.http.*}).
+ * Read and per-request timeouts still come from {@code feign.client.config.*}.
+ *
+ * The JDK client's connection pool is JVM-wide and configured only by system
+ * properties read when it is first used, so it is tuned with JVM flags rather than
+ * here: {@code -Djdk.httpclient.keepalive.timeout=<seconds>} for how long idle
+ * HTTP/1.1 connections are kept, {@code -Djdk.httpclient.connectionPoolSize=<n>} to
+ * cap idle connections (0, the default, is unbounded).
+ */
+@Data
+@ConfigurationProperties(prefix = "medicart.feign.http")
+public class FeignHttpProperties {
+
+    /** Use the JDK HttpClient transport; false falls back to Feign's HttpURLConnection client */
+    private boolean enabled = true;
+
+    /** HTTP_2 tries h2c and falls back to HTTP/1.1 when the server does not upgrade */
+    private String version = "HTTP_2";
+
+    private long connectTimeoutMs = 2000;
+
+    /** Requests allowed in flight per host:port; further callers wait up to acquireTimeoutMs */
+    private int maxRequestsPerHost = 64;
+    private long acquireTimeoutMs = 1000;
+
+    /** Ask for gzip responses and inflate them before decoding */
+    private boolean compression = true;
+}
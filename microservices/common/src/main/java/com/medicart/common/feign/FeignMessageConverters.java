@@ -0,0 +1,71 @@
+package com.medicart.common.feign;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The application's message converters as Feign should decode with them: the
+ * Jackson converter is swapped for one whose mapper skips properties the local DTO
+ * does not have, so a service can add response fields before its callers know
+ * about them. Each skipped (type, property) pair is logged once, so the drift is
+ * visible instead of silently absorbed. Inbound requests keep the shared mapper.
+ */
+public class FeignMessageConverters implements ObjectFactory<HttpMessageConverters> {
+    private static final Logger log = LoggerFactory.getLogger(FeignMessageConverters.class);
+
+    private final ObjectProvider<HttpMessageConverters> messageConverters;
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+    private volatile HttpMessageConverters converters;
+
+    public FeignMessageConverters(ObjectProvider<HttpMessageConverters> messageConverters) {
+        this.messageConverters = messageConverters;
+    }
+
+    @Override
+    public HttpMessageConverters getObject() {
+        HttpMessageConverters current = converters;
+        if (current == null) {
+            current = new HttpMessageConverters(false, messageConverters.getObject().getConverters().stream()
+                    .<HttpMessageConverter<?>>map(converter -> converter instanceof MappingJackson2HttpMessageConverter jackson
+                            ? new MappingJackson2HttpMessageConverter(lenient(jackson.getObjectMapper()))
+                            : converter)
+                    .toList());
+            converters = current;
+        }
+        return current;
+    }
+
+    private ObjectMapper lenient(ObjectMapper shared) {
+        return shared.copy()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .addHandler(new DeserializationProblemHandler() {
+                    @Override
+                    public boolean handleUnknownProperty(DeserializationContext ctxt, JsonParser p,
+                                                         JsonDeserializer<?> deserializer, Object beanOrClass,
+                                                         String propertyName) throws IOException {
+                        Class<?> type = beanOrClass instanceof Class<?> c ? c : beanOrClass.getClass();
+                        if (reported.add(type.getName() + "#" + propertyName)) {
+                            log.warn("⚠️ Feign response has property '{}' unknown to {}; skipping it",
+                                    propertyName, type.getSimpleName());
+                        }
+                        p.skipChildren();
+                        return true;
+                    }
+                });
+    }
+}
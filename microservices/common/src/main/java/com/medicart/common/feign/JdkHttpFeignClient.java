@@ -0,0 +1,177 @@
+package com.medicart.common.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Feign transport on one shared JDK {@link HttpClient}: pooled keep-alive
+ * connections, HTTP/2 multiplexing where the server accepts it, and gzip. The client
+ * runs its I/O on virtual threads.
+ *
+ * Each host:port gets a fixed number of in-flight permits. A permit is held until the
+ * response body is closed (Feign closes it after decoding), so it bounds concurrent
+ * exchanges and therefore open connections to one host.
+ */
+public class JdkHttpFeignClient implements Client {
+
+    /** Headers the JDK client sets itself and refuses from callers */
+    private static final Set<String> RESTRICTED_HEADERS = Set.of(
+            "connection", "content-length", "expect", "host", "upgrade");
+
+    private final HttpClient httpClient;
+    private final FeignHttpProperties properties;
+    private final ConcurrentHashMap<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    public JdkHttpFeignClient(HttpClient httpClient, FeignHttpProperties properties) {
+        this.httpClient = httpClient;
+        this.properties = properties;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        URI uri = URI.create(request.url());
+        Semaphore permits = hostPermits.computeIfAbsent(uri.getHost() + ":" + uri.getPort(),
+                host -> new Semaphore(properties.getMaxRequestsPerHost()));
+        try {
+            if (!permits.tryAcquire(properties.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new IOException("Too many requests in flight to " + uri.getHost() + ":" + uri.getPort());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a connection to " + uri.getHost());
+        }
+
+        boolean handedOff = false;
+        try {
+            HttpResponse<InputStream> response = httpClient.send(toHttpRequest(uri, request, options),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            Response feignResponse;
+            try {
+                feignResponse = toFeignResponse(request, response, permits);
+            } catch (IOException | RuntimeException e) {
+                // e.g. a corrupt gzip header: nobody will close this body, so free the connection here
+                closeQuietly(response.body(), e);
+                throw e;
+            }
+            handedOff = true;
+            return feignResponse;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted calling " + request.url());
+        } finally {
+            if (!handedOff) {
+                permits.release();
+            }
+        }
+    }
+
+    private HttpRequest toHttpRequest(URI uri, Request request, Request.Options options) {
+        byte[] body = request.body();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofMillis(options.readTimeoutMillis()))
+                .method(request.httpMethod().name(), body != null
+                        ? HttpRequest.BodyPublishers.ofByteArray(body)
+                        : HttpRequest.BodyPublishers.noBody());
+
+        boolean acceptEncodingSet = false;
+        for (Map.Entry<String, Collection<String>> header : request.headers().entrySet()) {
+            String name = header.getKey();
+            if (RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                continue;
+            }
+            acceptEncodingSet |= name.equalsIgnoreCase("Accept-Encoding");
+            for (String value : header.getValue()) {
+                builder.header(name, value);
+            }
+        }
+        if (properties.isCompression() && !acceptEncodingSet) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        return builder.build();
+    }
+
+    private Response toFeignResponse(Request request, HttpResponse<InputStream> response, Semaphore permits)
+            throws IOException {
+        Map<String, Collection<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        response.headers().map().forEach((name, values) -> {
+            if (!name.startsWith(":")) {
+                headers.put(name, values);
+            }
+        });
+
+        InputStream body = new PermitReleasingInputStream(response.body(), permits);
+        Integer length = response.headers().firstValueAsLong("Content-Length")
+                .stream().mapToObj(Math::toIntExact).findFirst().orElse(null);
+        boolean gzipped = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip")).orElse(false);
+        boolean hasBody = request.httpMethod() != Request.HttpMethod.HEAD
+                && response.statusCode() != 204 && response.statusCode() != 304
+                && (length == null || length > 0);
+        if (gzipped && hasBody) {
+            body = new GZIPInputStream(body);
+            headers.remove("Content-Encoding");
+            headers.remove("Content-Length");
+            length = null;
+        }
+
+        return Response.builder()
+                .status(response.statusCode())
+                .reason("")
+                .headers(headers)
+                .request(request)
+                .protocolVersion(response.version() == HttpClient.Version.HTTP_2
+                        ? Request.ProtocolVersion.HTTP_2 : Request.ProtocolVersion.HTTP_1_1)
+                .body(body, length)
+                .build();
+    }
+
+    private static void closeQuietly(InputStream body, Exception cause) {
+        try {
+            body.close();
+        } catch (IOException closeFailure) {
+            cause.addSuppressed(closeFailure);
+        }
+    }
+
+    /** Returns the host permit exactly once, when Feign closes the body */
+    private static final class PermitReleasingInputStream extends FilterInputStream {
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingInputStream(InputStream in, Semaphore permits) {
+            super(in);
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.medicart.common.json;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Shared JSON settings for every service's ObjectMapper (HTTP responses, Feign
+ * decoding, stored report payloads):
+ *
+ * - null fields are left out, which shrinks DTO lists with many optional fields;
+ *   clients must treat a missing field as null
+ * - no pretty printing
+ * - the fast double/BigDecimal parsers and writer, which matter for price-heavy lists
+ *
+ * Unknown properties are left to Spring Boot's default here; Feign responses get
+ * their own lenient copy of the mapper from {@code FeignMessageConverters}.
+ *
+ * Runs before Spring Boot's own customizer, so {@code spring.jackson.*} properties
+ * still override it. {@code medicart.json.compact=false} switches it off.
+ */
+@AutoConfiguration(before = JacksonAutoConfiguration.class)
+@ConditionalOnClass(Jackson2ObjectMapperBuilder.class)
+@ConditionalOnProperty(name = "medicart.json.compact", matchIfMissing = true)
+public class CompactJsonAutoConfiguration {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer compactJsonCustomizer() {
+        return new CompactJsonCustomizer();
+    }
+
+    static class CompactJsonCustomizer implements Jackson2ObjectMapperBuilderCustomizer, Ordered {
+
+        @Override
+        public void customize(Jackson2ObjectMapperBuilder builder) {
+            builder.factory(JsonFactory.builder()
+                            .enable(StreamReadFeature.USE_FAST_DOUBLE_PARSER)
+                            .enable(StreamReadFeature.USE_FAST_BIG_NUMBER_PARSER)
+                            .enable(StreamWriteFeature.USE_FAST_DOUBLE_WRITER)
+                            .build())
+                    .serializationInclusion(JsonInclude.Include.NON_NULL)
+                    .featuresToDisable(SerializationFeature.INDENT_OUTPUT);
+        }
+
+        @Override
+        public int getOrder() {
+            // Boot's property-driven customizer is order 0 and must run after this one
+            return -10;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.medicart.common.loadbalancer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Power-of-two-choices over peak-EWMA latency. For each request two instances are
+ * drawn at random and the one with the lower cost wins, where
+ *
+ *   cost = (peak-EWMA latency + 1) x (requests in flight + 1)
+ *
+ * Peak-EWMA jumps straight up to a slow response and decays back over
+ * {@code decayMs}, so a replica that starts pausing loses traffic on its next slow
+ * answer instead of after a long average catches up. Failures and 5xx count as
+ * {@code failurePenaltyMs}. Two random choices rather than the global minimum keep
+ * many independent callers from stampeding the same "best" instance.
+ *
+ * Latency and in-flight counts come from the load-balancer lifecycle callbacks that
+ * both the gateway and Feign's load-balancing client invoke around each request.
+ */
+public class LatencyAwareLoadBalancer
+        implements ReactorServiceInstanceLoadBalancer, LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+    private static final Logger log = LoggerFactory.getLogger(LatencyAwareLoadBalancer.class);
+
+    private final String serviceId;
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final double decayNanos;
+    private final double initialLatencyNanos;
+    private final double failurePenaltyNanos;
+    private final ConcurrentHashMap<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    public LatencyAwareLoadBalancer(String serviceId, ObjectProvider<ServiceInstanceListSupplier> suppliers,
+                                    long decayMs, long initialLatencyMs, long failurePenaltyMs) {
+        this.serviceId = serviceId;
+        this.suppliers = suppliers;
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(decayMs);
+        this.initialLatencyNanos = TimeUnit.MILLISECONDS.toNanos(initialLatencyMs);
+        this.failurePenaltyNanos = TimeUnit.MILLISECONDS.toNanos(failurePenaltyMs);
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::select);
+    }
+
+    private Response<ServiceInstance> select(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("⚠️ No instances available for {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (stats.size() > instances.size()) {
+            forgetGone(instances);
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        long now = System.nanoTime();
+        return new DefaultResponse(statsFor(a).cost(now) <= statsFor(b).cost(now) ? a : b);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext timed && timed.getRequestStartTime() == 0) {
+            timed.setRequestStartTime(System.nanoTime());
+        }
+        if (lbResponse.hasServer()) {
+            statsFor(lbResponse.getServer()).started();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        long now = System.nanoTime();
+        InstanceStats instanceStats = statsFor(lbResponse.getServer());
+        long elapsed = elapsedNanos(completionContext, now);
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            // Abandoned (e.g. a losing hedge): the real latency is at least what had elapsed
+            instanceStats.abandoned(now, elapsed);
+            return;
+        }
+        double latency = elapsed > 0 ? elapsed : initialLatencyNanos;
+        if (completionContext.status() == CompletionContext.Status.FAILED || isServerError(completionContext)) {
+            latency = Math.max(latency, failurePenaltyNanos);
+        }
+        instanceStats.finished(now, latency);
+    }
+
+    /** Time since the request started, or 0 if it was not timed */
+    private static long elapsedNanos(CompletionContext<Object, ServiceInstance, Object> completionContext, long now) {
+        if (completionContext.getLoadBalancerRequest() != null
+                && completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed
+                && timed.getRequestStartTime() > 0) {
+            return Math.max(0, now - timed.getRequestStartTime());
+        }
+        return 0;
+    }
+
+    private static boolean isServerError(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        return completionContext.getClientResponse() instanceof ResponseData response
+                && response.getHttpStatus() != null
+                && response.getHttpStatus().is5xxServerError();
+    }
+
+    private InstanceStats statsFor(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), key -> new InstanceStats(initialLatencyNanos, System.nanoTime()));
+    }
+
+    private void forgetGone(List<ServiceInstance> instances) {
+        Set<String> live = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            live.add(key(instance));
+        }
+        stats.keySet().retainAll(live);
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+
+    /** Peak-EWMA latency and in-flight count for one instance */
+    private final class InstanceStats {
+        private double ewmaNanos;
+        private long lastUpdate;
+        private int inFlight;
+
+        InstanceStats(double ewmaNanos, long now) {
+            this.ewmaNanos = ewmaNanos;
+            this.lastUpdate = now;
+        }
+
+        synchronized void started() {
+            inFlight++;
+        }
+
+        /** A censored sample can only raise the estimate; a shorter one says nothing new */
+        synchronized void abandoned(long now, double elapsedNanos) {
+            inFlight = Math.max(0, inFlight - 1);
+            if (elapsedNanos > ewmaNanos) {
+                ewmaNanos = elapsedNanos;
+                lastUpdate = now;
+            }
+        }
+
+        synchronized void finished(long now, double latencyNanos) {
+            inFlight = Math.max(0, inFlight - 1);
+            if (latencyNanos > ewmaNanos) {
+                ewmaNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-Math.max(0, now - lastUpdate) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+            }
+            lastUpdate = now;
+        }
+
+        synchronized double cost(long now) {
+            // Decay towards zero while idle so a once-slow instance is eventually retried
+            double weight = Math.exp(-Math.max(0, now - lastUpdate) / decayNanos);
+            return (ewmaNanos * weight + 1) * (inFlight + 1);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.medicart.common.loadbalancer;
+
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load-balancer configuration (not a {@code @Configuration}: it is only
+ * loaded into each service's child context through
+ * {@link LatencyAwareLoadBalancerAutoConfiguration}). Instance discovery and caching
+ * still come from Spring Cloud's defaults.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    // Declared as the concrete type so the lifecycle callbacks find it before first use
+    @Bean
+    public LatencyAwareLoadBalancer latencyAwareLoadBalancer(Environment environment,
+                                                             LoadBalancerClientFactory loadBalancerClientFactory) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(serviceId,
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                environment.getProperty("medicart.loadbalancer.decay-ms", Long.class, 10_000L),
+                environment.getProperty("medicart.loadbalancer.initial-latency-ms", Long.class, 50L),
+                environment.getProperty("medicart.loadbalancer.failure-penalty-ms", Long.class, 5_000L));
+    }
+}
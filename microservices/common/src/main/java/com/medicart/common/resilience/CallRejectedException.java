@@ -0,0 +1,12 @@
+package com.medicart.common.resilience;
+
+/**
+ * An outbound call was not attempted: its circuit is open, its bulkhead is full,
+ * or it was abandoned after the adaptive timeout.
+ */
+public class CallRejectedException extends RuntimeException {
+
+    public CallRejectedException(String message) {
+        super(message);
+    }
+}
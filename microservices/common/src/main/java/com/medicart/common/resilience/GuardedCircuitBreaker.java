@@ -0,0 +1,278 @@
+package com.medicart.common.resilience;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Guards every call to one downstream client with, in order:
+ *
+ * - a circuit breaker over the last {@code slidingWindowSize} calls; once open it
+ *   fails fast for {@code openDurationMs}, then lets {@code halfOpenProbes} calls
+ *   through and closes only if all of them succeed;
+ * - a semaphore bulkhead capping calls in flight, so a slow dependency can tie up at
+ *   most that many caller threads;
+ * - an adaptive timeout of the recent latency percentile times a multiplier. The call
+ *   itself runs on a virtual thread and the caller stops waiting at the timeout; the
+ *   bulkhead permit is only returned when the call really finishes.
+ *
+ * 4xx responses mean the dependency is healthy and are passed through untouched;
+ * everything else counts as a failure and goes to the fallback.
+ */
+public class GuardedCircuitBreaker implements CircuitBreaker {
+    private static final Logger log = LoggerFactory.getLogger(GuardedCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private enum Admission {
+        REJECTED, NORMAL, PROBE
+    }
+
+    private final String name;
+    private final ResilienceProperties.Policy policy;
+    private final ExecutorService executor;
+    private final Semaphore bulkhead;
+    private final LatencyTracker latencies;
+    private final MeterRegistry meterRegistry;
+    private final Timer latencyTimer;
+    private final ConcurrentHashMap<String, Counter> outcomeCounters = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public GuardedCircuitBreaker(String name, ResilienceProperties.Policy policy,
+                                 ExecutorService executor, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.policy = policy;
+        this.executor = executor;
+        this.bulkhead = new Semaphore(policy.getMaxConcurrentCalls());
+        this.latencies = new LatencyTracker(256);
+        this.window = new boolean[policy.getSlidingWindowSize()];
+        this.meterRegistry = meterRegistry;
+        this.latencyTimer = Timer.builder("medicart.outbound.latency")
+                .tag("client", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("medicart.outbound.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .description("0 closed, 1 half-open, 2 open")
+                .tag("client", name)
+                .register(meterRegistry);
+        Gauge.builder("medicart.outbound.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .tag("client", name)
+                .register(meterRegistry);
+        Gauge.builder("medicart.outbound.timeout", this, GuardedCircuitBreaker::currentTimeoutMs)
+                .baseUnit("milliseconds")
+                .tag("client", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T run(Supplier<T> toRun, Function<Throwable, T> fallback) {
+        Admission admission = admit();
+        if (admission == Admission.REJECTED) {
+            count("rejected_open");
+            return fallback.apply(new CallRejectedException("Circuit open for " + name));
+        }
+        try {
+            if (!bulkhead.tryAcquire(policy.getMaxWaitMs(), TimeUnit.MILLISECONDS)) {
+                abandonProbe(admission);
+                count("rejected_bulkhead");
+                return fallback.apply(new CallRejectedException("Too many concurrent calls to " + name));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandonProbe(admission);
+            return fallback.apply(e);
+        }
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    return toRun.get();
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            bulkhead.release();
+            abandonProbe(admission);
+            return fallback.apply(e);
+        }
+
+        long timeoutMs = currentTimeoutMs();
+        long start = System.nanoTime();
+        try {
+            T result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            onSuccess(admission, System.nanoTime() - start);
+            count("success");
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            // Censored at the timeout, so the percentile rises instead of spiralling down
+            latencies.record(timeoutMs);
+            onFailure(admission);
+            count("timeout");
+            return fallback.apply(new CallRejectedException(name + " did not answer within " + timeoutMs + " ms"));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof FeignException feignException
+                    && feignException.status() >= 400 && feignException.status() < 500) {
+                onSuccess(admission, System.nanoTime() - start);
+                count("client_error");
+                throw feignException;
+            }
+            onFailure(admission);
+            count("failure");
+            return fallback.apply(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            abandonProbe(admission);
+            return fallback.apply(e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /** Current per-call timeout: the max until enough latencies are known */
+    public long currentTimeoutMs() {
+        if (latencies.count() < policy.getLatencyWarmupCalls()) {
+            return policy.getMaxTimeoutMs();
+        }
+        long observed = latencies.percentile(policy.getTimeoutPercentile());
+        long adaptive = Math.round(observed * policy.getTimeoutMultiplier());
+        return Math.max(policy.getMinTimeoutMs(), Math.min(policy.getMaxTimeoutMs(), adaptive));
+    }
+
+    private synchronized Admission admit() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < policy.getOpenDurationMs()) {
+                return Admission.REJECTED;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probeSuccesses >= policy.getHalfOpenProbes()) {
+                return Admission.REJECTED;
+            }
+            probesInFlight++;
+            return Admission.PROBE;
+        }
+        return Admission.NORMAL;
+    }
+
+    private void onSuccess(Admission admission, long elapsedNanos) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        latencies.record(elapsedMs);
+        latencyTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        synchronized (this) {
+            if (admission == Admission.PROBE) {
+                if (state == State.HALF_OPEN) {
+                    probesInFlight--;
+                    probeSuccesses++;
+                    if (probeSuccesses >= policy.getHalfOpenProbes()) {
+                        transitionTo(State.CLOSED);
+                    }
+                }
+            } else if (state == State.CLOSED) {
+                recordOutcome(false);
+            }
+        }
+    }
+
+    private synchronized void onFailure(Admission admission) {
+        if (admission == Admission.PROBE) {
+            if (state == State.HALF_OPEN) {
+                transitionTo(State.OPEN);
+            }
+        } else if (state == State.CLOSED) {
+            recordOutcome(true);
+            if (windowCount >= policy.getMinimumCalls()
+                    && (double) windowFailures / windowCount >= policy.getFailureRateThreshold()) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    private synchronized void abandonProbe(Admission admission) {
+        if (admission == Admission.PROBE && state == State.HALF_OPEN) {
+            probesInFlight--;
+        }
+    }
+
+    private void recordOutcome(boolean failed) {
+        if (windowCount == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failed;
+        if (failed) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void transitionTo(State next) {
+        State previous = state;
+        state = next;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (next == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+        } else if (next == State.CLOSED) {
+            windowNext = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+        meterRegistry.counter("medicart.outbound.circuit.transitions", "client", name, "to", next.name())
+                .increment();
+        if (next == State.OPEN) {
+            log.warn("🔌 Circuit for {} opened ({} -> {})", name, previous, next);
+        } else {
+            log.info("🔌 Circuit for {} {} -> {}", name, previous, next);
+        }
+    }
+
+    private void count(String outcome) {
+        outcomeCounters.computeIfAbsent(outcome, key -> Counter.builder("medicart.outbound.calls")
+                        .tag("client", name)
+                        .tag("outcome", key)
+                        .register(meterRegistry))
+                .increment();
+    }
+}
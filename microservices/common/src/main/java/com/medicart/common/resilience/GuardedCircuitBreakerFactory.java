@@ -0,0 +1,72 @@
+package com.medicart.common.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.ConfigBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Spring Cloud's circuit breaker SPI backed by {@link GuardedCircuitBreaker}. With
+ * {@code spring.cloud.openfeign.circuitbreaker.group.enabled=true} Feign asks for a
+ * breaker per client name, so every method of one client shares one breaker, one
+ * bulkhead and one latency history.
+ */
+public class GuardedCircuitBreakerFactory
+        extends CircuitBreakerFactory<ResilienceProperties.Policy, GuardedCircuitBreakerFactory.PolicyBuilder> {
+
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbound-", 0).factory());
+    private final Map<String, GuardedCircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private Function<String, ResilienceProperties.Policy> defaultConfiguration;
+
+    public GuardedCircuitBreakerFactory(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.defaultConfiguration = properties::policyFor;
+    }
+
+    @Override
+    public GuardedCircuitBreaker create(String id) {
+        return create(id, id);
+    }
+
+    @Override
+    public GuardedCircuitBreaker create(String id, String groupName) {
+        return breakers.computeIfAbsent(groupName, name -> new GuardedCircuitBreaker(name,
+                getConfigurations().computeIfAbsent(name, defaultConfiguration), executor, meterRegistry));
+    }
+
+    @Override
+    protected PolicyBuilder configBuilder(String id) {
+        return new PolicyBuilder(properties.policyFor(id));
+    }
+
+    @Override
+    public void configureDefault(Function<String, ResilienceProperties.Policy> defaultConfiguration) {
+        this.defaultConfiguration = defaultConfiguration;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public static class PolicyBuilder implements ConfigBuilder<ResilienceProperties.Policy> {
+        private final ResilienceProperties.Policy policy;
+
+        PolicyBuilder(ResilienceProperties.Policy policy) {
+            this.policy = policy;
+        }
+
+        @Override
+        public ResilienceProperties.Policy build() {
+            return policy;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.medicart.common.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of the most recent calls in a ring buffer, with percentiles computed
+ * from a sorted copy that is refreshed every few samples rather than on every read.
+ */
+public class LatencyTracker {
+
+    private static final int REFRESH_EVERY = 16;
+
+    private final long[] samples;
+    private int next;
+    private int count;
+    private int sinceRefresh;
+    private long[] sorted = new long[0];
+
+    public LatencyTracker(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        sinceRefresh++;
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    /** Latency at quantile {@code q} (0-1) of the recent samples, or -1 if there are none */
+    public synchronized long percentile(double q) {
+        if (count == 0) {
+            return -1;
+        }
+        if (sinceRefresh >= REFRESH_EVERY || sorted.length != count) {
+            sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            sinceRefresh = 0;
+        }
+        int index = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
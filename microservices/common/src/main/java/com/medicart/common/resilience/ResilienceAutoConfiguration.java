@@ -0,0 +1,31 @@
+package com.medicart.common.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers the guarded circuit breaker for services that make Feign calls. Feign
+ * only routes through it when {@code spring.cloud.openfeign.circuitbreaker.enabled=true}.
+ */
+@AutoConfiguration
+@ConditionalOnClass({FeignClient.class, MeterRegistry.class})
+@ConditionalOnProperty(name = "medicart.resilience.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ResilienceAutoConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(CircuitBreakerFactory.class)
+    public GuardedCircuitBreakerFactory guardedCircuitBreakerFactory(ResilienceProperties properties,
+                                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        return new GuardedCircuitBreakerFactory(properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+}
@@ -0,0 +1,94 @@
+package com.medicart.common.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limits for outbound Feign calls. {@code medicart.resilience.defaults.*} applies to
+ * every client; {@code medicart.resilience.clients.<feign-client-name>.*} overrides
+ * individual fields for one client.
+ */
+@Data
+@ConfigurationProperties(prefix = "medicart.resilience")
+public class ResilienceProperties {
+
+    private Policy defaults = Policy.builtInDefaults();
+    private Map<String, Policy> clients = new HashMap<>();
+
+    /** Effective policy for a client: its overrides on top of the defaults */
+    public Policy policyFor(String client) {
+        Policy override = clients.get(client);
+        return override == null ? defaults : defaults.overriddenBy(override);
+    }
+
+    @Data
+    public static class Policy {
+        /** Bulkhead: calls allowed in flight at once */
+        private Integer maxConcurrentCalls;
+        /** How long a caller may wait for a bulkhead permit before being rejected */
+        private Long maxWaitMs;
+
+        /** Circuit opens when this share of the last window's calls failed (0-1) */
+        private Double failureRateThreshold;
+        /** Number of most recent calls the failure rate is computed over */
+        private Integer slidingWindowSize;
+        /** Calls needed in the window before the failure rate is trusted */
+        private Integer minimumCalls;
+        /** How long the circuit stays open before letting probes through */
+        private Long openDurationMs;
+        /** Probe calls allowed while half-open; all must succeed to close */
+        private Integer halfOpenProbes;
+
+        /** Timeout = latency percentile x multiplier, clamped to [min, max] */
+        private Double timeoutPercentile;
+        private Double timeoutMultiplier;
+        private Long minTimeoutMs;
+        private Long maxTimeoutMs;
+        /** Samples needed before the adaptive timeout replaces the max */
+        private Integer latencyWarmupCalls;
+
+        public Policy() {
+        }
+
+        static Policy builtInDefaults() {
+            Policy policy = new Policy();
+            policy.maxConcurrentCalls = 20;
+            policy.maxWaitMs = 50L;
+            policy.failureRateThreshold = 0.5;
+            policy.slidingWindowSize = 20;
+            policy.minimumCalls = 10;
+            policy.openDurationMs = 10_000L;
+            policy.halfOpenProbes = 3;
+            policy.timeoutPercentile = 0.99;
+            policy.timeoutMultiplier = 2.0;
+            policy.minTimeoutMs = 250L;
+            policy.maxTimeoutMs = 5_000L;
+            policy.latencyWarmupCalls = 20;
+            return policy;
+        }
+
+        Policy overriddenBy(Policy override) {
+            Policy merged = new Policy();
+            merged.maxConcurrentCalls = pick(override.maxConcurrentCalls, maxConcurrentCalls);
+            merged.maxWaitMs = pick(override.maxWaitMs, maxWaitMs);
+            merged.failureRateThreshold = pick(override.failureRateThreshold, failureRateThreshold);
+            merged.slidingWindowSize = pick(override.slidingWindowSize, slidingWindowSize);
+            merged.minimumCalls = pick(override.minimumCalls, minimumCalls);
+            merged.openDurationMs = pick(override.openDurationMs, openDurationMs);
+            merged.halfOpenProbes = pick(override.halfOpenProbes, halfOpenProbes);
+            merged.timeoutPercentile = pick(override.timeoutPercentile, timeoutPercentile);
+            merged.timeoutMultiplier = pick(override.timeoutMultiplier, timeoutMultiplier);
+            merged.minTimeoutMs = pick(override.minTimeoutMs, minTimeoutMs);
+            merged.maxTimeoutMs = pick(override.maxTimeoutMs, maxTimeoutMs);
+            merged.latencyWarmupCalls = pick(override.latencyWarmupCalls, latencyWarmupCalls);
+            return merged;
+        }
+
+        private static <T> T pick(T override, T fallback) {
+            return override != null ? override : fallback;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.medicart.common.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Authenticates calls from other Medicart services: a request carrying the shared
+ * {@link #HEADER} token is given {@code ROLE_SERVICE}. Anything else passes through
+ * unauthenticated, so the security chain decides, typically with
+ * {@code .requestMatchers("/internal/**").hasRole("SERVICE")}.
+ *
+ * The gateway routes no {@code /internal/**} path, so these endpoints are only
+ * reachable from inside the cluster, and then only with the token. A blank token
+ * authenticates nobody.
+ *
+ * Not a bean on purpose: add it to the service's security chain, so it is not also
+ * registered as a plain servlet filter.
+ */
+public class ServiceTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Service-Token";
+    public static final String ROLE = "SERVICE";
+
+    private final byte[] token;
+
+    public ServiceTokenAuthenticationFilter(String token) {
+        this.token = token == null ? new byte[0] : token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String presented = request.getHeader(HEADER);
+        if (presented != null && token.length > 0
+                && MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.UTF_8))) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    "service", null, List.of(new SimpleGrantedAuthority("ROLE_" + ROLE))));
+        }
+        filterChain.doFilter(request, response);
+    }
+}
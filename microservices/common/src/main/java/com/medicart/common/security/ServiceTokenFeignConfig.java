@@ -0,0 +1,20 @@
+package com.medicart.common.security;
+
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Feign configuration for clients of another service's {@code /internal/**}
+ * endpoints: sends the shared {@code medicart.service-auth.token} as
+ * {@link ServiceTokenAuthenticationFilter#HEADER}. Deliberately not a
+ * {@code @Configuration}; name it in {@code @FeignClient(configuration = ...)} so the
+ * token only goes to the clients that need it.
+ */
+public class ServiceTokenFeignConfig {
+
+    @Bean
+    public RequestInterceptor serviceTokenInterceptor(@Value("${medicart.service-auth.token}") String token) {
+        return template -> template.header(ServiceTokenAuthenticationFilter.HEADER, token);
+    }
+}
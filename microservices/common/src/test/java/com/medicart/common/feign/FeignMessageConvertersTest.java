@@ -0,0 +1,56 @@
+package com.medicart.common.feign;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medicart.common.dto.MedicineDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeignMessageConvertersTest {
+
+    private static final String DRIFTED = "{\"id\":7,\"name\":\"Ibuprofen\",\"addedUpstream\":{\"nested\":[1,2]}}";
+
+    private final MappingJackson2HttpMessageConverter shared = new MappingJackson2HttpMessageConverter(
+            new ObjectMapper().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+
+    private final FeignMessageConverters feignConverters = feignConverters(shared);
+
+    @Test
+    void feignSkipsUnknownPropertiesWhileSharedMapperStaysStrict() throws Exception {
+        MappingJackson2HttpMessageConverter feign =
+                (MappingJackson2HttpMessageConverter) feignConverters.getObject().getConverters().get(0);
+
+        MedicineDTO medicine = (MedicineDTO) feign.read(MedicineDTO.class, input(DRIFTED));
+
+        assertThat(medicine.getId()).isEqualTo(7L);
+        assertThat(medicine.getName()).isEqualTo("Ibuprofen");
+        assertThat(feign).isNotSameAs(shared);
+        assertThatThrownBy(() -> shared.read(MedicineDTO.class, input(DRIFTED)))
+                .isInstanceOf(HttpMessageNotReadableException.class);
+    }
+
+    @Test
+    void convertersAreBuiltOnce() {
+        assertThat(feignConverters.getObject()).isSameAs(feignConverters.getObject());
+    }
+
+    private static FeignMessageConverters feignConverters(MappingJackson2HttpMessageConverter shared) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("messageConverters", new HttpMessageConverters(false, List.of(shared)));
+        return new FeignMessageConverters(beanFactory.getBeanProvider(HttpMessageConverters.class));
+    }
+
+    private static MockHttpInputMessage input(String json) {
+        return new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
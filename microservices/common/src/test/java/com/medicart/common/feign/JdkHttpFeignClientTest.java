@@ -0,0 +1,147 @@
+package com.medicart.common.feign;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JdkHttpFeignClientTest {
+
+    private static final String JSON = "{\"id\":1,\"name\":\"Paracetamol\"}";
+
+    private HttpServer server;
+    private HttpClient httpClient;
+    private JdkHttpFeignClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/plain", exchange -> {
+            byte[] body = JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/gzip", exchange -> {
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            byte[] body = acceptEncoding != null && acceptEncoding.contains("gzip")
+                    ? gzip(JSON)
+                    : JSON.getBytes(StandardCharsets.UTF_8);
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/corrupt-gzip", exchange -> {
+            byte[] body = "not gzip at all".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        FeignHttpProperties properties = new FeignHttpProperties();
+        properties.setVersion("HTTP_1_1");
+        properties.setMaxRequestsPerHost(1);
+        properties.setAcquireTimeoutMs(100);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        client = new JdkHttpFeignClient(httpClient, properties);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        httpClient.close();
+    }
+
+    @Test
+    void permitIsHeldUntilTheBodyIsClosed() throws IOException {
+        Response first = client.execute(get("/plain"), options());
+
+        assertThatThrownBy(() -> client.execute(get("/plain"), options()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Too many requests in flight");
+
+        first.close();
+        try (Response second = client.execute(get("/plain"), options())) {
+            assertThat(second.status()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void closingTheBodyTwiceReleasesOnePermit() throws IOException {
+        Response response = client.execute(get("/plain"), options());
+        response.body().close();
+        response.body().close();
+
+        Response held = client.execute(get("/plain"), options());
+        assertThatThrownBy(() -> client.execute(get("/plain"), options()))
+                .isInstanceOf(IOException.class);
+        held.close();
+    }
+
+    @Test
+    void gzipResponsesAreInflated() throws IOException {
+        try (Response response = client.execute(get("/gzip"), options())) {
+            assertThat(response.headers()).doesNotContainKey("Content-Encoding");
+            assertThat(read(response)).isEqualTo(JSON);
+        }
+    }
+
+    @Test
+    void failedResponseConversionReleasesThePermit() throws IOException {
+        assertThatThrownBy(() -> client.execute(get("/corrupt-gzip"), options()))
+                .isInstanceOf(IOException.class);
+
+        try (Response response = client.execute(get("/plain"), options())) {
+            assertThat(read(response)).isEqualTo(JSON);
+        }
+    }
+
+    private Request get(String path) {
+        return Request.create(Request.HttpMethod.GET, "http://127.0.0.1:" + server.getAddress().getPort() + path,
+                Map.of("Accept", List.of("application/json")), null, StandardCharsets.UTF_8, null);
+    }
+
+    private static Request.Options options() {
+        return new Request.Options(1, TimeUnit.SECONDS, 2, TimeUnit.SECONDS, true);
+    }
+
+    private static String read(Response response) throws IOException {
+        try (InputStream body = response.body().asInputStream()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
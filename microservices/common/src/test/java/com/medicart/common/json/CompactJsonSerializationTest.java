@@ -0,0 +1,94 @@
+package com.medicart.common.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medicart.common.dto.MedicineDTO;
+import com.medicart.common.dto.OrderDTO;
+import com.medicart.common.dto.OrderItemDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Catalogue and order lists serialized with and without {@link CompactJsonAutoConfiguration}:
+ * the compact form is smaller, has no nulls or line breaks, and round-trips.
+ */
+class CompactJsonSerializationTest {
+
+    private final ObjectMapper plain = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper compact = compactMapper();
+
+    @Test
+    void medicineListsShrinkAndRoundTrip() throws Exception {
+        List<MedicineDTO> medicines = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            medicines.add(MedicineDTO.builder()
+                    .id(id)
+                    .name("Medicine " + id)
+                    .category(id % 3 == 0 ? "Antibiotic" : "Analgesic")
+                    .price(id * 1.37)
+                    .sku(id % 2 == 0 ? "SKU-" + id : null)
+                    .requiresRx(id % 5 == 0)
+                    .inStock(true)
+                    .totalQuantity((int) (id % 250))
+                    .build());
+        }
+
+        byte[] compactBytes = compactAndSmaller(medicines);
+
+        MedicineDTO[] decoded = compact.readValue(compactBytes, MedicineDTO[].class);
+        assertThat(Arrays.asList(decoded)).isEqualTo(medicines);
+    }
+
+    @Test
+    void orderListsShrinkAndRoundTrip() throws Exception {
+        LocalDateTime placed = LocalDateTime.of(2025, 3, 14, 9, 30);
+        List<OrderDTO> orders = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            List<OrderItemDTO> items = new ArrayList<>();
+            for (long line = 1; line <= 4; line++) {
+                items.add(OrderItemDTO.builder()
+                        .id(id * 10 + line)
+                        .medicineId(line * 7)
+                        .medicineName("Medicine " + line * 7)
+                        .quantity((int) line)
+                        .priceAtPurchase(line * 4.99)
+                        .build());
+            }
+            orders.add(OrderDTO.builder()
+                    .id(id)
+                    .userId(id % 40)
+                    .orderDate(placed.plusMinutes(id))
+                    .totalAmount(49.9)
+                    .status("PLACED")
+                    .items(items)
+                    .build());
+        }
+
+        byte[] compactBytes = compactAndSmaller(orders);
+
+        OrderDTO[] decoded = compact.readValue(compactBytes, OrderDTO[].class);
+        assertThat(Arrays.asList(decoded)).isEqualTo(orders);
+    }
+
+    /** Serializes with both mappers, checks the compact form, returns its bytes */
+    private byte[] compactAndSmaller(Object value) throws Exception {
+        byte[] plainBytes = plain.writeValueAsBytes(value);
+        byte[] compactBytes = compact.writeValueAsBytes(value);
+
+        assertThat(compactBytes.length).isLessThan(plainBytes.length);
+        assertThat(new String(compactBytes)).doesNotContain("null").doesNotContain("\n");
+        return compactBytes;
+    }
+
+    private static ObjectMapper compactMapper() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new CompactJsonAutoConfiguration.CompactJsonCustomizer().customize(builder);
+        return builder.build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.medicart.common.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyAwareLoadBalancerTest {
+
+    private static final long DECAY_MS = 20;
+
+    private final ServiceInstance fast = new DefaultServiceInstance("fast", "catalogue", "10.0.0.1", 8080, false);
+    private final ServiceInstance slow = new DefaultServiceInstance("slow", "catalogue", "10.0.0.2", 8080, false);
+
+    private final LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer("catalogue",
+            supplierOf(List.of(fast, slow)).getBeanProvider(ServiceInstanceListSupplier.class),
+            DECAY_MS, 10, 1000);
+
+    @Test
+    void slowInstanceLosesShareThenRecoversAfterDecay() throws InterruptedException {
+        int slowPicks = 0;
+        for (int i = 0; i < 200; i++) {
+            ServiceInstance chosen = call(instance -> instance == slow ? 200 : 2);
+            slowPicks += chosen == slow ? 1 : 0;
+        }
+        assertThat(slowPicks).as("slow picks while slow").isLessThan(20);
+
+        // Idle for many decay periods: both estimates fall back towards zero
+        Thread.sleep(DECAY_MS * 10);
+
+        // Spread over several decay periods, so a jittery sample does not pin the share
+        slowPicks = 0;
+        for (int i = 0; i < 200; i++) {
+            ServiceInstance chosen = call(instance -> 2);
+            slowPicks += chosen == slow ? 1 : 0;
+            Thread.sleep(1);
+        }
+        assertThat(slowPicks).as("slow picks after recovering").isGreaterThan(40);
+    }
+
+    @Test
+    void failuresCountAsThePenalty() {
+        for (int i = 0; i < 20; i++) {
+            call(instance -> 2);
+        }
+
+        // One failed call on the second instance makes it cost the 1s penalty
+        Response<ServiceInstance> response = new DefaultResponse(slow);
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        loadBalancer.onStartRequest(request, response);
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED,
+                new RuntimeException("connection reset"), request, response));
+
+        assertThat(choose()).isEqualTo(fast);
+    }
+
+    @Test
+    void discardedCallRaisesTheEstimateAsALowerBound() {
+        for (int i = 0; i < 20; i++) {
+            call(instance -> 5);
+        }
+
+        // A hedge on the second instance was abandoned after 300 ms without answering
+        Response<ServiceInstance> response = new DefaultResponse(slow);
+        Request<Object> request = startedAgo(300);
+        loadBalancer.onStartRequest(request, response);
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.DISCARD, request, response));
+
+        assertThat(choose()).isEqualTo(fast);
+    }
+
+    @Test
+    void emptyInstanceListHasNoServer() {
+        LatencyAwareLoadBalancer empty = new LatencyAwareLoadBalancer("catalogue",
+                supplierOf(List.of()).getBeanProvider(ServiceInstanceListSupplier.class), DECAY_MS, 10, 1000);
+
+        assertThat(empty.choose(new DefaultRequest<>()).block().hasServer()).isFalse();
+    }
+
+    /** Chooses an instance and completes a successful call on it that took the given time */
+    private ServiceInstance call(ToLongFunction<ServiceInstance> latencyMs) {
+        ServiceInstance chosen = choose();
+        Response<ServiceInstance> response = new DefaultResponse(chosen);
+        Request<Object> request = startedAgo(latencyMs.applyAsLong(chosen));
+        loadBalancer.onStartRequest(request, response);
+        loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+        return chosen;
+    }
+
+    private ServiceInstance choose() {
+        return loadBalancer.choose(new DefaultRequest<>()).block().getServer();
+    }
+
+    private static Request<Object> startedAgo(long ms) {
+        DefaultRequestContext context = new DefaultRequestContext();
+        context.setRequestStartTime(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(ms));
+        return new DefaultRequest<>(context);
+    }
+
+    private static DefaultListableBeanFactory supplierOf(List<ServiceInstance> instances) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("supplier", new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "catalogue";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(instances);
+            }
+        });
+        return beanFactory;
+    }
+}
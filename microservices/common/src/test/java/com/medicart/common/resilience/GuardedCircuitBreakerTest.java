@@ -0,0 +1,171 @@
+package com.medicart.common.resilience;
+
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GuardedCircuitBreakerTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void opensOnceTheFailureRateIsReachedAndFailsFast() {
+        GuardedCircuitBreaker breaker = breaker(policy());
+        breaker.run(() -> "ok", error -> "fallback");
+        breaker.run(() -> "ok", error -> "fallback");
+        breaker.run(this::fail, error -> "fallback");
+        assertThat(breaker.getState()).isEqualTo(GuardedCircuitBreaker.State.CLOSED);
+
+        breaker.run(this::fail, error -> "fallback");
+        assertThat(breaker.getState()).isEqualTo(GuardedCircuitBreaker.State.OPEN);
+
+        AtomicInteger calls = new AtomicInteger();
+        String result = breaker.run(() -> "called " + calls.incrementAndGet(),
+                error -> error instanceof CallRejectedException ? "rejected" : "other");
+        assertThat(result).isEqualTo("rejected");
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    void closesWhenEveryHalfOpenProbeSucceeds() throws InterruptedException {
+        GuardedCircuitBreaker breaker = opened(policy());
+        Thread.sleep(60);
+
+        assertThat(breaker.run(() -> "probe", error -> "fallback")).isEqualTo("probe");
+        assertThat(breaker.getState()).isEqualTo(GuardedCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.run(() -> "probe", error -> "fallback")).isEqualTo("probe");
+        assertThat(breaker.getState()).isEqualTo(GuardedCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void reopensWhenAProbeFails() throws InterruptedException {
+        GuardedCircuitBreaker breaker = opened(policy());
+        Thread.sleep(60);
+
+        breaker.run(this::fail, error -> "fallback");
+
+        assertThat(breaker.getState()).isEqualTo(GuardedCircuitBreaker.State.OPEN);
+        assertThat(breaker.run(() -> "ok", error -> "rejected")).isEqualTo("rejected");
+    }
+
+    @Test
+    void clientErrorsPassThroughWithoutCountingAsFailures() {
+        GuardedCircuitBreaker breaker = breaker(policy());
+        FeignException notFound = new FeignException.NotFound("not found",
+                Request.create(Request.HttpMethod.GET, "http://catalogue/medicines/9", Map.of(), null,
+                        StandardCharsets.UTF_8, null),
+                null, Map.of());
+
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> breaker.run(() -> {
+                throw notFound;
+            }, error -> "fallback")).isSameAs(notFound);
+        }
+        assertThat(breaker.getState()).isEqualTo(GuardedCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void slowCallsTimeOutToTheFallbackAndCountAsFailures() {
+        ResilienceProperties.Policy policy = policy();
+        policy.setMinTimeoutMs(50L);
+        policy.setMaxTimeoutMs(50L);
+        GuardedCircuitBreaker breaker = breaker(policy);
+
+        for (int i = 0; i < 4; i++) {
+            String result = breaker.run(() -> {
+                sleep(500);
+                return "late";
+            }, error -> error instanceof CallRejectedException ? "timed out" : "other");
+            assertThat(result).isEqualTo("timed out");
+        }
+        assertThat(breaker.getState()).isEqualTo(GuardedCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheLimit() throws InterruptedException {
+        ResilienceProperties.Policy policy = policy();
+        policy.setMaxConcurrentCalls(1);
+        GuardedCircuitBreaker breaker = breaker(policy);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = Thread.ofVirtual().start(() -> breaker.run(() -> {
+            started.countDown();
+            await(release);
+            return "held";
+        }, error -> "fallback"));
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        String result = breaker.run(() -> "second",
+                error -> error instanceof CallRejectedException ? "rejected" : "other");
+        release.countDown();
+        holder.join();
+
+        assertThat(result).isEqualTo("rejected");
+        assertThat(breaker.run(() -> "third", error -> "fallback")).isEqualTo("third");
+    }
+
+    /** Window of 4, opens at 50% failures, 50 ms open, 2 probes, no waiting for the bulkhead */
+    private static ResilienceProperties.Policy policy() {
+        ResilienceProperties.Policy policy = ResilienceProperties.Policy.builtInDefaults();
+        policy.setSlidingWindowSize(4);
+        policy.setMinimumCalls(4);
+        policy.setFailureRateThreshold(0.5);
+        policy.setOpenDurationMs(50L);
+        policy.setHalfOpenProbes(2);
+        policy.setMaxWaitMs(0L);
+        return policy;
+    }
+
+    private GuardedCircuitBreaker breaker(ResilienceProperties.Policy policy) {
+        return new GuardedCircuitBreaker("catalogue", policy, executor, meterRegistry);
+    }
+
+    private GuardedCircuitBreaker opened(ResilienceProperties.Policy policy) {
+        GuardedCircuitBreaker breaker = breaker(policy);
+        for (int i = 0; i < 4; i++) {
+            breaker.run(this::fail, error -> "fallback");
+        }
+        assertThat(breaker.getState()).isEqualTo(GuardedCircuitBreaker.State.OPEN);
+        return breaker;
+    }
+
+    private String fail() {
+        throw new IllegalStateException("downstream unavailable");
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.medicart.common.security;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceTokenAuthenticationFilterTest {
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void matchingTokenAuthenticatesAsService() throws Exception {
+        Authentication authentication = filter("s3cret", "s3cret");
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_SERVICE");
+    }
+
+    @Test
+    void wrongMissingOrUnconfiguredTokenAuthenticatesNobody() throws Exception {
+        assertThat(filter("s3cret", "guess")).isNull();
+        assertThat(filter("s3cret", null)).isNull();
+        assertThat(filter("", "")).isNull();
+    }
+
+    /** Runs the filter and returns the authentication the rest of the chain saw */
+    private static Authentication filter(String configured, String presented) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/internal/orders/feed");
+        if (presented != null) {
+            request.addHeader(ServiceTokenAuthenticationFilter.HEADER, presented);
+        }
+        Authentication[] seen = new Authentication[1];
+        new ServiceTokenAuthenticationFilter(configured).doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain() {
+                    @Override
+                    public void doFilter(ServletRequest req, ServletResponse res) {
+                        seen[0] = SecurityContextHolder.getContext().getAuthentication();
+                    }
+                });
+        return seen[0];
+    }
+}
@@ -0,0 +1,31 @@
+package com.medicart.payment.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class PaymentExecutorConfig {
+
+    /**
+     * Runs the persist step after the gateway answers, off the gateway's own threads.
+     * When saturated the gateway thread records the outcome itself rather than dropping it.
+     */
+    @Bean(name = "paymentCompletionExecutor")
+    public ThreadPoolTaskExecutor paymentCompletionExecutor(
+            @Value("${payment.completion.threads:16}") int threads,
+            @Value("${payment.completion.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("payment-complete-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
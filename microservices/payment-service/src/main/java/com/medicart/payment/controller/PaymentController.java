@@ -10,6 +10,8 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/payment")
@@ -19,27 +21,27 @@ public class PaymentController {
     private PaymentService paymentService;
 
     @PostMapping("/process")
-    public ResponseEntity<Map<String, Object>> processPayment(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> processPayment(
             @RequestHeader("X-User-Id") Long userId,
             @RequestParam Long orderId,
             @RequestParam BigDecimal amount,
             @RequestParam String paymentMethod) {
-        try {
-            Payment payment = paymentService.processPayment(orderId, userId, amount, paymentMethod);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("paymentId", payment.getId());
-            response.put("status", payment.getPaymentStatus());
-            response.put("amount", payment.getAmount());
-            response.put("transactionId", payment.getTransactionId());
-            response.put("message", "Payment processed successfully");
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(400).body(error);
-        }
+        return paymentService.processPayment(orderId, userId, amount, paymentMethod)
+                .thenApply(payment -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("paymentId", payment.getId());
+                    response.put("status", payment.getPaymentStatus());
+                    response.put("amount", payment.getAmount());
+                    response.put("transactionId", payment.getTransactionId());
+                    response.put("message", switch (payment.getPaymentStatus()) {
+                        case SUCCESS -> "Payment processed successfully";
+                        case PROCESSING -> "Payment in progress";
+                        case REFUNDED -> "Payment already refunded";
+                        default -> "Payment failed";
+                    });
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(PaymentController::error);
     }
 
     @GetMapping("/{paymentId}")
@@ -77,21 +79,20 @@ public class PaymentController {
     }
 
     @PostMapping("/{paymentId}/refund")
-    public ResponseEntity<Map<String, Object>> refundPayment(@PathVariable Long paymentId) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> refundPayment(@PathVariable Long paymentId) {
         try {
-            Payment refundedPayment = paymentService.refundPayment(paymentId);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("paymentId", refundedPayment.getId());
-            response.put("status", refundedPayment.getPaymentStatus());
-            response.put("amount", refundedPayment.getAmount());
-            response.put("message", "Payment refunded successfully");
-            
-            return ResponseEntity.ok(response);
+            return paymentService.refundPayment(paymentId)
+                    .thenApply(refundedPayment -> {
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("paymentId", refundedPayment.getId());
+                        response.put("status", refundedPayment.getPaymentStatus());
+                        response.put("amount", refundedPayment.getAmount());
+                        response.put("message", "Payment refunded successfully");
+                        return ResponseEntity.ok(response);
+                    })
+                    .exceptionally(PaymentController::error);
         } catch (Exception e) {
-            Map<String, Object> error = new HashMap<>();
-            error.put("error", e.getMessage());
-            return ResponseEntity.status(400).body(error);
+            return CompletableFuture.completedFuture(error(e));
         }
     }
 
@@ -105,6 +106,13 @@ public class PaymentController {
         }
     }
 
+    private static ResponseEntity<Map<String, Object>> error(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", cause.getMessage());
+        return ResponseEntity.status(400).body(error);
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         Map<String, String> response = new HashMap<>();
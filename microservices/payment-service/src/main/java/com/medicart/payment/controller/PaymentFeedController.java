@@ -0,0 +1,44 @@
+package com.medicart.payment.controller;
+
+import com.medicart.common.dto.PaymentDTO;
+import com.medicart.payment.service.PaymentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Payment feeds consumed by analytics-service. Internal: not routed by the gateway
+ * and only open to callers presenting the service token.
+ */
+@RestController
+@RequestMapping("/internal/payment")
+public class PaymentFeedController {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    /**
+     * Incremental payment feed.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<List<PaymentDTO>> getPaymentFeed(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "500") int limit) {
+        LocalDateTime from = since != null ? since : LocalDateTime.of(1970, 1, 1, 0, 0);
+        return ResponseEntity.ok(paymentService.getPaymentFeed(from, afterId, Math.min(Math.max(limit, 1), 1000)));
+    }
+
+    /**
+     * All payments taken or changed on one day, for analytics reconciliation.
+     */
+    @GetMapping("/feed/day")
+    public ResponseEntity<List<PaymentDTO>> getPaymentsForDay(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        return ResponseEntity.ok(paymentService.getPaymentsForDay(day));
+    }
+}
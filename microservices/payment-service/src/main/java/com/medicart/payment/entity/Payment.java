@@ -9,7 +9,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_payments_order_id", columnNames = "order_id")
+}, indexes = {
+    @Index(name = "idx_payments_updated_at", columnList = "updated_at, id"),
+    @Index(name = "idx_payments_payment_date", columnList = "payment_date"),
+    @Index(name = "idx_payments_status_updated_at", columnList = "payment_status, updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -47,6 +53,11 @@ public class Payment {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    /** Bumped by every state transition; transitions compare-and-set on it */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -58,7 +69,20 @@ public class Payment {
         updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * PENDING -> PROCESSING -> SUCCESS | FAILED, SUCCESS -> REFUNDED, and FAILED ->
+     * PROCESSING for a retry. One row per order moves through these states.
+     */
     public enum PaymentStatus {
-        PENDING, PROCESSING, SUCCESS, FAILED, REFUNDED
+        PENDING, PROCESSING, SUCCESS, FAILED, REFUNDED;
+
+        public boolean canTransitionTo(PaymentStatus next) {
+            return switch (this) {
+                case PENDING, FAILED -> next == PROCESSING;
+                case PROCESSING -> next == SUCCESS || next == FAILED;
+                case SUCCESS -> next == REFUNDED;
+                case REFUNDED -> false;
+            };
+        }
     }
 }
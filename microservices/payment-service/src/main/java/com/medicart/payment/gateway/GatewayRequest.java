@@ -0,0 +1,9 @@
+package com.medicart.payment.gateway;
+
+import java.math.BigDecimal;
+
+/**
+ * @param reference idempotency key the processor deduplicates on (our transaction id)
+ */
+public record GatewayRequest(String reference, Long orderId, BigDecimal amount, String paymentMethod) {
+}
@@ -0,0 +1,16 @@
+package com.medicart.payment.gateway;
+
+/**
+ * Processor answer. {@code gatewayReference} identifies the charge/refund at the
+ * processor; {@code declineReason} is set only when not approved.
+ */
+public record GatewayResult(boolean approved, String gatewayReference, String declineReason) {
+
+    public static GatewayResult approved(String gatewayReference) {
+        return new GatewayResult(true, gatewayReference, null);
+    }
+
+    public static GatewayResult declined(String declineReason) {
+        return new GatewayResult(false, null, declineReason);
+    }
+}
@@ -0,0 +1,48 @@
+package com.medicart.payment.gateway;
+
+import java.util.Random;
+
+/**
+ * Shapes of simulated processor latency, all parameterised by a mean and a spread.
+ */
+public enum LatencyDistribution {
+    /** Always the mean */
+    FIXED {
+        @Override
+        double sample(Random random, double mean, double spread) {
+            return mean;
+        }
+    },
+    /** Uniform in [mean - spread, mean + spread] */
+    UNIFORM {
+        @Override
+        double sample(Random random, double mean, double spread) {
+            return mean - spread + 2 * spread * random.nextDouble();
+        }
+    },
+    /** Exponential with the given mean; the spread is ignored */
+    EXPONENTIAL {
+        @Override
+        double sample(Random random, double mean, double spread) {
+            return -mean * Math.log(1.0 - random.nextDouble());
+        }
+    },
+    /** Log-normal with the given mean and standard deviation: a long right tail like real processors */
+    LOG_NORMAL {
+        @Override
+        double sample(Random random, double mean, double spread) {
+            if (mean <= 0) {
+                return 0;
+            }
+            double variance = Math.log(1.0 + (spread * spread) / (mean * mean));
+            double mu = Math.log(mean) - variance / 2;
+            return Math.exp(mu + Math.sqrt(variance) * random.nextGaussian());
+        }
+    };
+
+    abstract double sample(Random random, double mean, double spread);
+
+    public long sampleMillis(Random random, double mean, double spread) {
+        return Math.max(0L, Math.round(sample(random, mean, spread)));
+    }
+}
@@ -0,0 +1,29 @@
+package com.medicart.payment.gateway;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Card/wallet processor the payment service charges through.
+ *
+ * Calls return immediately; the future completes when the processor answers. A
+ * decline completes normally with an unapproved {@link GatewayResult}; the future
+ * completes exceptionally with {@link PaymentGatewayException} only when the outcome
+ * is unknown (transport error, timeout). Implementations must not block the caller.
+ *
+ * An unknown outcome is settled with {@link #lookup}: the processor is the only
+ * party that knows whether a charge whose answer was lost was captured.
+ */
+public interface PaymentGateway {
+
+    CompletableFuture<GatewayResult> charge(GatewayRequest request);
+
+    CompletableFuture<GatewayResult> refund(GatewayRequest request);
+
+    /**
+     * What became of the call made with this reference: its result if the processor
+     * decided it, a decline if the processor never received it, and
+     * {@link PaymentGatewayException} while it is still being processed or the
+     * processor cannot be reached.
+     */
+    CompletableFuture<GatewayResult> lookup(String reference);
+}
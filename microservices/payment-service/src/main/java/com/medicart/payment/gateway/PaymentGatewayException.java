@@ -0,0 +1,12 @@
+package com.medicart.payment.gateway;
+
+/**
+ * The processor could not be reached or did not answer in time, so the outcome of
+ * the call is unknown.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+}
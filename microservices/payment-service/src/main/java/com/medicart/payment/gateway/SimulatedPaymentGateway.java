@@ -0,0 +1,128 @@
+package com.medicart.payment.gateway;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for a real processor. Each call is answered after a latency drawn
+ * from the configured distribution by a small timer pool, so thousands of calls can be
+ * in flight without a thread each. A share of calls is declined and another share
+ * loses its answer after the simulated processor has decided, to exercise the
+ * unknown-outcome path.
+ *
+ * Like a real processor it remembers every reference it has decided: a repeated
+ * call with the same reference replays the first result instead of charging again,
+ * and {@link #lookup} reports it. Decisions are kept in memory for the life of the
+ * simulator.
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway.provider", havingValue = "simulator", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+    private static final Logger log = LoggerFactory.getLogger(SimulatedPaymentGateway.class);
+
+    private final LatencyDistribution distribution;
+    private final double meanMillis;
+    private final double spreadMillis;
+    private final double declineRate;
+    private final double errorRate;
+    private final ScheduledExecutorService timer;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, GatewayResult> decided = new ConcurrentHashMap<>();
+
+    public SimulatedPaymentGateway(
+            @Value("${payment.gateway.simulator.latency-distribution:LOG_NORMAL}") LatencyDistribution distribution,
+            @Value("${payment.gateway.simulator.latency-mean-ms:100}") double meanMillis,
+            @Value("${payment.gateway.simulator.latency-spread-ms:50}") double spreadMillis,
+            @Value("${payment.gateway.simulator.decline-rate:0.0}") double declineRate,
+            @Value("${payment.gateway.simulator.error-rate:0.0}") double errorRate,
+            @Value("${payment.gateway.simulator.timer-threads:2}") int timerThreads) {
+        this.distribution = distribution;
+        this.meanMillis = meanMillis;
+        this.spreadMillis = spreadMillis;
+        this.declineRate = declineRate;
+        this.errorRate = errorRate;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.timer = Executors.newScheduledThreadPool(timerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "gateway-sim-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("💳 Simulated payment gateway: {} latency, mean {}ms, decline rate {}, error rate {}",
+                distribution, meanMillis, declineRate, errorRate);
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> charge(GatewayRequest request) {
+        return respond(request, "ch_");
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> refund(GatewayRequest request) {
+        return respond(request, "re_");
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> lookup(String reference) {
+        Random random = ThreadLocalRandom.current();
+        long delay = distribution.sampleMillis(random, meanMillis, spreadMillis);
+        CompletableFuture<GatewayResult> future = new CompletableFuture<>();
+        timer.schedule(() -> {
+            // In-flight first: a decision is stored before the reference leaves inFlight
+            if (inFlight.contains(reference)) {
+                future.completeExceptionally(new PaymentGatewayException(
+                        "Simulated processor is still processing " + reference));
+                return;
+            }
+            GatewayResult result = decided.get(reference);
+            future.complete(result != null ? result : GatewayResult.declined("No charge with reference " + reference));
+        }, delay, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    private CompletableFuture<GatewayResult> respond(GatewayRequest request, String prefix) {
+        GatewayResult previous = decided.get(request.reference());
+        if (previous != null) {
+            return CompletableFuture.completedFuture(previous);
+        }
+        Random random = ThreadLocalRandom.current();
+        long delay = distribution.sampleMillis(random, meanMillis, spreadMillis);
+        boolean answerLost = random.nextDouble() < errorRate;
+        boolean declined = random.nextDouble() < declineRate;
+        CompletableFuture<GatewayResult> future = new CompletableFuture<>();
+        inFlight.add(request.reference());
+        timer.schedule(() -> {
+            GatewayResult result = decided.computeIfAbsent(request.reference(), reference -> declined
+                    ? GatewayResult.declined("Simulated decline")
+                    : GatewayResult.approved(prefix + UUID.randomUUID()));
+            inFlight.remove(request.reference());
+            if (answerLost) {
+                future.completeExceptionally(new PaymentGatewayException(
+                        "Simulated processor error for " + request.reference()));
+            } else {
+                future.complete(result);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
@@ -1,8 +1,15 @@
 package com.medicart.payment.repository;
 
 import com.medicart.payment.entity.Payment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +18,47 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByOrderId(Long orderId);
     List<Payment> findByUserId(Long userId);
     List<Payment> findByPaymentStatus(Payment.PaymentStatus status);
+
+    /**
+     * Oldest payments left in {@code status} since before {@code cutoff}, for recovery.
+     */
+    List<Payment> findByPaymentStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(Payment.PaymentStatus status,
+                                                                         LocalDateTime cutoff,
+                                                                         Pageable pageable);
+
+    /**
+     * Keyset page of payments changed after the (updatedAt, id) watermark, oldest first.
+     */
+    @Query("SELECT p FROM Payment p WHERE p.updatedAt > :since OR (p.updatedAt = :since AND p.id > :afterId) "
+            + "ORDER BY p.updatedAt ASC, p.id ASC")
+    List<Payment> findChangedSince(@Param("since") LocalDateTime since,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    /**
+     * Payments taken or last changed (e.g. refunded) within [from, to), for re-deriving a day.
+     */
+    @Query("SELECT p FROM Payment p WHERE (p.paymentDate >= :from AND p.paymentDate < :to) "
+            + "OR (p.updatedAt >= :from AND p.updatedAt < :to) ORDER BY p.id ASC")
+    List<Payment> findTouchedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Start a charge attempt if the row is still in {@code from} at {@code version}.
+     * Returns 1 if this caller won the transition, 0 if someone else moved the row first.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Payment p SET p.paymentStatus = :processing, "
+            + "p.transactionId = :attemptId, p.userId = :userId, p.amount = :amount, p.paymentMethod = :paymentMethod, "
+            + "p.paymentDate = :now, p.updatedAt = :now, p.version = p.version + 1 "
+            + "WHERE p.id = :id AND p.paymentStatus = :from AND p.version = :version")
+    int beginAttempt(@Param("id") Long id,
+                     @Param("from") Payment.PaymentStatus from,
+                     @Param("processing") Payment.PaymentStatus processing,
+                     @Param("version") Long version,
+                     @Param("attemptId") String attemptId,
+                     @Param("userId") Long userId,
+                     @Param("amount") BigDecimal amount,
+                     @Param("paymentMethod") String paymentMethod,
+                     @Param("now") LocalDateTime now);
 }
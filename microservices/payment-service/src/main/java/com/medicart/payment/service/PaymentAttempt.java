@@ -0,0 +1,10 @@
+package com.medicart.payment.service;
+
+import com.medicart.payment.entity.Payment;
+
+/**
+ * Result of opening a payment for an order: the order's single payment row, and
+ * whether this caller started a new charge attempt on it (and so must call the gateway).
+ */
+public record PaymentAttempt(Payment payment, boolean started) {
+}
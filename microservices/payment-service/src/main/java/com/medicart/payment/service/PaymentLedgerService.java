@@ -0,0 +1,164 @@
+package com.medicart.payment.service;
+
+import com.medicart.payment.entity.Payment;
+import com.medicart.payment.entity.Transaction;
+import com.medicart.payment.repository.PaymentRepository;
+import com.medicart.payment.txlog.StatusTransition;
+import com.medicart.payment.txlog.TransactionLogWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The short database steps around a gateway call. {@link PaymentService} opens a
+ * payment here, waits for the gateway with no transaction or connection held, and
+ * then records the outcome here. Outcomes are written through the batched
+ * {@link TransactionLogWriter}, which commits the status change and its audit record
+ * in one transaction; each step completes once both are durable.
+ *
+ * Each order has exactly one payment row (unique order id). Every state change is a
+ * compare-and-set on (status, version), so concurrent requests for the same order
+ * race on a single row update: one wins and charges, the others see its state and
+ * return it. Nothing takes a lock wider than that row.
+ */
+@Service
+public class PaymentLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentLedgerService.class);
+
+    private static final int MAX_TRANSITION_ATTEMPTS = 3;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TransactionLogWriter transactionLogWriter;
+
+    /**
+     * Find or create the order's payment and try to start a charge attempt on it.
+     * If the payment already succeeded, is being charged by another request or was
+     * refunded, it is returned as is with {@code started == false}.
+     */
+    public PaymentAttempt openPayment(Long orderId, Long userId, BigDecimal amount, String paymentMethod) {
+        Payment payment = paymentRepository.findByOrderId(orderId)
+                .orElseGet(() -> createPending(orderId, userId, amount, paymentMethod));
+
+        for (int attempt = 0; attempt < MAX_TRANSITION_ATTEMPTS; attempt++) {
+            if (!payment.getPaymentStatus().canTransitionTo(Payment.PaymentStatus.PROCESSING)) {
+                return new PaymentAttempt(payment, false);
+            }
+            String attemptId = UUID.randomUUID().toString();
+            int updated = paymentRepository.beginAttempt(payment.getId(), payment.getPaymentStatus(),
+                    Payment.PaymentStatus.PROCESSING, payment.getVersion(), attemptId, userId, amount,
+                    paymentMethod, LocalDateTime.now());
+            payment = getPayment(payment.getId());
+            if (updated == 1) {
+                return new PaymentAttempt(payment, true);
+            }
+        }
+        return new PaymentAttempt(payment, false);
+    }
+
+    /**
+     * Record the gateway's answer for an attempt. Ignored (the current row is returned)
+     * if the attempt has been superseded in the meantime. Completes once the new
+     * status and its audit record are durable. If they cannot be written the payment
+     * is returned still PROCESSING, for recovery to settle from the gateway later.
+     */
+    public CompletableFuture<Payment> recordCharge(Long paymentId, String attemptId, boolean approved, String description) {
+        Payment payment = getPayment(paymentId);
+        if (payment.getPaymentStatus() != Payment.PaymentStatus.PROCESSING
+                || !attemptId.equals(payment.getTransactionId())) {
+            return CompletableFuture.completedFuture(payment);
+        }
+        Payment.PaymentStatus outcome = approved ? Payment.PaymentStatus.SUCCESS : Payment.PaymentStatus.FAILED;
+        StatusTransition transition = new StatusTransition(paymentId, Payment.PaymentStatus.PROCESSING, outcome,
+                payment.getVersion(), LocalDateTime.now());
+        return transactionLogWriter.appendWithTransition(transition, Transaction.builder()
+                        .paymentId(paymentId)
+                        .transactionType(Transaction.TransactionType.PAYMENT)
+                        .amount(payment.getAmount())
+                        .transactionId(UUID.randomUUID().toString())
+                        .status(approved ? Transaction.TransactionStatus.SUCCESS : Transaction.TransactionStatus.FAILED)
+                        .description(description)
+                        .build())
+                .handle((applied, error) -> {
+                    if (error != null) {
+                        log.error("❌ Could not record outcome of payment {}: {}", paymentId, error.getMessage());
+                        return payment;
+                    }
+                    return applied ? applied(payment, transition) : getPayment(paymentId);
+                });
+    }
+
+    /**
+     * Mark a successful payment refunded. Refunding an already refunded payment
+     * returns it unchanged, so a retried refund request is harmless.
+     */
+    public CompletableFuture<Payment> recordRefund(Long paymentId, String description) {
+        Payment payment = getPayment(paymentId);
+        if (payment.getPaymentStatus() == Payment.PaymentStatus.REFUNDED) {
+            return CompletableFuture.completedFuture(payment);
+        }
+        if (!payment.getPaymentStatus().canTransitionTo(Payment.PaymentStatus.REFUNDED)) {
+            throw new IllegalStateException("Cannot refund payment in status " + payment.getPaymentStatus());
+        }
+        StatusTransition transition = new StatusTransition(paymentId, Payment.PaymentStatus.SUCCESS,
+                Payment.PaymentStatus.REFUNDED, payment.getVersion(), LocalDateTime.now());
+        return transactionLogWriter.appendWithTransition(transition, Transaction.builder()
+                        .paymentId(paymentId)
+                        .transactionType(Transaction.TransactionType.REFUND)
+                        .amount(payment.getAmount())
+                        .transactionId(UUID.randomUUID().toString())
+                        .status(Transaction.TransactionStatus.SUCCESS)
+                        .description(description)
+                        .build())
+                .thenApply(applied -> {
+                    if (applied) {
+                        return applied(payment, transition);
+                    }
+                    Payment current = getPayment(paymentId);
+                    if (current.getPaymentStatus() == Payment.PaymentStatus.REFUNDED) {
+                        return current;
+                    }
+                    throw new IllegalStateException("Cannot refund payment in status " + current.getPaymentStatus());
+                });
+    }
+
+    /** The row as the transition left it, without reading it back on the log writer's thread */
+    private static Payment applied(Payment payment, StatusTransition transition) {
+        payment.setPaymentStatus(transition.to());
+        payment.setVersion(transition.version() + 1);
+        payment.setUpdatedAt(transition.at());
+        return payment;
+    }
+
+    public Payment getPayment(Long paymentId) {
+        return paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new RuntimeException("Payment not found"));
+    }
+
+    /** Insert the order's PENDING row; if a concurrent request inserted it first, use theirs */
+    private Payment createPending(Long orderId, Long userId, BigDecimal amount, String paymentMethod) {
+        try {
+            return paymentRepository.saveAndFlush(Payment.builder()
+                    .orderId(orderId)
+                    .userId(userId)
+                    .amount(amount)
+                    .paymentMethod(paymentMethod)
+                    .paymentStatus(Payment.PaymentStatus.PENDING)
+                    .transactionId(UUID.randomUUID().toString())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            return paymentRepository.findByOrderId(orderId)
+                    .orElseThrow(() -> e);
+        }
+    }
+}
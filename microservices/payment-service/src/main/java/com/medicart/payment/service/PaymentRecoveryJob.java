@@ -0,0 +1,53 @@
+package com.medicart.payment.service;
+
+import com.medicart.payment.entity.Payment;
+import com.medicart.payment.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Settles payments stuck in PROCESSING. A row stays there if the service stopped
+ * between starting an attempt and recording its outcome, or if the gateway could
+ * not say what became of a timed-out charge. Such a row refuses new attempts, so
+ * once it has been untouched for {@code stale-after-ms} the gateway is asked for
+ * the attempt's outcome and the row is moved on from that answer.
+ */
+@Component
+public class PaymentRecoveryJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentRecoveryJob.class);
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Value("${payment.recovery.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${payment.recovery.interval-ms:60000}", initialDelay = 30000)
+    public void recoverStalePayments() {
+        List<Payment> stale = paymentRepository.findByPaymentStatusAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                Payment.PaymentStatus.PROCESSING, paymentService.staleCutoff(), PageRequest.of(0, batchSize));
+        if (stale.isEmpty()) {
+            return;
+        }
+        log.info("🔁 Resolving {} payments stuck in PROCESSING", stale.size());
+        for (Payment payment : stale) {
+            try {
+                paymentService.resolveAttempt(payment.getId(), payment.getTransactionId(), payment.getOrderId())
+                        .join();
+            } catch (Exception e) {
+                log.warn("⚠️ Could not resolve payment {}: {}", payment.getId(), e.getMessage());
+            }
+        }
+    }
+}
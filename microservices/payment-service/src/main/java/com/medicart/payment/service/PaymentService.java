@@ -5,18 +5,34 @@ import com.medicart.payment.entity.Transaction;
 import com.medicart.payment.repository.PaymentRepository;
 import com.medicart.payment.repository.TransactionRepository;
 import com.medicart.payment.client.CartOrdersClient;
+import com.medicart.payment.gateway.GatewayRequest;
+import com.medicart.payment.gateway.GatewayResult;
+import com.medicart.payment.gateway.PaymentGateway;
+import com.medicart.common.dto.PaymentDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.UUID;
-import java.util.Optional;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
 @Service
 public class PaymentService {
 
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
     @Autowired
     private PaymentRepository paymentRepository;
 
@@ -26,82 +42,141 @@ public class PaymentService {
     @Autowired
     private CartOrdersClient cartOrdersClient;
 
-    @Transactional
-    public Payment processPayment(Long orderId, Long userId, BigDecimal amount, String paymentMethod) {
-        try {
-            // Check if payment already exists for this order
-            Optional<Payment> existingPayment = paymentRepository.findByOrderId(orderId);
-            if (existingPayment.isPresent() && existingPayment.get().getPaymentStatus() == Payment.PaymentStatus.SUCCESS) {
-                return existingPayment.get();
-            }
+    @Autowired
+    private PaymentLedgerService paymentLedgerService;
 
-            // Create payment record
-            Payment payment = Payment.builder()
-                    .orderId(orderId)
-                    .userId(userId)
-                    .amount(amount)
-                    .paymentMethod(paymentMethod)
-                    .paymentStatus(Payment.PaymentStatus.PROCESSING)
-                    .transactionId(UUID.randomUUID().toString())
-                    .paymentDate(LocalDateTime.now())
-                    .build();
-
-            payment = paymentRepository.save(payment);
-
-            // Simulate payment processing (in real scenario, call payment gateway)
-            simulatePaymentGateway(payment);
-
-            // Create transaction record
-            Transaction transaction = Transaction.builder()
-                    .paymentId(payment.getId())
-                    .transactionType(Transaction.TransactionType.PAYMENT)
-                    .amount(amount)
-                    .transactionId(UUID.randomUUID().toString())
-                    .status(Transaction.TransactionStatus.SUCCESS)
-                    .description("Payment processed for order " + orderId)
-                    .build();
-
-            transactionRepository.save(transaction);
-
-            // Update payment status
-            payment.setPaymentStatus(Payment.PaymentStatus.SUCCESS);
-            payment = paymentRepository.save(payment);
-
-            // Update order status in Cart-Orders service
-            cartOrdersClient.updateOrderStatus(orderId, "CONFIRMED");
+    @Autowired
+    private PaymentGateway paymentGateway;
 
-            return payment;
-        } catch (Exception e) {
-            return handlePaymentFailure(orderId, userId, amount, paymentMethod, e);
+    @Autowired
+    @Qualifier("paymentCompletionExecutor")
+    private Executor paymentCompletionExecutor;
+
+    @Value("${payment.gateway.timeout-ms:10000}")
+    private long gatewayTimeoutMs;
+
+    @Value("${payment.recovery.stale-after-ms:30000}")
+    private long staleAfterMs;
+
+    /**
+     * Charge an order. The payment row is opened in one short transaction, the
+     * gateway is awaited with no transaction or request thread held, and the outcome
+     * is recorded in a second transaction on the completion pool.
+     *
+     * Calls for an order that is already paid, or being charged by another request,
+     * return that payment without charging again.
+     *
+     * When the gateway's answer is lost (timeout, transport error) the charge may
+     * still have been captured, so it is not recorded as failed: the gateway is asked
+     * what became of the attempt, and if it cannot tell yet the payment stays
+     * PROCESSING, which refuses any new attempt for the order until it is settled.
+     * A PROCESSING row left untouched past {@code stale-after-ms} is settled the same
+     * way before the caller's attempt; if it turns out to have failed, the new
+     * attempt goes ahead.
+     */
+    public CompletableFuture<Payment> processPayment(Long orderId, Long userId, BigDecimal amount, String paymentMethod) {
+        PaymentAttempt attempt = paymentLedgerService.openPayment(orderId, userId, amount, paymentMethod);
+        Payment payment = attempt.payment();
+        if (!attempt.started()) {
+            if (payment.getPaymentStatus() == Payment.PaymentStatus.PROCESSING
+                    && payment.getUpdatedAt() != null && payment.getUpdatedAt().isBefore(staleCutoff())) {
+                return resolveAttempt(payment.getId(), payment.getTransactionId(), orderId)
+                        .thenCompose(resolved -> resolved.getPaymentStatus() == Payment.PaymentStatus.FAILED
+                                ? processPayment(orderId, userId, amount, paymentMethod)
+                                : CompletableFuture.completedFuture(resolved));
+            }
+            return CompletableFuture.completedFuture(payment);
         }
-    }
 
-    @Transactional
-    public Payment refundPayment(Long paymentId) {
-        Optional<Payment> paymentOpt = paymentRepository.findById(paymentId);
-        if (paymentOpt.isEmpty()) {
-            throw new RuntimeException("Payment not found");
-        }
+        Long paymentId = payment.getId();
+        String attemptId = payment.getTransactionId();
+        GatewayRequest request = new GatewayRequest(attemptId, orderId, amount, paymentMethod);
+        return paymentGateway.charge(request)
+                .orTimeout(gatewayTimeoutMs, TimeUnit.MILLISECONDS)
+                .handleAsync((result, error) -> {
+                    if (error != null) {
+                        log.warn("⚠️ Payment {} for order {}: no answer from the gateway ({}), looking it up",
+                                paymentId, orderId, describe(error));
+                        return resolveAttempt(paymentId, attemptId, orderId);
+                    }
+                    return completeCharge(paymentId, attemptId, orderId, result);
+                }, paymentCompletionExecutor)
+                .thenCompose(Function.identity());
+    }
 
-        Payment payment = paymentOpt.get();
+    /**
+     * Settle a PROCESSING attempt from the gateway's record of it. If the gateway
+     * still cannot say, the payment is returned unchanged and stays PROCESSING.
+     */
+    public CompletableFuture<Payment> resolveAttempt(Long paymentId, String attemptId, Long orderId) {
+        return paymentGateway.lookup(attemptId)
+                .orTimeout(gatewayTimeoutMs, TimeUnit.MILLISECONDS)
+                .handleAsync((result, error) -> {
+                    if (error != null) {
+                        log.warn("⚠️ Payment {} for order {} is still unresolved: {}",
+                                paymentId, orderId, describe(error));
+                        return CompletableFuture.completedFuture(paymentLedgerService.getPayment(paymentId));
+                    }
+                    return completeCharge(paymentId, attemptId, orderId, result);
+                }, paymentCompletionExecutor)
+                .thenCompose(Function.identity());
+    }
 
-        // Create refund transaction
-        Transaction transaction = Transaction.builder()
-                .paymentId(paymentId)
-                .transactionType(Transaction.TransactionType.REFUND)
-                .amount(payment.getAmount())
-                .transactionId(UUID.randomUUID().toString())
-                .status(Transaction.TransactionStatus.SUCCESS)
-                .description("Refund for payment " + payment.getId())
-                .build();
+    /** PROCESSING rows last changed before this are presumed abandoned and looked up */
+    LocalDateTime staleCutoff() {
+        return LocalDateTime.now().minus(Duration.ofMillis(staleAfterMs));
+    }
 
-        transactionRepository.save(transaction);
+    private CompletableFuture<Payment> completeCharge(Long paymentId, String attemptId, Long orderId,
+                                                     GatewayResult result) {
+        if (!result.approved()) {
+            log.warn("⚠️ Payment {} for order {} failed: {}", paymentId, orderId, result.declineReason());
+            return paymentLedgerService.recordCharge(paymentId, attemptId, false,
+                    "Payment failed: " + result.declineReason());
+        }
+        return paymentLedgerService.recordCharge(paymentId, attemptId, true,
+                        "Payment processed for order " + orderId + " (" + result.gatewayReference() + ")")
+                .thenApplyAsync(payment -> {
+                    if (payment.getPaymentStatus() == Payment.PaymentStatus.SUCCESS) {
+                        confirmOrder(orderId, paymentId);
+                    }
+                    return payment;
+                }, paymentCompletionExecutor);
+    }
 
-        // Update payment status
-        payment.setPaymentStatus(Payment.PaymentStatus.REFUNDED);
-        payment.setUpdatedAt(LocalDateTime.now());
+    /** The charge is settled either way; a missed status update is for cart-orders to catch up on */
+    private void confirmOrder(Long orderId, Long paymentId) {
+        try {
+            cartOrdersClient.updateOrderStatus(orderId, "CONFIRMED");
+        } catch (Exception e) {
+            log.warn("⚠️ Could not confirm order {} after payment {}: {}", orderId, paymentId, e.getMessage());
+        }
+    }
 
-        return paymentRepository.save(payment);
+    /**
+     * Refund a successful payment. The gateway call is keyed on the payment's
+     * transaction id, so concurrent or retried refunds are deduplicated by the
+     * processor and converge on one REFUNDED row here.
+     */
+    public CompletableFuture<Payment> refundPayment(Long paymentId) {
+        Payment payment = getPaymentStatus(paymentId);
+        if (payment.getPaymentStatus() == Payment.PaymentStatus.REFUNDED) {
+            return CompletableFuture.completedFuture(payment);
+        }
+        if (!payment.getPaymentStatus().canTransitionTo(Payment.PaymentStatus.REFUNDED)) {
+            throw new IllegalStateException("Cannot refund payment in status " + payment.getPaymentStatus());
+        }
+        GatewayRequest request = new GatewayRequest("refund-" + payment.getTransactionId(), payment.getOrderId(),
+                payment.getAmount(), payment.getPaymentMethod());
+        return paymentGateway.refund(request)
+                .orTimeout(gatewayTimeoutMs, TimeUnit.MILLISECONDS)
+                .thenComposeAsync(result -> {
+                    if (!result.approved()) {
+                        throw new RuntimeException("Refund declined: " + result.declineReason());
+                    }
+                    return paymentLedgerService.recordRefund(paymentId,
+                            "Refund for payment " + paymentId + " (" + result.gatewayReference() + ")");
+                }, paymentCompletionExecutor);
     }
 
     public Payment getPaymentStatus(Long paymentId) {
@@ -122,42 +197,47 @@ public class PaymentService {
         return transactionRepository.findByPaymentId(paymentId);
     }
 
-    private void simulatePaymentGateway(Payment payment) {
-        // In production, this would call actual payment gateway (Stripe, PayPal, etc.)
-        // For now, simulate a successful payment with some delay
-        try {
-            Thread.sleep(100); // Simulate processing time
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Payment processing interrupted");
-        }
+    /**
+     * Change feed for analytics: payments whose updatedAt is after the given
+     * (since, afterId) watermark, oldest first, at most {@code limit} rows.
+     */
+    public List<PaymentDTO> getPaymentFeed(LocalDateTime since, Long afterId, int limit) {
+        return paymentRepository.findChangedSince(since, afterId, PageRequest.of(0, limit))
+                .stream()
+                .map(this::toFeedDTO)
+                .toList();
     }
 
-    private Payment handlePaymentFailure(Long orderId, Long userId, BigDecimal amount, 
-                                       String paymentMethod, Exception e) {
-        Payment payment = Payment.builder()
-                .orderId(orderId)
-                .userId(userId)
-                .amount(amount)
-                .paymentMethod(paymentMethod)
-                .paymentStatus(Payment.PaymentStatus.FAILED)
-                .transactionId(UUID.randomUUID().toString())
-                .build();
-
-        payment = paymentRepository.save(payment);
+    /**
+     * Every payment taken or changed on the given day, used by analytics to
+     * reconcile that day's revenue against the source of truth.
+     */
+    public List<PaymentDTO> getPaymentsForDay(LocalDate day) {
+        return paymentRepository.findTouchedBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay())
+                .stream()
+                .map(this::toFeedDTO)
+                .toList();
+    }
 
-        // Create failed transaction record
-        Transaction transaction = Transaction.builder()
-                .paymentId(payment.getId())
-                .transactionType(Transaction.TransactionType.PAYMENT)
-                .amount(amount)
-                .transactionId(UUID.randomUUID().toString())
-                .status(Transaction.TransactionStatus.FAILED)
-                .description("Payment failed: " + e.getMessage())
+    private PaymentDTO toFeedDTO(Payment payment) {
+        return PaymentDTO.builder()
+                .id(payment.getId())
+                .orderId(payment.getOrderId())
+                .userId(payment.getUserId())
+                .amount(payment.getAmount() != null ? payment.getAmount().doubleValue() : null)
+                .status(payment.getPaymentStatus() != null ? payment.getPaymentStatus().name() : null)
+                .paymentMethod(payment.getPaymentMethod())
+                .paymentDate(payment.getPaymentDate())
+                .transactionId(payment.getTransactionId())
+                .updatedAt(payment.getUpdatedAt())
                 .build();
+    }
 
-        transactionRepository.save(transaction);
-
-        return payment;
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return "Gateway timed out";
+        }
+        return cause.getMessage();
     }
 }
@@ -0,0 +1,13 @@
+package com.medicart.payment.txlog;
+
+import com.medicart.payment.entity.Payment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compare-and-set of a payment's status that an audit record is written together
+ * with: applied only if the payment is still in {@code from} at {@code version}.
+ */
+public record StatusTransition(Long paymentId, Payment.PaymentStatus from, Payment.PaymentStatus to,
+                               Long version, LocalDateTime at) {
+}
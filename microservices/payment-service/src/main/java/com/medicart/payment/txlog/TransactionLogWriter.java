@@ -0,0 +1,231 @@
+package com.medicart.payment.txlog;
+
+import com.medicart.payment.entity.Transaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only writer for the {@code transactions} audit log.
+ *
+ * In GROUP mode records go into a bounded ring buffer; one writer thread takes
+ * whatever has accumulated (up to {@code batch-size}, lingering at most
+ * {@code max-delay-ms} for more), inserts it with a single JDBC batch and commits
+ * once, so a burst of payments shares one log fsync. In DIRECT mode each record is
+ * inserted and committed on the caller's thread.
+ *
+ * A record can carry a {@link StatusTransition}: the payment's compare-and-set runs
+ * in the same database transaction as the insert, so a payment never changes state
+ * without its audit row or gets an audit row for a change that lost the race.
+ *
+ * Either way the returned future completes only after the commit, so callers that
+ * wait on it before answering never acknowledge a payment whose audit row could be
+ * lost. A full buffer pushes back on callers for up to {@code offer-timeout-ms} and
+ * then fails the append, with nothing written, rather than growing without bound.
+ * If a group fails to commit, its records are retried one per transaction so a
+ * single bad record fails alone.
+ */
+@Component
+public class TransactionLogWriter {
+    private static final Logger log = LoggerFactory.getLogger(TransactionLogWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO transactions "
+            + "(payment_id, transaction_type, amount, description, transaction_id, status, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String TRANSITION_SQL = "UPDATE payments "
+            + "SET payment_status = ?, updated_at = ?, version = version + 1 "
+            + "WHERE id = ? AND payment_status = ? AND version = ?";
+
+    public enum Mode {
+        GROUP, DIRECT
+    }
+
+    private record Entry(Transaction transaction, StatusTransition transition, CompletableFuture<Boolean> committed) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Mode mode;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutMillis;
+    private final BlockingQueue<Entry> buffer;
+    private volatile boolean running = true;
+    private Thread writer;
+
+    public TransactionLogWriter(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${payment.txlog.mode:GROUP}") Mode mode,
+                                @Value("${payment.txlog.buffer-capacity:4096}") int bufferCapacity,
+                                @Value("${payment.txlog.batch-size:128}") int batchSize,
+                                @Value("${payment.txlog.max-delay-ms:2}") long maxDelayMillis,
+                                @Value("${payment.txlog.offer-timeout-ms:1000}") long offerTimeoutMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = mode;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (mode == Mode.GROUP) {
+            writer = new Thread(this::run, "txlog-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+        log.info("🧾 Transaction log writer in {} mode, batch size {}", mode, batchSize);
+    }
+
+    /** Queue a record; the future completes once it is committed */
+    public CompletableFuture<Void> append(Transaction transaction) {
+        return enqueue(transaction, null).thenApply(applied -> null);
+    }
+
+    /**
+     * Queue a record to be written with a payment state change. The future completes
+     * with {@code true} once both are committed, or {@code false} if the payment had
+     * already moved on, in which case neither is written.
+     */
+    public CompletableFuture<Boolean> appendWithTransition(StatusTransition transition, Transaction transaction) {
+        return enqueue(transaction, transition);
+    }
+
+    private CompletableFuture<Boolean> enqueue(Transaction transaction, StatusTransition transition) {
+        if (transaction.getCreatedAt() == null) {
+            transaction.setCreatedAt(LocalDateTime.now());
+        }
+        Entry entry = new Entry(transaction, transition, new CompletableFuture<>());
+        if (mode == Mode.DIRECT) {
+            flush(List.of(entry));
+            return entry.committed();
+        }
+        try {
+            if (!running || !buffer.offer(entry, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                entry.committed().completeExceptionally(new RuntimeException("Transaction log is full"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entry.committed().completeExceptionally(e);
+        }
+        return entry.committed();
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                Entry first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - batch.size());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Entry next = remaining > 0 ? buffer.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    buffer.drainTo(batch, batchSize - batch.size());
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Shutdown: finish what is buffered, then exit
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        boolean[] applied;
+        try {
+            applied = transactionTemplate.execute(status -> write(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.error("❌ Writing transaction log record for payment {} failed: {}",
+                        batch.get(0).transaction().getPaymentId(), e.getMessage());
+                batch.get(0).committed().completeExceptionally(e);
+                return;
+            }
+            log.warn("⚠️ Writing {} transaction log records failed ({}), retrying them one by one",
+                    batch.size(), e.getMessage());
+            for (Entry entry : batch) {
+                flush(List.of(entry));
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).committed().complete(applied[i]);
+        }
+    }
+
+    /** Apply the batch's transitions, then insert the records of those that won */
+    private boolean[] write(List<Entry> batch) {
+        boolean[] applied = new boolean[batch.size()];
+        List<Entry> inserts = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Entry entry = batch.get(i);
+            StatusTransition transition = entry.transition();
+            applied[i] = transition == null || jdbcTemplate.update(TRANSITION_SQL,
+                    transition.to().name(), Timestamp.valueOf(transition.at()), transition.paymentId(),
+                    transition.from().name(), transition.version()) == 1;
+            if (applied[i]) {
+                inserts.add(entry);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), this::bind);
+        }
+        return applied;
+    }
+
+    private void bind(PreparedStatement statement, Entry entry) throws SQLException {
+        Transaction transaction = entry.transaction();
+        statement.setLong(1, transaction.getPaymentId());
+        statement.setString(2, transaction.getTransactionType() != null ? transaction.getTransactionType().name() : null);
+        statement.setBigDecimal(3, transaction.getAmount());
+        statement.setString(4, transaction.getDescription());
+        statement.setString(5, transaction.getTransactionId());
+        statement.setString(6, transaction.getStatus() != null ? transaction.getStatus().name() : null);
+        statement.setTimestamp(7, Timestamp.valueOf(transaction.getCreatedAt()));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        // Anything that slipped in after the writer exited is failed, never silently dropped
+        List<Entry> leftover = new ArrayList<>();
+        buffer.drainTo(leftover);
+        for (Entry entry : leftover) {
+            entry.committed().completeExceptionally(new RuntimeException("Transaction log is shut down"));
+        }
+    }
+}
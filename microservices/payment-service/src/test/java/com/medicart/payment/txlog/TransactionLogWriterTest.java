@@ -0,0 +1,228 @@
+package com.medicart.payment.txlog;
+
+import com.medicart.payment.entity.Payment;
+import com.medicart.payment.entity.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionLogWriterTest {
+
+    private final FakeJdbcTemplate jdbcTemplate = new FakeJdbcTemplate();
+    private final List<TransactionLogWriter> writers = new ArrayList<>();
+
+    @AfterEach
+    void stopWriters() throws InterruptedException {
+        for (TransactionLogWriter writer : writers) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void transitionAndRecordAreCommittedTogether() {
+        FakeTransactionManager transactionManager = new FakeTransactionManager(0);
+        TransactionLogWriter writer = writer(transactionManager, TransactionLogWriter.Mode.GROUP, 16);
+
+        boolean applied = writer.appendWithTransition(transition(1L), record(1L, "charged")).join();
+
+        assertThat(applied).isTrue();
+        assertThat(jdbcTemplate.transitioned).containsExactly(1L);
+        assertThat(jdbcTemplate.inserted).containsExactly("charged");
+        assertThat(transactionManager.commits.get()).isEqualTo(1);
+    }
+
+    @Test
+    void lostTransitionWritesNoRecord() {
+        jdbcTemplate.alreadyMoved.add(2L);
+        TransactionLogWriter writer = writer(new FakeTransactionManager(0), TransactionLogWriter.Mode.DIRECT, 16);
+
+        boolean applied = writer.appendWithTransition(transition(2L), record(2L, "late answer")).join();
+
+        assertThat(applied).isFalse();
+        assertThat(jdbcTemplate.inserted).isEmpty();
+    }
+
+    @Test
+    void failedGroupIsRetriedOneRecordAtATime() {
+        FakeTransactionManager transactionManager = new FakeTransactionManager(0);
+        TransactionLogWriter writer = writer(transactionManager, TransactionLogWriter.Mode.GROUP, 64);
+        // Hold the writer on the first record so the rest queue up as one group
+        jdbcTemplate.pauseFirstUpdateMillis = 50;
+
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            futures.add(writer.appendWithTransition(transition(id), record(id, id == 3 ? "poison" : "ok-" + id)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+
+        assertThat(futures.get(2)).isCompletedExceptionally();
+        assertThat(futures).filteredOn(future -> !future.isCompletedExceptionally()).hasSize(4)
+                .allSatisfy(future -> assertThat(future.join()).isTrue());
+        assertThat(jdbcTemplate.inserted).containsExactlyInAnyOrder("ok-1", "ok-2", "ok-4", "ok-5");
+    }
+
+    /**
+     * 1, 16 and 256 concurrent payers each record 4 payments, waiting for every commit.
+     * DIRECT commits once per record at any concurrency; GROUP shares commits as soon
+     * as payers overlap. Commits stand in for log flushes, so fewer is the point.
+     */
+    @Test
+    void groupCommitSharesCommitsBetweenConcurrentPayers() {
+        int recordsPerPayer = 4;
+        for (int payers : new int[]{1, 16, 256}) {
+            int direct = commitsFor(TransactionLogWriter.Mode.DIRECT, payers, recordsPerPayer);
+            int group = commitsFor(TransactionLogWriter.Mode.GROUP, payers, recordsPerPayer);
+
+            assertThat(direct).as("DIRECT commits, %d payers", payers).isEqualTo(payers * recordsPerPayer);
+            if (payers == 1) {
+                assertThat(group).as("GROUP commits, 1 payer").isEqualTo(recordsPerPayer);
+            } else {
+                assertThat(group).as("GROUP commits, %d payers", payers).isLessThan(direct);
+            }
+        }
+    }
+
+    private int commitsFor(TransactionLogWriter.Mode mode, int payers, int recordsPerPayer) {
+        FakeTransactionManager transactionManager = new FakeTransactionManager(TimeUnit.MILLISECONDS.toNanos(1));
+        TransactionLogWriter writer = writer(transactionManager, mode, 256);
+        AtomicInteger nextId = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int payer = 0; payer < payers; payer++) {
+                executor.submit(() -> {
+                    for (int n = 0; n < recordsPerPayer; n++) {
+                        long id = nextId.incrementAndGet();
+                        writer.appendWithTransition(transition(id), record(id, "payment")).join();
+                    }
+                });
+            }
+        }
+        return transactionManager.commits.get();
+    }
+
+    private TransactionLogWriter writer(PlatformTransactionManager transactionManager,
+                                        TransactionLogWriter.Mode mode, int batchSize) {
+        TransactionLogWriter writer = new TransactionLogWriter(jdbcTemplate, transactionManager, mode,
+                4096, batchSize, 2, 1000);
+        writer.start();
+        writers.add(writer);
+        return writer;
+    }
+
+    private static StatusTransition transition(long paymentId) {
+        return new StatusTransition(paymentId, Payment.PaymentStatus.PROCESSING, Payment.PaymentStatus.SUCCESS,
+                0L, LocalDateTime.now());
+    }
+
+    private static Transaction record(long paymentId, String description) {
+        return Transaction.builder()
+                .paymentId(paymentId)
+                .transactionType(Transaction.TransactionType.PAYMENT)
+                .amount(BigDecimal.TEN)
+                .transactionId("tx-" + paymentId)
+                .status(Transaction.TransactionStatus.SUCCESS)
+                .description(description)
+                .build();
+    }
+
+    /** Applies payment transitions unless the payment is in {@code alreadyMoved}; a "poison" record fails its batch */
+    private static class FakeJdbcTemplate extends JdbcTemplate {
+        final Set<Long> alreadyMoved = ConcurrentHashMap.newKeySet();
+        final List<Long> transitioned = new CopyOnWriteArrayList<>();
+        final List<String> inserted = new CopyOnWriteArrayList<>();
+        volatile long pauseFirstUpdateMillis;
+
+        @Override
+        public int update(String sql, Object... args) {
+            long pause = pauseFirstUpdateMillis;
+            if (pause > 0) {
+                pauseFirstUpdateMillis = 0;
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(pause));
+            }
+            Long paymentId = (Long) args[2];
+            if (alreadyMoved.contains(paymentId)) {
+                return 0;
+            }
+            transitioned.add(paymentId);
+            return 1;
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> setter) {
+            List<String> descriptions = new ArrayList<>();
+            // Only the description (parameter 4) matters here
+            PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("setString") && (int) args[0] == 4) {
+                            descriptions.add((String) args[1]);
+                        }
+                        return null;
+                    });
+            try {
+                for (T item : batchArgs) {
+                    setter.setValues(statement, item);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            if (descriptions.contains("poison")) {
+                throw new DataIntegrityViolationException("Rejected record");
+            }
+            inserted.addAll(descriptions);
+            return new int[][] {new int[descriptions.size()]};
+        }
+    }
+
+    /** Counts commits; each one costs {@code commitNanos}, standing in for the log flush */
+    private static class FakeTransactionManager implements PlatformTransactionManager {
+        final AtomicInteger commits = new AtomicInteger();
+        final long commitNanos;
+
+        FakeTransactionManager(long commitNanos) {
+            this.commitNanos = commitNanos;
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            commits.incrementAndGet();
+            if (commitNanos > 0) {
+                LockSupport.parkNanos(commitNanos);
+            }
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}